@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.benchmark;
+
+import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
+import com.avispl.symphony.dal.aggregator.parser.AggregatedDeviceProcessor;
+import com.avispl.symphony.dal.aggregator.parser.PropertiesMapping;
+import com.avispl.symphony.dal.aggregator.parser.PropertiesMappingParser;
+import com.avispl.symphony.dal.aggregator.parser.converter.JsonPropertyConverter;
+import com.avispl.symphony.dal.communicator.shure.ShureSystemOn;
+import com.avispl.symphony.dal.communicator.shure.parser.DeviceModelResolver;
+import com.avispl.symphony.dal.communicator.shure.parser.DevicesStreamReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the devices payload parsing and mapping, against the device fixtures from
+ * {@code src/test/resources/shure/responces}. Run with {@code -prof gc} to report allocation rate along with the throughput.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DevicesMappingBenchmark {
+
+    @Param({"ANIUSB", "IMX-Room", "MXA310", "MXA910", "MXWAPT8", "MXWNCS4", "P300", "SBC850", "SCM820-DAN"})
+    private String fixture;
+
+    private byte[] payload;
+    private JsonNode devices;
+    private ObjectMapper objectMapper;
+    private AggregatedDeviceProcessor aggregatedDeviceProcessor;
+    private DeviceModelResolver deviceModelResolver;
+    private DevicesStreamReader devicesStreamReader;
+
+    @Setup
+    public void setUp() throws Exception {
+        payload = Resources.toByteArray(Resources.getResource("shure/responces/" + fixture + ".json"));
+        objectMapper = new ObjectMapper();
+        devices = objectMapper.readTree(payload);
+        Map<String, PropertiesMapping> models = new PropertiesMappingParser().loadYML("shure/model-mapping.yml", ShureSystemOn.class);
+        aggregatedDeviceProcessor = new AggregatedDeviceProcessor(models);
+        deviceModelResolver = new DeviceModelResolver(models, new JsonPropertyConverter());
+        devicesStreamReader = new DevicesStreamReader(objectMapper.getFactory(), new HashSet<>(Arrays.asList("equalizerFilters", "matrixOutputs")));
+    }
+
+    /**
+     * Baseline: payload is read as a tree, no mapping involved
+     */
+    @Benchmark
+    public JsonNode readTree() throws Exception {
+        return objectMapper.readTree(payload);
+    }
+
+    @Benchmark
+    public List<AggregatedDevice> extractDevices() {
+        return aggregatedDeviceProcessor.extractDevices(devices);
+    }
+
+    @Benchmark
+    public void applyProperties(Blackhole blackhole) {
+        for (JsonNode device : devices) {
+            blackhole.consume(mapDevice(device));
+        }
+    }
+
+    /**
+     * The adapter hot path: devices are read from the stream one by one and mapped right away
+     */
+    @Benchmark
+    public int readAndMapDevices(Blackhole blackhole) throws Exception {
+        return devicesStreamReader.readDevices(new ByteArrayInputStream(payload), device -> blackhole.consume(mapDevice(device.getNode())));
+    }
+
+    /**
+     * Map device node with the model mapping resolved for it
+     *
+     * @param device device payload
+     * @return mapped device, or null if no model mapping matches the payload
+     */
+    private AggregatedDevice mapDevice(JsonNode device) {
+        String modelName = deviceModelResolver.resolveModelName(device);
+        if (modelName == null) {
+            return null;
+        }
+        AggregatedDevice aggregatedDevice = new AggregatedDevice();
+        aggregatedDeviceProcessor.applyProperties(aggregatedDevice, device, modelName);
+        return aggregatedDevice;
+    }
+}
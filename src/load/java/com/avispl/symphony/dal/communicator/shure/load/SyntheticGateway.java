@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.google.common.io.Resources;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * WireMock extension, that simulates SystemOn gateway with a large number of devices.
+ * Devices are cloned from the device fixtures, every clone gets its own hardwareId, name, serial number and MAC address.
+ * Both paginated devices list ({@code /api/v1.0/devices?pageNumber=&pageSize=&deviceModels=}) and single device
+ * ({@code /api/v1.0/devices/{hardwareId}}) requests are served, with configurable latency, jitter and error rate.
+ * A fraction of the devices changes on every response, so the payloads are not served unchanged all the time.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class SyntheticGateway extends ResponseDefinitionTransformer {
+    public static final String NAME = "synthetic-gateway";
+
+    private static final String DEVICES_PATH = "/api/v1.0/devices";
+    private static final String[] FIXTURES = {"ANIUSB", "IMX-Room", "MXA310", "MXA910", "MXWAPT8", "MXWNCS4", "P300", "SBC850", "SCM820-DAN"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, SyntheticDevice> devices = new LinkedHashMap<>();
+    private final List<SyntheticDevice> devicesList;
+    private final int latency;
+    private final int jitter;
+    private final double errorRate;
+    private final double changeRate;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    /**
+     * Device served by the gateway. The payload is serialized once, and only serialized again when the device changes.
+     */
+    private class SyntheticDevice {
+        private final ObjectNode node;
+        private final String model;
+        private String payload;
+        private long revision;
+
+        private SyntheticDevice(ObjectNode node) throws IOException {
+            this.node = node;
+            this.model = node.path("model").asText();
+            this.payload = objectMapper.writeValueAsString(node);
+        }
+
+        private synchronized String payload() throws IOException {
+            if (changeRate > 0 && ThreadLocalRandom.current().nextDouble() < changeRate) {
+                node.put("uptime", String.format("%d:00:00", ++revision));
+                payload = objectMapper.writeValueAsString(node);
+            }
+            return payload;
+        }
+    }
+
+    /**
+     * SyntheticGateway instantiation
+     *
+     * @param devicesNumber number of devices to simulate
+     * @param latency mean response latency, in milliseconds
+     * @param jitter maximum deviation from the mean latency, in milliseconds
+     * @param errorRate fraction of the requests that fail with 503 status code
+     * @param changeRate fraction of the devices that change on every response
+     * @throws IOException if device fixtures cannot be read
+     */
+    public SyntheticGateway(int devicesNumber, int latency, int jitter, double errorRate, double changeRate) throws IOException {
+        this.latency = latency;
+        this.jitter = Math.min(jitter, latency);
+        this.errorRate = errorRate;
+        this.changeRate = changeRate;
+
+        List<JsonNode> templates = new ArrayList<>();
+        for (String fixture : FIXTURES) {
+            JsonNode fixtureDevices = objectMapper.readTree(Resources.toString(Resources.getResource("shure/responces/" + fixture + ".json"), UTF_8));
+            fixtureDevices.forEach(templates::add);
+        }
+        for (int i = 0; i < devicesNumber; i++) {
+            ObjectNode node = templates.get(i % templates.size()).deepCopy();
+            String hardwareId = String.format("%08x-0000-11dd-a000-000eddcccccc", i);
+            node.put("hardwareId", hardwareId);
+            node.put("name", String.format("%s-%06x", node.path("model").asText(), i));
+            node.put("serialNumber", String.format("LOAD%06d", i));
+            node.put("macAddress", String.format("00:0E:DD:%02X:%02X:%02X", (i >> 16) & 0xFF, (i >> 8) & 0xFF, i & 0xFF));
+            devices.put(hardwareId, new SyntheticDevice(node));
+        }
+        devicesList = Collections.unmodifiableList(new ArrayList<>(devices.values()));
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files, Parameters parameters) {
+        requests.incrementAndGet();
+        ResponseDefinitionBuilder response = new ResponseDefinitionBuilder().withUniformRandomDelay(latency - jitter, latency + jitter);
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            return response.withStatus(503).build();
+        }
+        try {
+            String path = request.getUrl();
+            int queryStart = path.indexOf('?');
+            if (queryStart >= 0) {
+                path = path.substring(0, queryStart);
+            }
+            String body;
+            if (path.startsWith(DEVICES_PATH + "/")) {
+                SyntheticDevice device = devices.get(path.substring(DEVICES_PATH.length() + 1));
+                if (device == null) {
+                    return response.withStatus(404).build();
+                }
+                body = device.payload();
+            } else {
+                body = devicesPage(request);
+            }
+            responseBytes.addAndGet(body.length());
+            return response.withStatus(200).withHeader("Content-Type", "application/json").withBody(body).build();
+        } catch (IOException e) {
+            errors.incrementAndGet();
+            return response.withStatus(500).withBody(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Build devices list page, based on pageNumber, pageSize and deviceModels query parameters.
+     * If no pageSize is provided - all the devices are served.
+     *
+     * @param request devices list request
+     * @return json array of the devices
+     * @throws IOException if a device cannot be serialized
+     */
+    private String devicesPage(Request request) throws IOException {
+        Set<String> models = new HashSet<>();
+        QueryParameter deviceModels = request.queryParameter("deviceModels");
+        if (deviceModels.isPresent()) {
+            deviceModels.values().forEach(value -> Collections.addAll(models, value.split(",")));
+        }
+        QueryParameter pageNumberParameter = request.queryParameter("pageNumber");
+        QueryParameter pageSizeParameter = request.queryParameter("pageSize");
+        int pageSize = pageSizeParameter.isPresent() ? Integer.parseInt(pageSizeParameter.firstValue()) : Integer.MAX_VALUE;
+        int pageNumber = pageNumberParameter.isPresent() ? Integer.parseInt(pageNumberParameter.firstValue()) : 1;
+        long skipped = (long) (pageNumber - 1) * pageSize;
+
+        StringBuilder body = new StringBuilder("[");
+        int pageDevices = 0;
+        for (SyntheticDevice device : devicesList) {
+            if (!models.isEmpty() && !models.contains(device.model)) {
+                continue;
+            }
+            if (skipped > 0) {
+                skipped--;
+                continue;
+            }
+            if (pageDevices == pageSize) {
+                break;
+            }
+            if (pageDevices > 0) {
+                body.append(',');
+            }
+            body.append(device.payload());
+            pageDevices++;
+        }
+        return body.append(']').toString();
+    }
+
+    /**
+     * Retrieves hardwareIds of the devices simulated
+     *
+     * @return list of hardwareIds
+     */
+    public List<String> getHardwareIds() {
+        return new ArrayList<>(devices.keySet());
+    }
+
+    /**
+     * Retrieves number of requests served
+     *
+     * @return number of requests
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Retrieves number of error responses served
+     *
+     * @return number of errors
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * Retrieves number of response body characters served
+     *
+     * @return number of characters served
+     */
+    public long getResponseBytes() {
+        return responseBytes.get();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+}
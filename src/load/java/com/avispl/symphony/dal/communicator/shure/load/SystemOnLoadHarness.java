@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.load;
+
+import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
+import com.avispl.symphony.dal.communicator.shure.ShureSystemOn;
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Load harness, that runs {@link ShureSystemOn} devices collection against {@link SyntheticGateway} and reports
+ * cycle time, heap high-water mark, thread count and request rate for every collection cycle.
+ * Configured with system properties:
+ * <ul>
+ *     <li>load.devices - number of devices simulated, 5000 by default</li>
+ *     <li>load.hardwareIds - number of devices requested by hardwareId (hardwareIdFilter), 0 by default</li>
+ *     <li>load.latency - mean gateway response latency, 50ms by default</li>
+ *     <li>load.jitter - maximum deviation from the mean latency, 25ms by default</li>
+ *     <li>load.errorRate - fraction of the requests that fail, 0.01 by default</li>
+ *     <li>load.changeRate - fraction of the devices that change on every response, 0.1 by default</li>
+ *     <li>load.pageSize - number of devices per devices list page, 10 by default</li>
+ *     <li>load.maxConcurrentDeviceRequests - concurrency ceiling for the hardwareId requests, 10 by default</li>
+ *     <li>load.refreshInterval - statistics refresh and devices list retrieval interval, 10000ms by default</li>
+ *     <li>load.cycles - number of collection cycles to run, 5 by default</li>
+ * </ul>
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class SystemOnLoadHarness {
+    private static final String METRICS_GROUP = "Metrics#";
+    private static final long CYCLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    public static void main(String[] args) throws Exception {
+        int devicesNumber = Integer.getInteger("load.devices", 5000);
+        int hardwareIdsNumber = Integer.getInteger("load.hardwareIds", 0);
+        int latency = Integer.getInteger("load.latency", 50);
+        int jitter = Integer.getInteger("load.jitter", 25);
+        double errorRate = Double.parseDouble(System.getProperty("load.errorRate", "0.01"));
+        double changeRate = Double.parseDouble(System.getProperty("load.changeRate", "0.1"));
+        int pageSize = Integer.getInteger("load.pageSize", 10);
+        int maxConcurrentDeviceRequests = Integer.getInteger("load.maxConcurrentDeviceRequests", 10);
+        long refreshInterval = Long.getLong("load.refreshInterval", 10000);
+        int cycles = Integer.getInteger("load.cycles", 5);
+
+        SyntheticGateway gateway = new SyntheticGateway(devicesNumber, latency, jitter, errorRate, changeRate);
+        WireMockServer server = new WireMockServer(options().dynamicPort().extensions(gateway).disableRequestJournal()
+                .containerThreads(Math.max(50, maxConcurrentDeviceRequests * 2)).asynchronousResponseEnabled(true));
+        ShureSystemOn shureSystemOn = new ShureSystemOn();
+        server.start();
+        server.stubFor(get(urlPathMatching("/api/v1.0/devices(/[^/]+)?")).willReturn(aResponse().withTransformers(SyntheticGateway.NAME)));
+        server.stubFor(any(urlPathMatching("/api/v1.0/devices/.+/.+")).willReturn(ok()));
+
+        shureSystemOn.setHost("localhost");
+        shureSystemOn.setProtocol("http");
+        shureSystemOn.setPort(server.port());
+        shureSystemOn.setDeviceNumberPerPage(pageSize);
+        shureSystemOn.setMaxConcurrentDeviceRequests(maxConcurrentDeviceRequests);
+        shureSystemOn.setStatisticsRefreshInterval(refreshInterval);
+        shureSystemOn.setDeviceMetaDataRetrievalTimeout(refreshInterval);
+        if (hardwareIdsNumber > 0) {
+            List<String> hardwareIds = gateway.getHardwareIds();
+            shureSystemOn.setHardwareIdFilter(String.join(",", hardwareIds.subList(0, Math.min(hardwareIdsNumber, hardwareIds.size()))));
+        }
+
+        System.out.printf(Locale.US, "Simulated gateway: %d devices, %d hardwareIds requested, latency %d+-%dms, error rate %.3f, change rate %.3f, page size %d%n",
+                devicesNumber, hardwareIdsNumber, latency, jitter, errorRate, changeRate, pageSize);
+        System.out.printf("%-6s %-12s %-8s %-10s %-8s %-12s %-14s %-8s%n",
+                "Cycle", "Duration(ms)", "Devices", "Requests", "Errors", "Requests/s", "HeapUsed(MB)", "Threads");
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try {
+            shureSystemOn.init();
+            long completedCycles = 0;
+            long cycleRequests = gateway.getRequests();
+            long cycleErrors = gateway.getErrors();
+            long cycleStartTime = System.currentTimeMillis();
+            while (completedCycles < cycles) {
+                // Keeps the aggregator active and triggers the next cycle, same as the monitoring calls do
+                shureSystemOn.retrieveMultipleStatistics();
+                Map<String, String> statistics = waitForCycle(shureSystemOn, completedCycles);
+                completedCycles = Long.parseLong(statistics.get(METRICS_GROUP + "Cycles"));
+
+                long requests = gateway.getRequests();
+                long errors = gateway.getErrors();
+                long elapsed = Math.max(1, System.currentTimeMillis() - cycleStartTime);
+                System.out.printf(Locale.US, "%-6d %-12s %-8s %-10d %-8d %-12.1f %-14.1f %-8d%n", completedCycles,
+                        statistics.get(METRICS_GROUP + "LastCycleDuration(ms)"), statistics.get(METRICS_GROUP + "LastCycleDevices"),
+                        requests - cycleRequests, errors - cycleErrors, (requests - cycleRequests) * 1000d / elapsed,
+                        toMegabytes(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()), threads.getThreadCount());
+                cycleRequests = requests;
+                cycleErrors = errors;
+
+                // Next cycle is started at the refresh interval, same as it is in production
+                Thread.sleep(refreshInterval);
+                cycleStartTime = System.currentTimeMillis();
+            }
+            Map<String, String> statistics = metrics(shureSystemOn);
+            System.out.println();
+            System.out.printf(Locale.US, "Cycle duration p50/p95/p99: %s/%s/%s ms%n", statistics.get(METRICS_GROUP + "CycleDurationP50(ms)"),
+                    statistics.get(METRICS_GROUP + "CycleDurationP95(ms)"), statistics.get(METRICS_GROUP + "CycleDurationP99(ms)"));
+            System.out.printf(Locale.US, "Device mapping p50/p95/p99: %s/%s/%s ms%n", statistics.get(METRICS_GROUP + "DeviceMappingTimeP50(ms)"),
+                    statistics.get(METRICS_GROUP + "DeviceMappingTimeP95(ms)"), statistics.get(METRICS_GROUP + "DeviceMappingTimeP99(ms)"));
+            System.out.printf(Locale.US, "Requests served: %d, errors: %d, response bytes: %d%n", gateway.getRequests(), gateway.getErrors(), gateway.getResponseBytes());
+            System.out.printf(Locale.US, "Heap high-water mark: %.1f MB, peak thread count: %d%n", toMegabytes(heapHighWaterMark()), threads.getPeakThreadCount());
+        } finally {
+            shureSystemOn.destroy();
+            server.stop();
+        }
+    }
+
+    /**
+     * Wait until the number of completed collection cycles exceeds the number provided
+     *
+     * @param shureSystemOn adapter instance
+     * @param completedCycles number of cycles completed so far
+     * @return adapter metrics after the cycle is complete
+     * @throws Exception if the cycle is not complete within {@link #CYCLE_TIMEOUT}
+     */
+    private static Map<String, String> waitForCycle(ShureSystemOn shureSystemOn, long completedCycles) throws Exception {
+        long deadline = System.currentTimeMillis() + CYCLE_TIMEOUT;
+        while (System.currentTimeMillis() < deadline) {
+            Map<String, String> statistics = metrics(shureSystemOn);
+            String cycles = statistics.get(METRICS_GROUP + "Cycles");
+            if (cycles != null && Long.parseLong(cycles) > completedCycles) {
+                return statistics;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Devices collection cycle is not complete within " + CYCLE_TIMEOUT + "ms");
+    }
+
+    /**
+     * Retrieve adapter statistics
+     *
+     * @param shureSystemOn adapter instance
+     * @return adapter statistics
+     * @throws Exception if statistics cannot be retrieved
+     */
+    private static Map<String, String> metrics(ShureSystemOn shureSystemOn) throws Exception {
+        return ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+    }
+
+    /**
+     * Sum peak usage of the heap memory pools
+     *
+     * @return heap high-water mark, in bytes
+     */
+    private static long heapHighWaterMark() {
+        long peakUsage = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peakUsage += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peakUsage;
+    }
+
+    /**
+     * Convert bytes to megabytes
+     *
+     * @param bytes value to convert
+     * @return value in megabytes
+     */
+    private static double toMegabytes(long bytes) {
+        return bytes / (1024d * 1024d);
+    }
+}
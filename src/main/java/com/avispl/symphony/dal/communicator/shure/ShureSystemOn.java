@@ -4,29 +4,70 @@
 package com.avispl.symphony.dal.communicator.shure;
 
 import com.avispl.symphony.api.dal.control.Controller;
+import com.avispl.symphony.api.dal.dto.control.AdvancedControllableProperty;
 import com.avispl.symphony.api.dal.dto.control.ControllableProperty;
 import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
 import com.avispl.symphony.api.dal.dto.monitor.Statistics;
 import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
 import com.avispl.symphony.api.dal.error.CommandFailureException;
+import com.avispl.symphony.api.dal.error.ResourceNotReachableException;
 import com.avispl.symphony.api.dal.monitor.Monitorable;
 import com.avispl.symphony.api.dal.monitor.aggregator.Aggregator;
 import com.avispl.symphony.dal.aggregator.parser.AggregatedDeviceProcessor;
 import com.avispl.symphony.dal.aggregator.parser.PropertiesMapping;
 import com.avispl.symphony.dal.aggregator.parser.PropertiesMappingParser;
+import com.avispl.symphony.dal.aggregator.parser.converter.JsonPropertyConverter;
 import com.avispl.symphony.dal.communicator.RestCommunicator;
+import com.avispl.symphony.dal.communicator.shure.cache.AggregatedDeviceMerger;
+import com.avispl.symphony.dal.communicator.shure.cache.CompactPropertyStore;
+import com.avispl.symphony.dal.communicator.shure.cache.ConditionalRequestCache;
+import com.avispl.symphony.dal.communicator.shure.cache.ControllablePropertiesIndex;
+import com.avispl.symphony.dal.communicator.shure.cache.DeviceCacheSnapshotStore;
+import com.avispl.symphony.dal.communicator.shure.cache.DeviceInitializationCache;
+import com.avispl.symphony.dal.communicator.shure.cache.DeviceRefreshPolicy;
+import com.avispl.symphony.dal.communicator.shure.cache.DevicesSnapshot;
+import com.avispl.symphony.dal.communicator.shure.concurrency.AimdConcurrencyLimiter;
+import com.avispl.symphony.dal.communicator.shure.concurrency.DeviceCircuitBreaker;
+import com.avispl.symphony.dal.communicator.shure.concurrency.DeviceExecutors;
+import com.avispl.symphony.dal.communicator.shure.concurrency.SingleFlight;
+import com.avispl.symphony.dal.communicator.shure.control.ControlOutcome;
+import com.avispl.symphony.dal.communicator.shure.error.ControlBatchException;
 import com.avispl.symphony.dal.communicator.shure.error.DeviceRetrievalException;
+import com.avispl.symphony.dal.communicator.shure.filter.DeviceFilter;
+import com.avispl.symphony.dal.communicator.shure.gateway.SystemOnGateway;
+import com.avispl.symphony.dal.communicator.shure.http.AsyncDevicesClient;
+import com.avispl.symphony.dal.communicator.shure.metrics.AdapterMetrics;
+import com.avispl.symphony.dal.communicator.shure.metrics.CountingInputStream;
+import com.avispl.symphony.dal.communicator.shure.metrics.EndpointMetrics;
+import com.avispl.symphony.dal.communicator.shure.parser.DeviceModelResolver;
+import com.avispl.symphony.dal.communicator.shure.parser.DeviceProjection;
+import com.avispl.symphony.dal.communicator.shure.parser.DevicePayload;
+import com.avispl.symphony.dal.communicator.shure.parser.DevicesStreamReader;
 import com.avispl.symphony.dal.util.StringUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.Header;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.util.CollectionUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * This class handles all communications to and from a Shure SystemOn gateway.
@@ -36,124 +77,519 @@ import static java.util.stream.Collectors.toList;
  */
 public class ShureSystemOn extends RestCommunicator implements Aggregator, Monitorable, Controller {
     /**
-     * Process that is running constantly and triggers collecting data from SystemOn API endpoints,
-     * based on the given timeouts and thresholds.
+     * Process that triggers collecting data from SystemOn API endpoints, based on the given timeouts and thresholds.
+     * Collection cycles are scheduled on a {@link ScheduledExecutorService}: a cycle starts either when it is due,
+     * or as soon as {@link #retrieveMultipleStatistics()} signals, and is finished when the last device retrieval
+     * is complete, so there is no polling involved.
      *
      * @author Maksym.Rossiytsev
      * @since 1.1.3
      */
-    class SystemOnDeviceDataLoader implements Runnable {
+    class SystemOnDeviceDataLoader {
         private volatile boolean inProgress;
+        /**
+         * Whether a collection cycle is currently running
+         * @since 1.1.4
+         */
+        private final AtomicBoolean cycleRunning = new AtomicBoolean();
+        /**
+         * Start time of the current collection cycle, in nanoseconds
+         * @since 1.1.4
+         */
+        private volatile long cycleStartTime;
+        /**
+         * Schedules collection cycles and retrieves devices list
+         * @since 1.1.4
+         */
+        private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        /**
+         * Next collection cycle scheduled
+         * @since 1.1.4
+         */
+        private ScheduledFuture<?> nextCycle;
 
         public SystemOnDeviceDataLoader() {
             inProgress = true;
+            // cycles are rescheduled on every retrieveMultipleStatistics() call, cancelled ones should not pile up
+            scheduler.setRemoveOnCancelPolicy(true);
+        }
+
+        /**
+         * Start a collection cycle right away
+         * @since 1.1.4
+         */
+        public void start() {
+            schedule(0);
+        }
+
+        /**
+         * Start a collection cycle right away, unless there's one running already
+         * @since 1.1.4
+         */
+        public void signal() {
+            if (!cycleRunning.get()) {
+                schedule(0);
+            }
+        }
+
+        /**
+         * Whether the loader accepts new collection cycles
+         *
+         * @return true if the loader is running, false otherwise
+         * @since 1.1.4
+         */
+        public boolean isRunning() {
+            return inProgress && !scheduler.isShutdown();
+        }
+
+        /**
+         * Schedule next collection cycle. If there's a cycle scheduled sooner than the delay provided - it is kept.
+         *
+         * @param delay in milliseconds
+         * @since 1.1.4
+         */
+        private synchronized void schedule(long delay) {
+            if (!isRunning()) {
+                return;
+            }
+            if (nextCycle != null && !nextCycle.isDone()) {
+                if (nextCycle.getDelay(TimeUnit.MILLISECONDS) <= delay) {
+                    return;
+                }
+                nextCycle.cancel(false);
+            }
+            try {
+                nextCycle = scheduler.schedule(this::runCycle, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Loader is stopped
+            }
+        }
+
+        /**
+         * Collect devices list, and post retrieval of every device from {@link #hardwareIdFilter}.
+         * Cycle is complete when the last device retrieval is done.
+         * @since 1.1.4
+         */
+        private void runCycle() {
+            if (!inProgress || !cycleRunning.compareAndSet(false, true)) {
+                return;
+            }
+            // loader is started by internalInit(), before the communicator is initialized. Requests would fail then,
+            // dropping the devices restored from the snapshot, so the cycle is started by the retrieveMultipleStatistics() call
+            if (!isInitialized()) {
+                cycleRunning.set(false);
+                return;
+            }
+            // next line will determine whether Shure monitoring was paused.
+            // If so - the next cycle is started by the retrieveMultipleStatistics() call
+            updateAggregatorStatus();
+            if (devicePaused) {
+                cycleRunning.set(false);
+                return;
+            }
+            cycleStartTime = System.nanoTime();
+
+            refreshGateways();
+
+            Queue<String> pendingHardwareIds = new ConcurrentLinkedQueue<>(compiledHardwareIdFilter.getIncludedValues());
+            deviceCircuitBreaker.retainAll(pendingHardwareIds);
+            CompletableFuture<Void> cycle = new CompletableFuture<>();
+            devicesCollectionCycle = cycle;
+            cycle.whenComplete((result, error) -> completeCycle());
+            if (pendingHardwareIds.isEmpty()) {
+                cycle.complete(null);
+                return;
+            }
+            dispatchDevicesRetrieval(pendingHardwareIds, new AtomicInteger(pendingHardwareIds.size()), cycle);
         }
 
-        @Override
-        public void run() {
-            mainloop:
-            while (inProgress) {
+        /**
+         * Refresh devices lists of all the {@link #gateways}. Additional gateways are refreshed in parallel
+         * on the {@link #executorService}, while the primary gateway is refreshed by the loader thread.
+         * @since 1.1.4
+         */
+        private void refreshGateways() {
+            List<SystemOnGateway> systemOnGateways = gateways;
+            ExecutorService devicesExecutor = executorService;
+            List<CompletableFuture<Void>> gatewayRefreshes = new ArrayList<>();
+            for (SystemOnGateway gateway : systemOnGateways) {
+                if (gateway.isPrimary() || devicesExecutor == null) {
+                    continue;
+                }
                 try {
-                    TimeUnit.MILLISECONDS.sleep(500);
-                } catch (InterruptedException e) {
-                    // Ignore for now
+                    gatewayRefreshes.add(CompletableFuture.runAsync(() -> refreshGateway(gateway), devicesExecutor));
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Device retrieval executor is shut down, skipping gateways refresh.");
+                    return;
                 }
+            }
+            systemOnGateways.stream().filter(SystemOnGateway::isPrimary).forEach(this::refreshGateway);
+            for (CompletableFuture<Void> gatewayRefresh : gatewayRefreshes) {
+                try {
+                    gatewayRefresh.join();
+                } catch (CancellationException | CompletionException e) {
+                    logger.debug("Gateway refresh is cancelled.");
+                }
+            }
+        }
 
+        /**
+         * Refresh devices list of the gateway and keep track of the errors. Gateway that keeps failing is not
+         * requested while its {@link #gatewayCircuitBreaker} is open. Errors of a gateway only affect its own devices.
+         *
+         * @param gateway to refresh
+         * @since 1.1.4
+         */
+        private void refreshGateway(SystemOnGateway gateway) {
+            DeviceCircuitBreaker circuitBreaker = gatewayCircuitBreaker;
+            if (circuitBreaker != null && !circuitBreaker.allowRequest(gateway.getName(), System.currentTimeMillis())) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format("Circuit breaker of the SystemOn gateway '%s' is open. Skipping.", gateway));
+                }
+                return;
+            }
+            try {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Fetching devices list of the SystemOn gateway " + gateway);
+                }
+                if (!fetchDevicesList(gateway)) {
+                    refreshDueModels(gateway);
+                }
+                if (circuitBreaker != null) {
+                    circuitBreaker.onSuccess(gateway.getName());
+                }
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Fetched devices list: " + aggregatedDevices);
+                }
+            } catch (Exception e) {
                 if (!inProgress) {
-                    break mainloop;
+                    // Loader is stopped and the request is interrupted, cached devices belong to the next loader already
+                    return;
                 }
-
-                // next line will determine whether Shure monitoring was paused
-                updateAggregatorStatus();
-                if (devicePaused) {
-                    continue mainloop;
+                removeGatewayDevices(gateway);
+                if (circuitBreaker != null && circuitBreaker.onFailure(gateway.getName(), System.currentTimeMillis())) {
+                    logger.warn(String.format("Circuit breaker of the SystemOn gateway '%s' is open, devices list retrieval is postponed.", gateway));
                 }
+                String message = String.valueOf(e.getMessage());
+                String errorKey = gateway.isPrimary() ? e.getClass().getSimpleName() : String.format("%s[%s]", e.getClass().getSimpleName(), gateway);
+                latestErrors.put(errorKey, limitErrorMessageByLength(message, 120));
+                logger.error(String.format("Error occurred during device list retrieval of the SystemOn gateway '%s': %s", gateway, message), e);
+            }
+        }
 
-                while (nextDevicesCollectionIterationTimestamp > System.currentTimeMillis()) {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(1000);
-                    } catch (InterruptedException e) {
-                        //
-                    }
+        /**
+         * Post as many device retrieval operations as {@link #concurrencyLimiter} allows. Every operation completed
+         * posts the next ones, so the number of requests in flight follows the limit. The cycle is completed
+         * when the last device retrieval is complete, or right away if the loader is stopped.
+         *
+         * @param pendingHardwareIds hardware ids of the devices that are not retrieved yet
+         * @param remainingDevices number of devices that are not retrieved yet, including the ones in progress
+         * @param cycle to complete when all the devices are retrieved
+         * @since 1.1.4
+         */
+        private void dispatchDevicesRetrieval(Queue<String> pendingHardwareIds, AtomicInteger remainingDevices, CompletableFuture<Void> cycle) {
+            ExecutorService devicesExecutor = executorService;
+            AimdConcurrencyLimiter limiter = concurrencyLimiter;
+            while (inProgress && devicesExecutor != null && !pendingHardwareIds.isEmpty() && limiter.tryAcquire()) {
+                String hardwareId = pendingHardwareIds.poll();
+                if (hardwareId == null) {
+                    // The last pending device is taken by another dispatch, its retrieval completes the cycle
+                    limiter.release();
+                    break;
                 }
-
+                AsyncDevicesClient devicesClient = asyncDevicesClient;
                 try {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Fetching devices list");
-                    }
-                    fetchDevicesList();
-
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Fetched devices list: " + aggregatedDevices);
-                    }
-                } catch (Exception e) {
-                    aggregatedDevices.clear();
-                    String message = e.getMessage();
-                    latestErrors.put(e.getClass().getSimpleName(), limitErrorMessageByLength(message, 120));
-                    logger.error("Error occurred during device list retrieval: " + message + " with cause: " + e.getCause().getMessage(), e);
+                    CompletableFuture<Void> retrieval = devicesClient != null ? retrieveDeviceAsync(devicesClient, hardwareId, limiter, devicesExecutor)
+                            : CompletableFuture.runAsync(() -> retrieveDevice(hardwareId, limiter), devicesExecutor);
+                    retrieval.whenComplete((result, error) -> onDeviceRetrievalComplete(pendingHardwareIds, remainingDevices, cycle, devicesExecutor));
+                } catch (RejectedExecutionException e) {
+                    // Adapter is destroyed, operations that are posted already are cancelled
+                    limiter.release();
+                    logger.debug("Device retrieval executor is shut down, skipping devices retrieval.");
+                    cycle.complete(null);
+                    return;
                 }
+            }
+            if (!inProgress || devicesExecutor == null) {
+                // Loader is stopped, devices that are not retrieved yet are skipped
+                cycle.complete(null);
+            }
+        }
 
-                String[] hardwareIds = hardwareIdFilter.split(",");
-                for (String hardwareId: hardwareIds) {
-                    if (!inProgress) {
-                        break;
-                    }
-                    devicesExecutionPool.add(executorService.submit(() -> {
-                        boolean retrievedWithError = false;
-                        try {
-                            fetchDeviceByHardwareId(hardwareId);
-                        } catch (Exception e) {
-                            retrievedWithError = true;
-                            // remove if device was not retrieved successfully
-                            aggregatedDevices.keySet().removeIf(hardwareId::equals);
-
-                            latestErrors.put(String.format("%s[%s]", e.getClass().getSimpleName(), hardwareId), limitErrorMessageByLength(e.getMessage(), 120));
-                            logger.error(String.format("Exception during retrieval device by hardware id '%s'.", hardwareId), e);
-                        }
+        /**
+         * Complete the cycle if the device retrieved is the last one, or post dispatch of the next device retrievals otherwise.
+         * Dispatch is posted to the executor rather than called, since retrievals that are complete synchronously
+         * (device circuit breaker is open, device is not changed) would nest the calls for every device of the cycle.
+         *
+         * @param pendingHardwareIds hardware ids of the devices that are not retrieved yet
+         * @param remainingDevices number of devices that are not retrieved yet, including the ones in progress
+         * @param cycle to complete when all the devices are retrieved
+         * @param devicesExecutor to post the dispatch to
+         * @since 1.1.4
+         */
+        private void onDeviceRetrievalComplete(Queue<String> pendingHardwareIds, AtomicInteger remainingDevices, CompletableFuture<Void> cycle,
+                                               ExecutorService devicesExecutor) {
+            if (remainingDevices.decrementAndGet() == 0) {
+                cycle.complete(null);
+                return;
+            }
+            if (pendingHardwareIds.isEmpty()) {
+                // Devices left are in progress, the last one completes the cycle
+                return;
+            }
+            try {
+                devicesExecutor.execute(() -> dispatchDevicesRetrieval(pendingHardwareIds, remainingDevices, cycle));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Device retrieval executor is shut down, skipping devices retrieval.");
+                cycle.complete(null);
+            }
+        }
 
-                        if (!retrievedWithError) {
-                            // Remove error related to a specific device from the collection, since
-                            // it is retrieved successfully now.
-                            latestErrors.keySet().removeIf(s -> s.contains(String.format("[%s]", hardwareId)));
-                        }
-                    }));
-                }
+        /**
+         * Retrieve device by hardwareId and keep track of the retrieval errors.
+         * Request latency and gateway overload errors are reported to the concurrency limiter.
+         * Devices that keep failing are not requested while their {@link #deviceCircuitBreaker} is open,
+         * the cached device data is kept and marked as stale instead.
+         *
+         * @param hardwareId of the device to retrieve
+         * @param limiter to release permit of the request to
+         * @since 1.1.4
+         */
+        private void retrieveDevice(String hardwareId, AimdConcurrencyLimiter limiter) {
+            if (!allowDeviceRetrieval(hardwareId, limiter)) {
+                return;
+            }
+            long startTime = System.nanoTime();
+            Exception error = null;
+            try {
+                fetchDeviceByHardwareId(hardwareId);
+            } catch (Exception e) {
+                error = e;
+            }
+            onDeviceRetrieved(hardwareId, limiter, startTime, error);
+        }
 
-                if (!inProgress) {
-                    break mainloop;
+        /**
+         * Retrieve device by hardwareId with the non-blocking client, see {@link #retrieveDevice(String, AimdConcurrencyLimiter)}
+         *
+         * @param devicesClient to send the request with
+         * @param hardwareId of the device to retrieve
+         * @param limiter to release permit of the request to
+         * @param devicesExecutor to process the response on
+         * @return future that is complete when the device retrieval is complete, never completed exceptionally
+         * @since 1.1.4
+         */
+        private CompletableFuture<Void> retrieveDeviceAsync(AsyncDevicesClient devicesClient, String hardwareId, AimdConcurrencyLimiter limiter,
+                                                            ExecutorService devicesExecutor) {
+            if (!allowDeviceRetrieval(hardwareId, limiter)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            long startTime = System.nanoTime();
+            CompletableFuture<Void> retrieval;
+            try {
+                retrieval = fetchDeviceByHardwareIdAsync(devicesClient, hardwareId, devicesExecutor);
+            } catch (RuntimeException e) {
+                retrieval = new CompletableFuture<>();
+                retrieval.completeExceptionally(e);
+            }
+            return retrieval.handle((result, error) -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                onDeviceRetrieved(hardwareId, limiter, startTime, cause == null || cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+                return null;
+            });
+        }
+
+        /**
+         * Check whether the device retrieval is allowed by {@link #deviceCircuitBreaker}. If it is not -
+         * the permit is released to the limiter and the cached device data is marked as stale.
+         *
+         * @param hardwareId of the device to retrieve
+         * @param limiter to release permit of the request to
+         * @return true if the device can be requested, false otherwise
+         * @since 1.1.4
+         */
+        private boolean allowDeviceRetrieval(String hardwareId, AimdConcurrencyLimiter limiter) {
+            if (deviceCircuitBreaker.allowRequest(hardwareId, System.currentTimeMillis())) {
+                return true;
+            }
+            limiter.release();
+            markDeviceStale(hardwareId, true);
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Circuit breaker of the device with hardwareId '%s' is open. Skipping.", hardwareId));
+            }
+            return false;
+        }
+
+        /**
+         * Report device retrieval outcome to the limiter and {@link #deviceCircuitBreaker}, keep track of the retrieval errors
+         *
+         * @param hardwareId of the device retrieved
+         * @param limiter to release permit of the request to
+         * @param startTime of the retrieval, {@link System#nanoTime()}
+         * @param error of the retrieval, null if the device is retrieved successfully
+         * @since 1.1.4
+         */
+        private void onDeviceRetrieved(String hardwareId, AimdConcurrencyLimiter limiter, long startTime, Exception error) {
+            DeviceCircuitBreaker circuitBreaker = deviceCircuitBreaker;
+            boolean retrievedWithError = error != null;
+            boolean gatewayOverloaded = false;
+            if (retrievedWithError) {
+                gatewayOverloaded = isGatewayOverloaded(error);
+                // keep serving the cached device data, if available, until the device is retrieved successfully
+                markDeviceStale(hardwareId, true);
+                if (circuitBreaker.onFailure(hardwareId, System.currentTimeMillis())) {
+                    logger.warn(String.format("Circuit breaker of the device with hardwareId '%s' is open, device retrieval is postponed.", hardwareId));
                 }
-                do {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(500);
-                    } catch (InterruptedException e) {
-                        if (!inProgress) {
-                            break;
-                        }
-                    }
-                    devicesExecutionPool.removeIf(Future::isDone);
-                } while (!devicesExecutionPool.isEmpty());
 
-                // We don't want to fetch devices statuses too often, so by default it's currentTime + 30s
-                // otherwise - the variable is reset by the retrieveMultipleStatistics() call, which
-                // launches devices detailed statistics collection
-                nextDevicesCollectionIterationTimestamp = System.currentTimeMillis() + 30000;
+                latestErrors.put(String.format("%s[%s]", error.getClass().getSimpleName(), hardwareId), limitErrorMessageByLength(error.getMessage(), 120));
+                logger.error(String.format("Exception during retrieval device by hardware id '%s'.", hardwareId), error);
+            }
 
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Finished collecting devices statistics cycle at " + new Date());
+            if (gatewayOverloaded) {
+                limiter.onOverload();
+            } else {
+                limiter.onSuccess(System.nanoTime() - startTime);
+            }
+
+            if (!retrievedWithError) {
+                circuitBreaker.onSuccess(hardwareId);
+                markDeviceStale(hardwareId, false);
+                // Remove error related to a specific device from the collection, since
+                // it is retrieved successfully now.
+                latestErrors.keySet().removeIf(s -> s.contains(String.format("[%s]", hardwareId)));
+            }
+        }
+
+        /**
+         * Add or remove {@link #DEVICE_DATA_STALE_PROPERTY} of the cached device
+         *
+         * @param hardwareId of the device
+         * @param stale whether cached device data is outdated
+         * @since 1.1.4
+         */
+        private void markDeviceStale(String hardwareId, boolean stale) {
+            AggregatedDevice cachedDevice = aggregatedDevices.get(hardwareId);
+            if (cachedDevice == null) {
+                return;
+            }
+            synchronized (cachedDevice) {
+                if (cachedDevice.getProperties() == null) {
+                    return;
+                }
+                if (stale) {
+                    cachedDevice.getProperties().put(DEVICE_DATA_STALE_PROPERTY, "true");
+                } else {
+                    cachedDevice.getProperties().remove(DEVICE_DATA_STALE_PROPERTY);
                 }
             }
-            // Finished collecting
         }
 
         /**
-         * Triggers main loop to stop
+         * Check whether the error indicates that the gateway is unable to handle the load
+         *
+         * @param error device retrieval error
+         * @return true if the gateway is unreachable, responds with 5xx or 429 status code, false otherwise
+         * @since 1.1.4
+         */
+        private boolean isGatewayOverloaded(Exception error) {
+            if (error instanceof ResourceNotReachableException) {
+                return true;
+            }
+            if (error instanceof CommandFailureException) {
+                int statusCode = ((CommandFailureException) error).getStatusCode();
+                return statusCode >= 500 || statusCode == 429;
+            }
+            return false;
+        }
+
+        /**
+         * Finish collection cycle and schedule the next one
+         * @since 1.1.4
+         */
+        private void completeCycle() {
+            adapterMetrics.recordCycle(System.nanoTime() - cycleStartTime, aggregatedDevices.size());
+            initializeDevicesInAdvance();
+            if (System.currentTimeMillis() - lastDeviceCacheSnapshotTimestamp >= deviceCacheSnapshotInterval) {
+                saveDeviceCacheSnapshot();
+            }
+            cycleRunning.set(false);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Finished collecting devices statistics cycle at " + new Date());
+            }
+            // We don't want to fetch devices statuses too often, so by default it's currentTime + statistics refresh
+            // interval (30s by default), otherwise - the cycle is triggered by the retrieveMultipleStatistics() call,
+            // which launches devices detailed statistics collection
+            schedule(deviceRefreshPolicy.getShortestStatisticsRefreshInterval());
+        }
+
+        /**
+         * Triggers loader to stop
          */
         public void stop() {
             inProgress = false;
+            synchronized (this) {
+                if (nextCycle != null) {
+                    nextCycle.cancel(false);
+                    nextCycle = null;
+                }
+            }
+            scheduler.shutdownNow();
+            awaitTermination(scheduler, "devices collection cycle");
         }
     }
 
     private AggregatedDeviceProcessor aggregatedDeviceProcessor;
+    /**
+     * Maps statistics, controls and {@link #frequentlyRefreshedProperties} only, for the statistics refresh
+     * @since 1.1.4
+     */
+    private AggregatedDeviceProcessor statisticsProcessor;
+    /**
+     * Device models mapping, loaded from model-mapping.yml
+     * @since 1.1.4
+     */
+    private Map<String, PropertiesMapping> models;
+    /**
+     * Resolves model mapping for device payloads, based on model filters defined in model-mapping.yml
+     * @since 1.1.4
+     */
+    private DeviceModelResolver deviceModelResolver;
+    /**
+     * Reads device payloads from API responses one device at a time
+     * @since 1.1.4
+     */
+    private DevicesStreamReader devicesStreamReader;
+    /**
+     * Applies changes of the retrieved devices to the cached devices
+     * @since 1.1.4
+     */
+    private final AggregatedDeviceMerger aggregatedDeviceMerger = new AggregatedDeviceMerger();
+    /**
+     * Keeps properties of the cached devices in compact form: property names are shared by the devices
+     * of the same model, repeated values are deduplicated
+     * @since 1.1.4
+     */
+    private final CompactPropertyStore compactPropertyStore = new CompactPropertyStore();
+    /**
+     * Response validators of the devices requests, to perform conditional requests with
+     * @since 1.1.4
+     */
+    private final ConditionalRequestCache conditionalRequestCache = new ConditionalRequestCache();
+    /**
+     * Coalesces concurrent identical devices GET requests
+     * @since 1.1.4
+     */
+    private final SingleFlight<DevicesSnapshot> devicesRequests = new SingleFlight<>();
+    /**
+     * Coalesces concurrent device initialization requests
+     * @since 1.1.4
+     */
+    private final SingleFlight<String> initializationRequests = new SingleFlight<>();
+    /**
+     * Requests, payload processing and collection cycles metrics, published by {@link #getMultipleStatistics()}
+     * @since 1.1.4
+     */
+    private final AdapterMetrics adapterMetrics = new AdapterMetrics();
     /**
      * Adapter metadata, collected from the version.properties
      * @since 1.1.3
@@ -192,15 +628,54 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      * @since 1.1.3
      */
     private static final long retrieveStatisticsTimeOut = 3 * 60 * 1000;
+    /**
+     * Refresh intervals lower than this value are adjusted to it, so the gateway is not polled too often
+     * @since 1.1.4
+     */
+    private static final long minimalRefreshInterval = 5 * 1000;
+    /**
+     * How long stopping of the devices collection waits for the operations in progress to finish,
+     * so a restarted adapter does not share the device cache with the previous collection threads
+     * @since 1.1.4
+     */
+    private static final long loaderStopTimeout = 5 * 1000;
     /**
      * We don't want the statistics to be collected constantly, because if there's not a big list of devices -
      * new devices statistics loop will be launched before the next monitoring iteration. To avoid that -
-     * this variable stores a timestamp which validates it, so when the devices statistics is done collecting, variable
-     * is set to currentTime + 30s, at the same time, calling {@link #retrieveMultipleStatistics()} and updating the
-     * {@link #aggregatedDevices} resets it to the currentTime timestamp, which will re-activate data collection.
-     * @since 1.1.3
+     * when the devices statistics is done collecting, next cycle is scheduled in {@link #statisticsRefreshInterval},
+     * at the same time, calling {@link #retrieveMultipleStatistics()} starts the next cycle right away,
+     * which will re-activate data collection.
+     * Devices statistics, controls and {@link #frequentlyRefreshedProperties} are refreshed once during this period.
+     * @since 1.1.4
+     */
+    private long statisticsRefreshInterval = 30 * 1000;
+    /**
+     * Devices properties (other than {@link #frequentlyRefreshedProperties}) are mostly static, so these are refreshed
+     * once during this period, cached values are used in between.
+     * @since 1.1.4
      */
-    private static long nextDevicesCollectionIterationTimestamp;
+    private long propertiesRefreshInterval = 10 * 60 * 1000;
+    /**
+     * CSV string of statistics refresh intervals for specific device models, formatted as {@code MXW6:10000,MXW8:10000}
+     * @since 1.1.4
+     */
+    private String modelStatisticsRefreshIntervals;
+    /**
+     * CSV string of properties refresh intervals for specific device models, formatted as {@code P300:3600000}
+     * @since 1.1.4
+     */
+    private String modelPropertiesRefreshIntervals;
+    /**
+     * CSV string of device properties that change frequently, thus are refreshed along with the statistics.
+     * Properties that back controllable properties are always refreshed along with the statistics.
+     * @since 1.1.4
+     */
+    private String frequentlyRefreshedProperties = "OnAir,OnCharger,MicStatus,BatteryStatus";
+    /**
+     * Keeps track of devices statistics and properties refresh, based on the refresh intervals
+     * @since 1.1.4
+     */
+    private final DeviceRefreshPolicy deviceRefreshPolicy = new DeviceRefreshPolicy(statisticsRefreshInterval, propertiesRefreshInterval);
 
     /**
      * This parameter holds timestamp of when we need to stop performing API calls
@@ -208,12 +683,6 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      * @since 1.1.3
      */
     private volatile long validRetrieveStatisticsTimestamp;
-    /**
-     * Time period within which the device metadata (basic devices information) cannot be refreshed.
-     * Ignored if device list is not yet retrieved or the cached device list is empty {@link ShureSystemOn#aggregatedDevices}
-     * @since 1.1.3
-     */
-    private volatile long validDeviceMetaDataRetrievalPeriodTimestamp;
     /**
      * Indicates whether a device is considered as paused.
      * True by default so if the system is rebooted and the actual value is lost -> the device won't start stats
@@ -223,26 +692,184 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      */
     private volatile boolean devicePaused = true;
     /**
-     * CSV string of device models to monitor
+     * CSV string of device models to monitor, see {@link DeviceFilter} for the supported patterns and exclusions
      * @since 1.1.3
      */
     private String deviceModelFilter;
     /**
-     * CSV string of device hardware ids to monitor
+     * CSV string of device hardware ids to monitor, see {@link DeviceFilter} for the supported patterns and exclusions.
+     * Hardware ids that are listed explicitly are requested one by one, patterns are matched against the devices list.
      * @since 1.1.3
      */
     private String hardwareIdFilter;
     /**
-     * Executor that runs all the async operations, that {@link #deviceDataLoader} is posting and
-     * {@link #devicesExecutionPool} is keeping track of
+     * {@link #deviceModelFilter}, compiled when the filter is set
+     * @since 1.1.4
+     */
+    private volatile DeviceFilter compiledDeviceModelFilter = DeviceFilter.parse(null);
+    /**
+     * {@link #hardwareIdFilter}, compiled when the filter is set
+     * @since 1.1.4
+     */
+    private volatile DeviceFilter compiledHardwareIdFilter = DeviceFilter.parse(null);
+    /**
+     * Executor that runs device retrieval operations, that {@link #deviceDataLoader} is posting and
+     * {@link #devicesCollectionCycle} is keeping track of
      * @since 1.1.3
      */
-    private static ExecutorService executorService;
+    private ExecutorService executorService;
     /**
-     * Runner service responsible for collecting data and posting processes to {@link #devicesExecutionPool}
+     * Runner service responsible for collecting data and posting processes to {@link #executorService}
      * @since 1.1.3
      */
     private SystemOnDeviceDataLoader deviceDataLoader;
+    /**
+     * Maximum number of device retrieval requests (based on {@link #hardwareIdFilter}) that are sent to the gateway
+     * concurrently. Actual number of concurrent requests is adjusted by {@link #concurrencyLimiter}, up to this value.
+     * @since 1.1.4
+     */
+    private int maxConcurrentDeviceRequests = 10;
+    /**
+     * Adjusts number of concurrent device retrieval requests, based on the gateway latency and errors
+     * @since 1.1.4
+     */
+    private volatile AimdConcurrencyLimiter concurrencyLimiter;
+    /**
+     * Number of consecutive retrieval failures of a device (by hardwareId) after which the device is not requested
+     * for {@link #deviceRetryBackoff}, doubled on every subsequent failure, up to {@link #maxDeviceRetryBackoff}
+     * @since 1.1.4
+     */
+    private int deviceFailureThreshold = 3;
+    /**
+     * Period of time the device (by hardwareId) is not requested for, after it failed {@link #deviceFailureThreshold} times
+     * @since 1.1.4
+     */
+    private long deviceRetryBackoff = 60 * 1000;
+    /**
+     * Maximum period of time the device (by hardwareId) is not requested for, when it keeps failing
+     * @since 1.1.4
+     */
+    private long maxDeviceRetryBackoff = 30 * 60 * 1000;
+    /**
+     * Keeps track of devices (by hardwareId) that keep failing, so these are not requested on every cycle
+     * @since 1.1.4
+     */
+    private volatile DeviceCircuitBreaker deviceCircuitBreaker;
+    /**
+     * Maximum number of devices that control commands of a single {@link #controlProperties(List)} batch
+     * are sent to concurrently. Commands of the same device are always sent one by one, in the batch order.
+     * @since 1.1.4
+     */
+    private int maxConcurrentControlRequests = 10;
+    /**
+     * Whether device retrieval, control and device initialization tasks run on virtual threads, if the runtime
+     * supports them (Java 21+). Platform thread pools are used otherwise.
+     * @since 1.1.4
+     */
+    private boolean virtualThreads = true;
+    /**
+     * Whether devices are retrieved by hardwareId with the non-blocking {@link AsyncDevicesClient}, so the requests
+     * in flight do not hold a device retrieval thread each. Number of requests in flight is still limited by
+     * {@link #maxConcurrentDeviceRequests}.
+     * @since 1.1.4
+     */
+    private boolean asyncDeviceRequests = false;
+    /**
+     * Number of I/O threads of the {@link AsyncDevicesClient}
+     * @since 1.1.4
+     */
+    private int asyncIoThreads = 2;
+    /**
+     * Non-blocking client of the device retrieval requests, null unless {@link #asyncDeviceRequests} is enabled
+     * @since 1.1.4
+     */
+    private volatile AsyncDevicesClient asyncDevicesClient;
+    /**
+     * Executor that runs control commands of the {@link #controlProperties(List)} batches
+     * @since 1.1.4
+     */
+    private ExecutorService controlExecutorService;
+    /**
+     * Maximum number of devices that are initialized in advance concurrently. Initializations in advance run
+     * on a dedicated executor, so the control commands never wait for them.
+     * @since 1.1.4
+     */
+    private int maxConcurrentDeviceInitializations = 2;
+    /**
+     * Executor that runs device initializations in advance, see {@link #initializeDevicesInAdvance()}
+     * @since 1.1.4
+     */
+    private ExecutorService initializationExecutorService;
+    /**
+     * Period of time device initialization for control is considered valid for, after that the device is initialized again
+     * @since 1.1.4
+     */
+    private long deviceInitializationTtl = 30 * 60 * 1000;
+    /**
+     * Whether devices that have controllable properties are initialized for control in advance, after every collection cycle
+     * @since 1.1.4
+     */
+    private boolean proactiveDeviceInitialization = true;
+    /**
+     * Keeps track of the devices that are initialized for control
+     * @since 1.1.4
+     */
+    private final DeviceInitializationCache deviceInitializationCache = new DeviceInitializationCache(deviceInitializationTtl, deviceRetryBackoff);
+    /**
+     * Ids of the devices that are queued for the initialization in advance
+     * @since 1.1.4
+     */
+    private final Set<String> pendingDeviceInitializations = ConcurrentHashMap.newKeySet();
+    /**
+     * Shared mapper for the error responses parsing
+     * @since 1.1.4
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * File the snapshot of {@link #aggregatedDevices} is stored to, so the device cache is restored right away
+     * after the adapter restart. Snapshot is not stored if the value is empty.
+     * @since 1.1.4
+     */
+    private String deviceCacheSnapshotFile;
+    /**
+     * Minimal period of time between the device cache snapshots, snapshot is stored after the collection cycle
+     * and when the adapter is destroyed
+     * @since 1.1.4
+     */
+    private long deviceCacheSnapshotInterval = 5 * 60 * 1000;
+    /**
+     * Stores and restores the device cache snapshots, null if {@link #deviceCacheSnapshotFile} is not set
+     * @since 1.1.4
+     */
+    private volatile DeviceCacheSnapshotStore deviceCacheSnapshotStore;
+    /**
+     * Timestamp of the latest device cache snapshot
+     * @since 1.1.4
+     */
+    private volatile long lastDeviceCacheSnapshotTimestamp;
+    /**
+     * CSV list of additional SystemOn gateways, {@code host[:port]}, to collect devices from along with the adapter host.
+     * Additional gateways are requested with the adapter protocol and API key, the adapter port is used if none is provided.
+     * Devices are tagged with the {@link #GATEWAY_PROPERTY} property if there are additional gateways.
+     * {@link #hardwareIdFilter} devices are requested from the gateway they were listed by, or from the adapter host.
+     * @since 1.1.4
+     */
+    private String additionalGateways;
+    /**
+     * Gateways devices are collected from: the adapter host, followed by {@link #additionalGateways}
+     * @since 1.1.4
+     */
+    private volatile List<SystemOnGateway> gateways = Collections.emptyList();
+    /**
+     * Gateway every cached device is collected from, by device id
+     * @since 1.1.4
+     */
+    private final ConcurrentHashMap<String, SystemOnGateway> deviceGateways = new ConcurrentHashMap<>();
+    /**
+     * Keeps track of gateways (by name) which devices list retrieval keeps failing, so these are not requested on every cycle
+     * @since 1.1.4
+     */
+    private volatile DeviceCircuitBreaker gatewayCircuitBreaker;
     /**
      * Contains the latest communication errors, for the latest data collection iteration
      * @since 1.1.3
@@ -255,13 +882,56 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      */
     private ConcurrentHashMap<String, AggregatedDevice> aggregatedDevices = new ConcurrentHashMap<>();
     /**
-     * Pool for keeping all the async operations in, to track any operations in progress and cancel them if needed
-     * @since 1.1.3
+     * Completes when all the device retrieval operations of the current collection cycle are complete
+     * @since 1.1.4
+     */
+    private volatile CompletableFuture<Void> devicesCollectionCycle;
+    /**
+     * Hashes of the payloads cached devices were mapped from, by hardwareId.
+     * Used to skip mapping of device payloads that did not change since the previous retrieval.
+     * @since 1.1.4
      */
-    private List<Future> devicesExecutionPool = new ArrayList<>();
+    private final ConcurrentHashMap<String, Long> devicePayloadHashes = new ConcurrentHashMap<>();
+    /**
+     * Controllable properties of the cached devices, by device id and property name
+     * @since 1.1.4
+     */
+    private final ControllablePropertiesIndex controllablePropertiesIndex = new ControllablePropertiesIndex();
 
     private static final String BASE_URL = "api/v1.0";
+    private static final String PAGE_NUMBER_PARAMETER = "pageNumber";
+    private static final String PAGE_SIZE_PARAMETER = "pageSize";
+    /**
+     * Device payload fields that are read by the adapter itself, so these are materialized along with
+     * the fields referenced by the model mapping
+     * @since 1.1.4
+     */
+    private static final Set<String> PAYLOAD_FIELDS = new HashSet<>(Arrays.asList("hardwareId", "model"));
     private static final String ERROR_CODE = "DeviceNotInitialized";
+    /**
+     * Names of the controllable properties that are sent to the devices
+     * @since 1.1.4
+     */
+    private static final Set<String> SUPPORTED_CONTROLS = new HashSet<>(Arrays.asList("BypassAllEq", "Mute", "DanteEncryption", "Reboot", "Reset"));
+    /**
+     * Number of times the control is retried, if the gateway reports the device is not initialized
+     * @since 1.1.4
+     */
+    private static final int MAX_CONTROL_INITIALIZATION_RETRIES = 1;
+    private static final String DEVICE_ID_PROPERTY = "deviceId";
+    private static final String DEVICE_ONLINE_PROPERTY = "deviceOnline";
+    /**
+     * Property of the cached device, that is present while the device data cannot be refreshed
+     * @since 1.1.4
+     */
+    private static final String DEVICE_DATA_STALE_PROPERTY = "StaleData";
+    /**
+     * Property of the cached device, that holds name of the gateway the device is collected from.
+     * Kept apart from the {@code Gateway} property, that models map to the device network gateway
+     * @since 1.1.4
+     */
+    private static final String GATEWAY_PROPERTY = "SystemOnGateway";
+    private static final String GATEWAYS_GROUP = "Gateways#";
 
     /**
      * Retrieves {@code {@link #deviceMetaDataRetrievalTimeout }}
@@ -294,13 +964,13 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
     }
 
     /**
-     * Sets {@link #deviceNumberPerPage} value
+     * Sets {@link #deviceNumberPerPage} value. Values lower than 1 are adjusted to 1.
      *
      * @param deviceNumberPerPage new value of {@link #deviceNumberPerPage}
      * @since 1.1.3
      */
     public void setDeviceNumberPerPage(int deviceNumberPerPage) {
-        this.deviceNumberPerPage = deviceNumberPerPage;
+        this.deviceNumberPerPage = Math.max(1, deviceNumberPerPage);
     }
     /**
      * Retrieves {@link #deviceModelFilter}
@@ -313,12 +983,14 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
     }
 
     /**
-     * Sets {@link #deviceModelFilter} value
+     * Sets {@link #deviceModelFilter} value and compiles it
      *
      * @param deviceModelFilter new value of {@link #deviceModelFilter}
      * @since 1.1.3
+     * @throws IllegalArgumentException if the filter has an invalid regular expression
      */
     public void setDeviceModelFilter(String deviceModelFilter) {
+        this.compiledDeviceModelFilter = DeviceFilter.parse(deviceModelFilter);
         this.deviceModelFilter = deviceModelFilter;
     }
 
@@ -333,33 +1005,432 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
     }
 
     /**
-     * Sets {@link #hardwareIdFilter} value
+     * Sets {@link #hardwareIdFilter} value and compiles it
      *
      * @param hardwareIdFilter new value of {@link #hardwareIdFilter}
      * @since 1.1.3
+     * @throws IllegalArgumentException if the filter has an invalid regular expression
      */
     public void setHardwareIdFilter(String hardwareIdFilter) {
+        this.compiledHardwareIdFilter = DeviceFilter.parse(hardwareIdFilter);
         this.hardwareIdFilter = hardwareIdFilter;
     }
 
     /**
-     * Default Constructor
+     * Retrieves {@link #statisticsRefreshInterval}
+     *
+     * @return value of {@link #statisticsRefreshInterval}
+     * @since 1.1.4
      */
-    public ShureSystemOn() {
-        // override default value to trust all certificates - MCUs typically do not have trusted certificates installed
-        // it can be changed back by configuration
-        setTrustAllCertificates(true);
+    public long getStatisticsRefreshInterval() {
+        return statisticsRefreshInterval;
     }
 
     /**
-     * {@inheritDoc}
+     * Sets {@link #statisticsRefreshInterval} value. Values lower than {@link #minimalRefreshInterval} are adjusted to it.
+     *
+     * @param statisticsRefreshInterval new value of {@link #statisticsRefreshInterval}
+     * @since 1.1.4
      */
-    @Override
-    protected void internalInit() throws Exception {
-        super.internalInit();
-        Map<String, PropertiesMapping> models = new PropertiesMappingParser()
-                .loadYML("shure/model-mapping.yml", getClass());
-        aggregatedDeviceProcessor = new AggregatedDeviceProcessor(models);
+    public void setStatisticsRefreshInterval(long statisticsRefreshInterval) {
+        this.statisticsRefreshInterval = Math.max(minimalRefreshInterval, statisticsRefreshInterval);
+        deviceRefreshPolicy.setStatisticsRefreshInterval(this.statisticsRefreshInterval);
+    }
+
+    /**
+     * Retrieves {@link #propertiesRefreshInterval}
+     *
+     * @return value of {@link #propertiesRefreshInterval}
+     * @since 1.1.4
+     */
+    public long getPropertiesRefreshInterval() {
+        return propertiesRefreshInterval;
+    }
+
+    /**
+     * Sets {@link #propertiesRefreshInterval} value. Values lower than {@link #minimalRefreshInterval} are adjusted to it.
+     *
+     * @param propertiesRefreshInterval new value of {@link #propertiesRefreshInterval}
+     * @since 1.1.4
+     */
+    public void setPropertiesRefreshInterval(long propertiesRefreshInterval) {
+        this.propertiesRefreshInterval = Math.max(minimalRefreshInterval, propertiesRefreshInterval);
+        deviceRefreshPolicy.setPropertiesRefreshInterval(this.propertiesRefreshInterval);
+    }
+
+    /**
+     * Retrieves {@link #modelStatisticsRefreshIntervals}
+     *
+     * @return value of {@link #modelStatisticsRefreshIntervals}
+     * @since 1.1.4
+     */
+    public String getModelStatisticsRefreshIntervals() {
+        return modelStatisticsRefreshIntervals;
+    }
+
+    /**
+     * Sets {@link #modelStatisticsRefreshIntervals} value. Invalid values are ignored.
+     *
+     * @param modelStatisticsRefreshIntervals new value of {@link #modelStatisticsRefreshIntervals}
+     * @since 1.1.4
+     */
+    public void setModelStatisticsRefreshIntervals(String modelStatisticsRefreshIntervals) {
+        try {
+            deviceRefreshPolicy.setModelStatisticsRefreshIntervals(DeviceRefreshPolicy.parseModelIntervals(modelStatisticsRefreshIntervals, minimalRefreshInterval));
+            this.modelStatisticsRefreshIntervals = modelStatisticsRefreshIntervals;
+        } catch (IllegalArgumentException e) {
+            logger.error("Unable to apply model statistics refresh intervals: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves {@link #modelPropertiesRefreshIntervals}
+     *
+     * @return value of {@link #modelPropertiesRefreshIntervals}
+     * @since 1.1.4
+     */
+    public String getModelPropertiesRefreshIntervals() {
+        return modelPropertiesRefreshIntervals;
+    }
+
+    /**
+     * Sets {@link #modelPropertiesRefreshIntervals} value. Invalid values are ignored.
+     *
+     * @param modelPropertiesRefreshIntervals new value of {@link #modelPropertiesRefreshIntervals}
+     * @since 1.1.4
+     */
+    public void setModelPropertiesRefreshIntervals(String modelPropertiesRefreshIntervals) {
+        try {
+            deviceRefreshPolicy.setModelPropertiesRefreshIntervals(DeviceRefreshPolicy.parseModelIntervals(modelPropertiesRefreshIntervals, minimalRefreshInterval));
+            this.modelPropertiesRefreshIntervals = modelPropertiesRefreshIntervals;
+        } catch (IllegalArgumentException e) {
+            logger.error("Unable to apply model properties refresh intervals: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves {@link #frequentlyRefreshedProperties}
+     *
+     * @return value of {@link #frequentlyRefreshedProperties}
+     * @since 1.1.4
+     */
+    public String getFrequentlyRefreshedProperties() {
+        return frequentlyRefreshedProperties;
+    }
+
+    /**
+     * Sets {@link #frequentlyRefreshedProperties} value
+     *
+     * @param frequentlyRefreshedProperties new value of {@link #frequentlyRefreshedProperties}
+     * @since 1.1.4
+     */
+    public void setFrequentlyRefreshedProperties(String frequentlyRefreshedProperties) {
+        this.frequentlyRefreshedProperties = frequentlyRefreshedProperties;
+    }
+
+    /**
+     * Retrieves {@link #maxConcurrentDeviceRequests}
+     *
+     * @return value of {@link #maxConcurrentDeviceRequests}
+     * @since 1.1.4
+     */
+    public int getMaxConcurrentDeviceRequests() {
+        return maxConcurrentDeviceRequests;
+    }
+
+    /**
+     * Sets {@link #maxConcurrentDeviceRequests} value. Values lower than 1 are adjusted to 1.
+     *
+     * @param maxConcurrentDeviceRequests new value of {@link #maxConcurrentDeviceRequests}
+     * @since 1.1.4
+     */
+    public void setMaxConcurrentDeviceRequests(int maxConcurrentDeviceRequests) {
+        this.maxConcurrentDeviceRequests = Math.max(1, maxConcurrentDeviceRequests);
+    }
+
+    /**
+     * Retrieves {@link #maxConcurrentControlRequests}
+     *
+     * @return value of {@link #maxConcurrentControlRequests}
+     * @since 1.1.4
+     */
+    public int getMaxConcurrentControlRequests() {
+        return maxConcurrentControlRequests;
+    }
+
+    /**
+     * Sets {@link #maxConcurrentControlRequests} value. Values lower than 1 are adjusted to 1.
+     *
+     * @param maxConcurrentControlRequests new value of {@link #maxConcurrentControlRequests}
+     * @since 1.1.4
+     */
+    public void setMaxConcurrentControlRequests(int maxConcurrentControlRequests) {
+        this.maxConcurrentControlRequests = Math.max(1, maxConcurrentControlRequests);
+    }
+
+    /**
+     * Retrieves {@link #maxConcurrentDeviceInitializations}
+     *
+     * @return value of {@link #maxConcurrentDeviceInitializations}
+     * @since 1.1.4
+     */
+    public int getMaxConcurrentDeviceInitializations() {
+        return maxConcurrentDeviceInitializations;
+    }
+
+    /**
+     * Sets {@link #maxConcurrentDeviceInitializations} value. Values lower than 1 are adjusted to 1.
+     *
+     * @param maxConcurrentDeviceInitializations new value of {@link #maxConcurrentDeviceInitializations}
+     * @since 1.1.4
+     */
+    public void setMaxConcurrentDeviceInitializations(int maxConcurrentDeviceInitializations) {
+        this.maxConcurrentDeviceInitializations = Math.max(1, maxConcurrentDeviceInitializations);
+    }
+
+    /**
+     * Retrieves {@link #deviceFailureThreshold}
+     *
+     * @return value of {@link #deviceFailureThreshold}
+     * @since 1.1.4
+     */
+    public int getDeviceFailureThreshold() {
+        return deviceFailureThreshold;
+    }
+
+    /**
+     * Sets {@link #deviceFailureThreshold} value. Values lower than 1 are adjusted to 1.
+     *
+     * @param deviceFailureThreshold new value of {@link #deviceFailureThreshold}
+     * @since 1.1.4
+     */
+    public void setDeviceFailureThreshold(int deviceFailureThreshold) {
+        this.deviceFailureThreshold = Math.max(1, deviceFailureThreshold);
+    }
+
+    /**
+     * Retrieves {@link #deviceRetryBackoff}
+     *
+     * @return value of {@link #deviceRetryBackoff}
+     * @since 1.1.4
+     */
+    public long getDeviceRetryBackoff() {
+        return deviceRetryBackoff;
+    }
+
+    /**
+     * Sets {@link #deviceRetryBackoff} value. Values lower than {@link #minimalRefreshInterval} are adjusted to it.
+     *
+     * @param deviceRetryBackoff new value of {@link #deviceRetryBackoff}
+     * @since 1.1.4
+     */
+    public void setDeviceRetryBackoff(long deviceRetryBackoff) {
+        this.deviceRetryBackoff = Math.max(minimalRefreshInterval, deviceRetryBackoff);
+        deviceInitializationCache.setFailureBackoff(this.deviceRetryBackoff);
+    }
+
+    /**
+     * Retrieves {@link #deviceInitializationTtl}
+     *
+     * @return value of {@link #deviceInitializationTtl}
+     * @since 1.1.4
+     */
+    public long getDeviceInitializationTtl() {
+        return deviceInitializationTtl;
+    }
+
+    /**
+     * Sets {@link #deviceInitializationTtl} value
+     *
+     * @param deviceInitializationTtl new value of {@link #deviceInitializationTtl}
+     * @since 1.1.4
+     */
+    public void setDeviceInitializationTtl(long deviceInitializationTtl) {
+        this.deviceInitializationTtl = Math.max(0, deviceInitializationTtl);
+        deviceInitializationCache.setInitializationTtl(this.deviceInitializationTtl);
+    }
+
+    /**
+     * Retrieves {@link #proactiveDeviceInitialization}
+     *
+     * @return value of {@link #proactiveDeviceInitialization}
+     * @since 1.1.4
+     */
+    public boolean isProactiveDeviceInitialization() {
+        return proactiveDeviceInitialization;
+    }
+
+    /**
+     * Sets {@link #proactiveDeviceInitialization} value
+     *
+     * @param proactiveDeviceInitialization new value of {@link #proactiveDeviceInitialization}
+     * @since 1.1.4
+     */
+    public void setProactiveDeviceInitialization(boolean proactiveDeviceInitialization) {
+        this.proactiveDeviceInitialization = proactiveDeviceInitialization;
+    }
+
+    /**
+     * Retrieves {@link #deviceCacheSnapshotFile}
+     *
+     * @return value of {@link #deviceCacheSnapshotFile}
+     * @since 1.1.4
+     */
+    public String getDeviceCacheSnapshotFile() {
+        return deviceCacheSnapshotFile;
+    }
+
+    /**
+     * Sets {@link #deviceCacheSnapshotFile} value
+     *
+     * @param deviceCacheSnapshotFile new value of {@link #deviceCacheSnapshotFile}
+     * @since 1.1.4
+     */
+    public void setDeviceCacheSnapshotFile(String deviceCacheSnapshotFile) {
+        this.deviceCacheSnapshotFile = deviceCacheSnapshotFile;
+    }
+
+    /**
+     * Retrieves {@link #deviceCacheSnapshotInterval}
+     *
+     * @return value of {@link #deviceCacheSnapshotInterval}
+     * @since 1.1.4
+     */
+    public long getDeviceCacheSnapshotInterval() {
+        return deviceCacheSnapshotInterval;
+    }
+
+    /**
+     * Sets {@link #deviceCacheSnapshotInterval} value. Values lower than {@link #minimalRefreshInterval} are adjusted to it.
+     *
+     * @param deviceCacheSnapshotInterval new value of {@link #deviceCacheSnapshotInterval}
+     * @since 1.1.4
+     */
+    public void setDeviceCacheSnapshotInterval(long deviceCacheSnapshotInterval) {
+        this.deviceCacheSnapshotInterval = Math.max(minimalRefreshInterval, deviceCacheSnapshotInterval);
+    }
+
+    /**
+     * Retrieves {@link #virtualThreads}
+     *
+     * @return value of {@link #virtualThreads}
+     * @since 1.1.4
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Sets {@link #virtualThreads} value
+     *
+     * @param virtualThreads new value of {@link #virtualThreads}
+     * @since 1.1.4
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Retrieves {@link #asyncDeviceRequests}
+     *
+     * @return value of {@link #asyncDeviceRequests}
+     * @since 1.1.4
+     */
+    public boolean isAsyncDeviceRequests() {
+        return asyncDeviceRequests;
+    }
+
+    /**
+     * Sets {@link #asyncDeviceRequests} value
+     *
+     * @param asyncDeviceRequests new value of {@link #asyncDeviceRequests}
+     * @since 1.1.4
+     */
+    public void setAsyncDeviceRequests(boolean asyncDeviceRequests) {
+        this.asyncDeviceRequests = asyncDeviceRequests;
+    }
+
+    /**
+     * Retrieves {@link #asyncIoThreads}
+     *
+     * @return value of {@link #asyncIoThreads}
+     * @since 1.1.4
+     */
+    public int getAsyncIoThreads() {
+        return asyncIoThreads;
+    }
+
+    /**
+     * Sets {@link #asyncIoThreads} value. Values lower than 1 are adjusted to 1.
+     *
+     * @param asyncIoThreads new value of {@link #asyncIoThreads}
+     * @since 1.1.4
+     */
+    public void setAsyncIoThreads(int asyncIoThreads) {
+        this.asyncIoThreads = Math.max(1, asyncIoThreads);
+    }
+
+    /**
+     * Retrieves {@link #additionalGateways}
+     *
+     * @return value of {@link #additionalGateways}
+     * @since 1.1.4
+     */
+    public String getAdditionalGateways() {
+        return additionalGateways;
+    }
+
+    /**
+     * Sets {@link #additionalGateways} value
+     *
+     * @param additionalGateways new value of {@link #additionalGateways}
+     * @since 1.1.4
+     */
+    public void setAdditionalGateways(String additionalGateways) {
+        this.additionalGateways = additionalGateways;
+    }
+
+    /**
+     * Retrieves {@link #maxDeviceRetryBackoff}
+     *
+     * @return value of {@link #maxDeviceRetryBackoff}
+     * @since 1.1.4
+     */
+    public long getMaxDeviceRetryBackoff() {
+        return maxDeviceRetryBackoff;
+    }
+
+    /**
+     * Sets {@link #maxDeviceRetryBackoff} value. Values lower than {@link #minimalRefreshInterval} are adjusted to it.
+     *
+     * @param maxDeviceRetryBackoff new value of {@link #maxDeviceRetryBackoff}
+     * @since 1.1.4
+     */
+    public void setMaxDeviceRetryBackoff(long maxDeviceRetryBackoff) {
+        this.maxDeviceRetryBackoff = Math.max(minimalRefreshInterval, maxDeviceRetryBackoff);
+    }
+
+    /**
+     * Default Constructor
+     */
+    public ShureSystemOn() {
+        // override default value to trust all certificates - MCUs typically do not have trusted certificates installed
+        // it can be changed back by configuration
+        setTrustAllCertificates(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void internalInit() throws Exception {
+        super.internalInit();
+        models = new PropertiesMappingParser().loadYML("shure/model-mapping.yml", getClass());
+        aggregatedDeviceProcessor = new AggregatedDeviceProcessor(models);
+        statisticsProcessor = new AggregatedDeviceProcessor(createStatisticsModels(models));
+        deviceModelResolver = new DeviceModelResolver(models, new JsonPropertyConverter());
+        devicesStreamReader = new DevicesStreamReader(objectMapper.getFactory(), DeviceProjection.fromModels(models, PAYLOAD_FIELDS));
+        models.forEach((name, mapping) -> compactPropertyStore.registerModel(name, createPropertyNames(mapping)));
 
         if (logger.isDebugEnabled()) {
             logger.debug("Internal init is called.");
@@ -367,15 +1438,28 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
 
         adapterInitializationTimestamp = System.currentTimeMillis();
 
-        if (StringUtils.isNullOrEmpty(hardwareIdFilter)) {
-            executorService = Executors.newFixedThreadPool(1);
-        } else {
-            // Setting a thread pool number to be the largest number between 1-10
-            executorService = Executors.newFixedThreadPool(getTargetThreadsNumber(hardwareIdFilter.split(",").length));
+        List<SystemOnGateway> systemOnGateways = new ArrayList<>();
+        systemOnGateways.add(SystemOnGateway.primary(getHost(), getPort(), BASE_URL));
+        if (StringUtils.isNotNullOrEmpty(additionalGateways)) {
+            for (String gateway : additionalGateways.split(",")) {
+                if (!gateway.trim().isEmpty()) {
+                    systemOnGateways.add(SystemOnGateway.additional(gateway, getProtocol(), getPort(), BASE_URL));
+                }
+            }
         }
-
-        executorService.submit(deviceDataLoader = new SystemOnDeviceDataLoader());
-        validDeviceMetaDataRetrievalPeriodTimestamp = System.currentTimeMillis();
+        systemOnGateways.forEach(gateway -> gateway.setValidDeviceMetaDataRetrievalPeriodTimestamp(adapterInitializationTimestamp));
+        gateways = Collections.unmodifiableList(systemOnGateways);
+        configureConnectionPool();
+        gatewayCircuitBreaker = new DeviceCircuitBreaker(deviceFailureThreshold, deviceRetryBackoff, maxDeviceRetryBackoff);
+
+        if (StringUtils.isNotNullOrEmpty(deviceCacheSnapshotFile)) {
+            deviceCacheSnapshotStore = new DeviceCacheSnapshotStore(Paths.get(deviceCacheSnapshotFile.trim()));
+            restoreDeviceCacheSnapshot();
+        }
+        deviceCircuitBreaker = new DeviceCircuitBreaker(deviceFailureThreshold, deviceRetryBackoff, maxDeviceRetryBackoff);
+        controlExecutorService = DeviceExecutors.newDeviceExecutor(maxConcurrentControlRequests, virtualThreads);
+        initializationExecutorService = DeviceExecutors.newDeviceExecutor(maxConcurrentDeviceInitializations, virtualThreads);
+        startDeviceDataLoader();
         serviceRunning = true;
         adapterProperties = new Properties();
         adapterProperties.load(getClass().getResourceAsStream("/version.properties"));
@@ -393,6 +1477,149 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
         }
         serviceRunning = false;
 
+        stopDeviceDataLoader();
+        if (controlExecutorService != null) {
+            controlExecutorService.shutdownNow();
+            controlExecutorService = null;
+        }
+        if (initializationExecutorService != null) {
+            initializationExecutorService.shutdownNow();
+            initializationExecutorService = null;
+        }
+        saveDeviceCacheSnapshot();
+        deviceCacheSnapshotStore = null;
+
+        aggregatedDevices.clear();
+        deviceGateways.clear();
+        devicePayloadHashes.clear();
+        controllablePropertiesIndex.clear();
+        conditionalRequestCache.clear();
+        deviceRefreshPolicy.clear();
+        deviceInitializationCache.clear();
+        pendingDeviceInitializations.clear();
+        compactPropertyStore.clear();
+        adapterMetrics.clear();
+        super.internalDestroy();
+    }
+
+    /**
+     * Create {@link #executorService} for the device retrieval operations and start {@link #deviceDataLoader}
+     * @since 1.1.4
+     */
+    private void startDeviceDataLoader() {
+        // Parallelism matches the concurrency ceiling, platform threads are only created when the limit grows
+        // and are released when idle, virtual threads are created per task on Java 21+.
+        // With the async client threads only process the responses and refresh additional gateways,
+        // so there is no need for a thread per request in flight
+        int parallelism = maxConcurrentDeviceRequests;
+        if (asyncDeviceRequests) {
+            asyncDevicesClient = createAsyncDevicesClient();
+            if (asyncDevicesClient != null) {
+                parallelism = Math.min(maxConcurrentDeviceRequests, Math.max(Runtime.getRuntime().availableProcessors(), gateways.size()));
+            }
+        }
+        executorService = DeviceExecutors.newDeviceExecutor(parallelism, virtualThreads);
+        concurrencyLimiter = new AimdConcurrencyLimiter(1, maxConcurrentDeviceRequests);
+        deviceDataLoader = new SystemOnDeviceDataLoader();
+        deviceDataLoader.start();
+    }
+
+    /**
+     * Size the http client connection pool for the adapter concurrency. Default pool only keeps 2 connections
+     * per route, so concurrent device requests would wait for a connection, or have to open and close their own.
+     * Every gateway gets enough persistent connections for the device retrieval and control requests,
+     * along with the devices list request, so connections (and TLS sessions) are reused across the cycles.
+     * @since 1.1.4
+     */
+    private void configureConnectionPool() {
+        int maxConnectionsPerRoute = maxConcurrentDeviceRequests + maxConcurrentControlRequests + 1;
+        setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+        setMaxConnectionsTotal(maxConnectionsPerRoute * gateways.size());
+    }
+
+    /**
+     * Create {@link #asyncDevicesClient} with the adapter timeout and certificates settings.
+     * Connections limit of every gateway matches {@link #maxConcurrentDeviceRequests}.
+     *
+     * @return async devices client, or null if it cannot be created, so devices are retrieved with blocking requests
+     * @since 1.1.4
+     */
+    private AsyncDevicesClient createAsyncDevicesClient() {
+        try {
+            return new AsyncDevicesClient(asyncIoThreads, maxConcurrentDeviceRequests, maxConcurrentDeviceRequests * gateways.size(),
+                    getTimeout(), getTrustAllCertificates());
+        } catch (Exception e) {
+            logger.warn("Unable to create async devices client, devices are retrieved with blocking requests.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Restore {@link #aggregatedDevices} from the device cache snapshot. Restored devices are marked with
+     * {@link #DEVICE_DATA_STALE_PROPERTY} until they are retrieved from the SystemOn API again.
+     * Devices that are already cached are not replaced.
+     * @since 1.1.4
+     */
+    private void restoreDeviceCacheSnapshot() {
+        DeviceCacheSnapshotStore snapshotStore = deviceCacheSnapshotStore;
+        if (snapshotStore == null) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        List<AggregatedDevice> devices;
+        try {
+            devices = snapshotStore.read();
+        } catch (Exception e) {
+            logger.warn("Unable to restore device cache snapshot " + snapshotStore.getSnapshotFile() + ", devices are retrieved from scratch.", e);
+            return;
+        }
+        int restoredDevices = 0;
+        for (AggregatedDevice device : devices) {
+            String deviceId = device.getDeviceId();
+            if (StringUtils.isNullOrEmpty(deviceId)) {
+                continue;
+            }
+            device.setProperties(compactPropertyStore.compact(device.getDeviceModel(),
+                    device.getProperties() == null ? new HashMap<>() : device.getProperties()));
+            device.getProperties().put(DEVICE_DATA_STALE_PROPERTY, "true");
+            if (aggregatedDevices.putIfAbsent(deviceId, device) == null) {
+                controllablePropertiesIndex.index(deviceId, device);
+                deviceGateways.put(deviceId, resolveGateway(device.getProperties().get(GATEWAY_PROPERTY)));
+                restoredDevices++;
+            }
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info(String.format("Restored %s devices from the device cache snapshot %s in %s ms", restoredDevices,
+                    snapshotStore.getSnapshotFile(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)));
+        }
+    }
+
+    /**
+     * Store {@link #aggregatedDevices} to the device cache snapshot. Empty device cache is not stored,
+     * so the latest snapshot survives the devices list retrieval errors.
+     * @since 1.1.4
+     */
+    private void saveDeviceCacheSnapshot() {
+        DeviceCacheSnapshotStore snapshotStore = deviceCacheSnapshotStore;
+        if (snapshotStore == null || aggregatedDevices.isEmpty()) {
+            return;
+        }
+        lastDeviceCacheSnapshotTimestamp = System.currentTimeMillis();
+        try {
+            snapshotStore.write(copyCachedDevices());
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Stored %s devices to the device cache snapshot %s", aggregatedDevices.size(), snapshotStore.getSnapshotFile()));
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to store device cache snapshot " + snapshotStore.getSnapshotFile(), e);
+        }
+    }
+
+    /**
+     * Stop {@link #deviceDataLoader} and cancel all the device retrieval operations in progress
+     * @since 1.1.4
+     */
+    private void stopDeviceDataLoader() {
         if (deviceDataLoader != null) {
             deviceDataLoader.stop();
             deviceDataLoader = null;
@@ -400,14 +1627,41 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
 
         if (executorService != null) {
             executorService.shutdownNow();
+            awaitTermination(executorService, "device retrieval");
             executorService = null;
         }
 
-        devicesExecutionPool.forEach(future -> future.cancel(true));
-        devicesExecutionPool.clear();
+        AsyncDevicesClient devicesClient = asyncDevicesClient;
+        asyncDevicesClient = null;
+        if (devicesClient != null) {
+            try {
+                devicesClient.close();
+            } catch (Exception e) {
+                logger.warn("Unable to close async devices client", e);
+            }
+        }
 
-        aggregatedDevices.clear();
-        super.internalDestroy();
+        if (devicesCollectionCycle != null) {
+            devicesCollectionCycle.cancel(true);
+            devicesCollectionCycle = null;
+        }
+    }
+
+    /**
+     * Wait for the operations of the executor that is shut down to finish, for up to {@link #loaderStopTimeout}
+     *
+     * @param executor that is shut down
+     * @param operations description of the executor operations, for logging
+     * @since 1.1.4
+     */
+    private void awaitTermination(ExecutorService executor, String operations) {
+        try {
+            if (!executor.awaitTermination(loaderStopTimeout, TimeUnit.MILLISECONDS)) {
+                logger.warn(String.format("Shure SystemOn %s operations did not finish in %s ms after the stop", operations, loaderStopTimeout));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
@@ -424,185 +1678,976 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
         statistics.put("AdapterUptime", normalizeUptime((System.currentTimeMillis() - adapterInitializationTimestamp) / 1000));
 
         latestErrors.forEach((key, value) -> statistics.put("Errors#" + key, value));
+        adapterMetrics.publish(statistics);
+        AimdConcurrencyLimiter limiter = concurrencyLimiter;
+        if (limiter != null) {
+            statistics.put(AdapterMetrics.METRICS_GROUP + "DeviceRequestsInFlight", String.valueOf(limiter.getInFlight()));
+            statistics.put(AdapterMetrics.METRICS_GROUP + "DeviceRequestsLimit", String.valueOf(limiter.getLimit()));
+        }
+        statistics.put(AdapterMetrics.METRICS_GROUP + "VirtualThreads", String.valueOf(virtualThreads && DeviceExecutors.isVirtualThreadsSupported()));
+        statistics.put(AdapterMetrics.METRICS_GROUP + "AsyncDeviceRequests", String.valueOf(asyncDevicesClient != null));
+        statistics.put(AdapterMetrics.METRICS_GROUP + "SharedPropertyValues", String.valueOf(compactPropertyStore.getSharedValuesCount()));
+        statistics.put(AdapterMetrics.METRICS_GROUP + "SharedRequestsInFlight",
+                String.valueOf(devicesRequests.getOperationsInFlight() + initializationRequests.getOperationsInFlight()));
+        List<SystemOnGateway> systemOnGateways = gateways;
+        DeviceCircuitBreaker circuitBreaker = gatewayCircuitBreaker;
+        if (systemOnGateways.size() > 1) {
+            Map<SystemOnGateway, Long> gatewayDevices = deviceGateways.values().stream().collect(groupingBy(gateway -> gateway, counting()));
+            for (SystemOnGateway gateway : systemOnGateways) {
+                statistics.put(GATEWAYS_GROUP + gateway.getName() + "Devices", String.valueOf(gatewayDevices.getOrDefault(gateway, 0L)));
+                if (circuitBreaker != null) {
+                    statistics.put(GATEWAYS_GROUP + gateway.getName() + "State", circuitBreaker.getState(gateway.getName()).name());
+                }
+            }
+        }
         extendedStatistics.setStatistics(statistics);
         return Collections.singletonList(extendedStatistics);
     }
 
     /**
-     * Shure SystemOn doesn't require authentication.
+     * Shure SystemOn doesn't require authentication.
+     */
+    @Override
+    protected void authenticate() {
+    }
+
+    /**
+     * {@inheritDoc}
+     * Commands of different devices are sent concurrently, commands of the same device are sent in the batch order,
+     * see {@link #executeControls(List)}.
+     *
+     * @throws ControlBatchException if any of the commands failed, with outcomes of all the batch commands
+     */
+    @Override
+    public void controlProperties(List<ControllableProperty> controllableProperties) throws Exception {
+        if (CollectionUtils.isEmpty(controllableProperties)) {
+            throw new IllegalArgumentException("Controllable properties cannot be null or empty");
+        }
+
+        List<ControlOutcome> outcomes = executeControls(controllableProperties);
+        if (logger.isDebugEnabled()) {
+            logger.debug("ShureSystemOn controlProperties outcome: " + outcomes);
+        }
+        if (outcomes.stream().anyMatch(outcome -> !outcome.isSucceeded())) {
+            throw new ControlBatchException(outcomes);
+        }
+    }
+
+    /**
+     * Execute controls batch. Commands are grouped by device: groups are executed concurrently
+     * (up to {@link #maxConcurrentControlRequests} at a time), commands of a group are executed one by one,
+     * in the batch order. Failure of a command does not prevent the following commands from execution.
+     *
+     * @param controllableProperties control commands to execute
+     * @return outcomes of the commands, in the batch order
+     * @since 1.1.4
+     */
+    public List<ControlOutcome> executeControls(List<ControllableProperty> controllableProperties) {
+        ControlOutcome[] outcomes = new ControlOutcome[controllableProperties.size()];
+        Map<String, List<Integer>> devicesCommands = new LinkedHashMap<>();
+        for (int i = 0; i < controllableProperties.size(); i++) {
+            devicesCommands.computeIfAbsent(String.valueOf(controllableProperties.get(i).getDeviceId()), deviceId -> new ArrayList<>()).add(i);
+        }
+
+        ExecutorService controlExecutor = controlExecutorService;
+        List<CompletableFuture<Void>> devicesControls = new ArrayList<>();
+        for (List<Integer> deviceCommands : devicesCommands.values()) {
+            Runnable deviceControls = () -> deviceCommands.forEach(i -> outcomes[i] = executeControl(controllableProperties.get(i)));
+            if (controlExecutor == null || devicesCommands.size() == 1) {
+                deviceControls.run();
+                continue;
+            }
+            try {
+                devicesControls.add(CompletableFuture.runAsync(deviceControls, controlExecutor));
+            } catch (RejectedExecutionException e) {
+                // Adapter is destroyed, the rest of the commands are executed in the caller thread
+                deviceControls.run();
+            }
+        }
+        CompletableFuture.allOf(devicesControls.toArray(new CompletableFuture[0])).join();
+        return Arrays.asList(outcomes);
+    }
+
+    /**
+     * Execute a single control command and keep track of its outcome
+     *
+     * @param controllableProperty control command
+     * @return command outcome
+     * @since 1.1.4
+     */
+    private ControlOutcome executeControl(ControllableProperty controllableProperty) {
+        long startTime = System.nanoTime();
+        try {
+            controlProperty(controllableProperty);
+            return new ControlOutcome(controllableProperty, null, System.nanoTime() - startTime);
+        } catch (Exception e) {
+            logger.error(String.format("Unable to control property '%s' of the device with id '%s'.",
+                    controllableProperty.getProperty(), controllableProperty.getDeviceId()), e);
+            return new ControlOutcome(controllableProperty, e, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws Exception
+     */
+    @Override
+    public void controlProperty(ControllableProperty controllableProperty) throws Exception {
+        String property = controllableProperty.getProperty();
+        Object value = controllableProperty.getValue();
+        String deviceId = controllableProperty.getDeviceId();
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("ShureSystemOn controlProperty property=" + property + " value=" + value +
+                    " deviceId=" + deviceId);
+        }
+
+        doControl(property, value, deviceId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws Exception
+     */
+    @Override
+    public List<AggregatedDevice> retrieveMultipleStatistics() throws Exception {
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Adapter initialized: %s, executorService exists: %s, serviceRunning: %s", isInitialized(), executorService != null, serviceRunning));
+        }
+        if (executorService == null || executorService.isTerminated() || executorService.isShutdown()
+                || deviceDataLoader == null || !deviceDataLoader.isRunning()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Restarting executor service and initializing with the new data loader");
+            }
+            // Due to the bug that after changing properties on fly - the adapter is destroyed but is not initialized properly afterwards,
+            // so executor service is not running. We need to make sure executorService exists
+            stopDeviceDataLoader();
+            startDeviceDataLoader();
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Aggregator Multiple statistics requested. Aggregated Devices collected so far: %s. Runner thread running: %s. Executor terminated: %s",
+                    aggregatedDevices.size(), serviceRunning, executorService.isTerminated()));
+        }
+
+        long currentTimestamp = System.currentTimeMillis();
+        updateValidRetrieveStatisticsTimestamp();
+        deviceDataLoader.signal();
+
+        List<AggregatedDevice> devices = copyCachedDevices();
+        devices.forEach(aggregatedDevice -> aggregatedDevice.setTimestamp(currentTimestamp));
+        return devices;
+    }
+
+    /**
+     * Copy {@link #aggregatedDevices}, so the devices handed over to Symphony, or stored, are not updated
+     * by the devices collection while these are read
+     *
+     * @return copies of the cached devices
+     * @since 1.1.4
+     */
+    private List<AggregatedDevice> copyCachedDevices() {
+        List<AggregatedDevice> devices = new ArrayList<>(aggregatedDevices.size());
+        aggregatedDevices.values().forEach(aggregatedDevice -> devices.add(aggregatedDeviceMerger.copy(aggregatedDevice)));
+        return devices;
+    }
+
+    /**
+     * Retrieve devices information based on hardwareIds
+     *
+     * @param hardwareId to retrieve device for
+     * @since 1.1.3
+     * @throws Exception if any error occurs
+     * @throws DeviceRetrievalException if unable to find the device by hardwareId provided
+     */
+    private void fetchDeviceByHardwareId(String hardwareId) throws Exception {
+        if (isDeviceUpToDate(hardwareId)) {
+            return;
+        }
+        SystemOnGateway gateway = resolveDeviceGateway(hardwareId);
+        DevicesSnapshot snapshot = doConditionalGet(gateway.getBaseUri() + "/devices/" + hardwareId,
+                payload -> processDeviceByHardwareId(gateway, hardwareId, payload));
+        verifyDeviceRetrieved(hardwareId, snapshot);
+    }
+
+    /**
+     * Retrieve device information based on hardwareId with the non-blocking client,
+     * see {@link #fetchDeviceByHardwareId(String)}
+     *
+     * @param devicesClient to send the request with
+     * @param hardwareId to retrieve device for
+     * @param devicesExecutor to process the response on
+     * @return future that is complete when the device is retrieved, or completed exceptionally with the retrieval error
+     * @since 1.1.4
+     */
+    private CompletableFuture<Void> fetchDeviceByHardwareIdAsync(AsyncDevicesClient devicesClient, String hardwareId, ExecutorService devicesExecutor) {
+        if (isDeviceUpToDate(hardwareId)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        SystemOnGateway gateway = resolveDeviceGateway(hardwareId);
+        String uri = gateway.getBaseUri() + "/devices/" + hardwareId;
+        return devicesRequests.executeAsync(uri, () -> doSingleConditionalGetAsync(devicesClient, uri,
+                payload -> processDeviceByHardwareId(gateway, hardwareId, payload), devicesExecutor))
+                .thenAccept(snapshot -> verifyDeviceRetrieved(hardwareId, snapshot));
+    }
+
+    /**
+     * Check whether the cached device does not need to be requested by hardwareId, according to {@link #deviceRefreshPolicy}
+     *
+     * @param hardwareId of the device
+     * @return true if the device is cached and none of its refresh tiers is due, false otherwise
+     * @since 1.1.4
+     */
+    private boolean isDeviceUpToDate(String hardwareId) {
+        AggregatedDevice cachedDevice = aggregatedDevices.get(hardwareId);
+        if (cachedDevice != null && !deviceRefreshPolicy.isRefreshDue(hardwareId, cachedDevice.getDeviceModel(), System.currentTimeMillis())) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Shure SystemOn device with hardwareId '%s' is up to date. Skipping.", hardwareId));
+            }
+            return true;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Fetching device by hardwareId " + hardwareId);
+        }
+        return false;
+    }
+
+    /**
+     * Check that the device by hardwareId response has a device payload
+     *
+     * @param hardwareId of the device requested
+     * @param snapshot devices snapshot of the response
+     * @since 1.1.4
+     * @throws DeviceRetrievalException if the response has no device payload
+     */
+    private void verifyDeviceRetrieved(String hardwareId, DevicesSnapshot snapshot) {
+        if (snapshot.getHardwareIds().isEmpty()) {
+            throw new DeviceRetrievalException(String.format("Unable to retrieve properties for device with hardwareId %s: No device payload available.", hardwareId));
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Updated/Retrieved Shure SystemOn device with hardwareId '%s'", hardwareId));
+        }
+    }
+
+    /**
+     * Map device payload retrieved by hardwareId and put it to {@link #aggregatedDevices}
+     *
+     * @param gateway the device is retrieved from
+     * @param hardwareId of the device requested
+     * @param payload device payload
+     * @return id of the cached device, or null if the device is not cached by this request
+     * @since 1.1.4
+     * @throws DeviceRetrievalException if the device payload has no model information
+     */
+    private String processDeviceByHardwareId(SystemOnGateway gateway, String hardwareId, DevicePayload payload) {
+        JsonNode properties = payload.getNode();
+        JsonNode deviceModel = properties.get("model");
+        if (deviceModel == null || deviceModel.isNull()) {
+            throw new DeviceRetrievalException(String.format("Unable to retrieve properties for device with hardwareId %s: No device model name available. Properties available: %s",
+                    hardwareId, properties));
+        }
+        String deviceModelName = deviceModel.asText();
+        DeviceFilter modelFilter = compiledDeviceModelFilter;
+        if (modelFilter.excludes(deviceModelName)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Device with hardwareId '%s' is excluded by the model filter '%s'. Skipping.", hardwareId, deviceModelName));
+            }
+            return null;
+        }
+        if (modelFilter.includes(deviceModelName)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Device with hardwareId '%s' was already retrieved by the model filter '%s'. Skipping.",
+                        hardwareId, deviceModelName));
+            }
+            return null;
+        }
+        return applyDevicePayload(gateway, hardwareId, payload, deviceModelName, deviceModelName, System.currentTimeMillis());
+    }
+
+    /**
+     * Apply device payload to the cached device, based on the refresh tiers that are due:
+     * if properties refresh is due (or the device is not cached yet) - payload is mapped and applied as a whole,
+     * if only statistics refresh is due - statistics, controls and {@link #frequentlyRefreshedProperties} are mapped and applied.
+     * Payloads that did not change since the last time are not mapped at all.
+     *
+     * @param gateway the device payload is retrieved from
+     * @param hardwareId of the device
+     * @param payload device payload
+     * @param modelName model mapping name
+     * @param deviceModel device model, as reported by the SystemOn API
+     * @param timestamp current timestamp
+     * @return id of the cached device, or null if the device is not cached
+     * @since 1.1.4
+     */
+    private String applyDevicePayload(SystemOnGateway gateway, String hardwareId, DevicePayload payload, String modelName, String deviceModel, long timestamp) {
+        AggregatedDevice cachedDevice = aggregatedDevices.get(hardwareId);
+        boolean propertiesRefreshDue = cachedDevice == null || deviceRefreshPolicy.isPropertiesRefreshDue(hardwareId, deviceModel, timestamp);
+        if (!propertiesRefreshDue && !deviceRefreshPolicy.isStatisticsRefreshDue(hardwareId, deviceModel, timestamp)) {
+            return hardwareId;
+        }
+        if (isPayloadUnchanged(hardwareId, payload.getHash()) && !deviceRefreshPolicy.isPropertiesUpdatePending(hardwareId, deviceModel, timestamp)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Shure SystemOn device with hardwareId '%s' is not changed. Skipping.", hardwareId));
+            }
+            deviceRefreshPolicy.registerUnchanged(hardwareId, timestamp);
+            adapterMetrics.recordUnchangedPayload();
+            return hardwareId;
+        }
+        AggregatedDevice aggregatedDevice = new AggregatedDevice();
+        if (propertiesRefreshDue) {
+            aggregatedDeviceProcessor.applyProperties(aggregatedDevice, payload.getNode(), modelName);
+        } else {
+            statisticsProcessor.applyProperties(aggregatedDevice, payload.getNode(), modelName);
+        }
+        String deviceId = aggregatedDevice.getDeviceId();
+        aggregatedDevice.setTimestamp(timestamp);
+        if (propertiesRefreshDue && gateways.size() > 1) {
+            if (aggregatedDevice.getProperties() == null) {
+                aggregatedDevice.setProperties(new HashMap<>());
+            }
+            aggregatedDevice.getProperties().put(GATEWAY_PROPERTY, gateway.getName());
+        }
+        devicePayloadHashes.put(hardwareId, payload.getHash());
+        if (propertiesRefreshDue) {
+            updateCachedDevice(deviceId, aggregatedDevice);
+            deviceGateways.put(deviceId, gateway);
+            deviceRefreshPolicy.registerFullRefresh(deviceId, timestamp);
+        } else {
+            synchronized (cachedDevice) {
+                if (aggregatedDeviceMerger.mergeStatistics(cachedDevice, aggregatedDevice)) {
+                    controllablePropertiesIndex.index(deviceId, cachedDevice);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("Applied statistics changes to the cached Shure SystemOn device with id '%s'", deviceId));
+                    }
+                }
+            }
+            deviceRefreshPolicy.registerStatisticsRefresh(deviceId, timestamp);
+        }
+        return deviceId;
+    }
+
+    /**
+     * Fetch full devices list of the gateway, or list of devices based on {@link #deviceModelFilter}.
+     * The list is walked page by page, {@link #deviceNumberPerPage} devices per page.
+     * Only the devices of the gateway are affected.
+     *
+     * @param gateway to retrieve devices list from
+     * @return true if devices list was retrieved, false if the retrieval is in cooldown or is not necessary
+     * @since 1.1.3
+     * @throws Exception if any error occurs
+     */
+    private boolean fetchDevicesList(SystemOnGateway gateway) throws Exception {
+        long currentTimestamp = System.currentTimeMillis();
+        long validDeviceMetaDataRetrievalPeriodTimestamp = gateway.getValidDeviceMetaDataRetrievalPeriodTimestamp();
+        if (deviceGateways.containsValue(gateway) && validDeviceMetaDataRetrievalPeriodTimestamp > currentTimestamp) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("General devices metadata retrieval of the gateway '%s' is in cooldown. %s seconds left",
+                        gateway, (validDeviceMetaDataRetrievalPeriodTimestamp - currentTimestamp) / 1000));
+            }
+            return false;
+        }
+        DeviceFilter hardwareIds = compiledHardwareIdFilter;
+        if (isDevicesListSkipped(gateway)) {
+            // remove devices that are supposed to be filtered out now
+            aggregatedDevices.keySet().removeIf(existingDevice -> isGatewayDevice(existingDevice, gateway) && !hardwareIds.matches(existingDevice));
+            retainCachedDevicesData();
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Skipping unfiltered devices search, hardwareIdFilter is provided: '%s'", hardwareIdFilter));
+            }
+            return false;
+        }
+        // Clear latest errors because devices are retrieved from scratch now. This would only happen if hardwareIdFilter is not active.
+        clearGatewayErrors(gateway);
+
+        gateway.setValidDeviceMetaDataRetrievalPeriodTimestamp(currentTimestamp + deviceMetaDataRetrievalTimeout);
+
+        DeviceFilter deviceModels = compiledDeviceModelFilter;
+        // Models are filtered by the gateway, unless the devices list has to be matched against the patterns
+        String requestedModels = deviceModels.hasIncludePatterns() || hardwareIds.hasIncludePatterns() ? null
+                : String.join(",", deviceModels.getIncludedValues());
+        Set<String> retrievedDeviceIds = fetchDevicesPages(gateway, requestedModels, currentTimestamp);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updated Shure SystemOn devices metadata: " + aggregatedDevices);
+        }
+        // Remove devices that were not populated by the API and are not a part of hardwareIdFilter,
+        // so they won't be retrieved later and were not retrieved by the filtered approach
+        Set<String> requestedHardwareIds = hardwareIds.getIncludedValues();
+        aggregatedDevices.keySet().removeIf(existingDevice -> isGatewayDevice(existingDevice, gateway) && !retrievedDeviceIds.contains(existingDevice)
+                && !requestedHardwareIds.contains(existingDevice));
+
+        if (retrievedDeviceIds.isEmpty() && !hardwareIds.hasIncludes()) {
+            // If all the devices were not populated for any specific reason (no devices available, filtering, etc)
+            removeGatewayDevices(gateway);
+        }
+        retainCachedDevicesData();
+        return true;
+    }
+
+    /**
+     * Check whether the devices list of the gateway is not needed: {@link #hardwareIdFilter} only lists exact
+     * hardware ids, which are requested one by one, and there's no {@link #deviceModelFilter}.
+     * Additional gateways always list their devices, since the devices by hardware id are requested from the adapter host.
+     *
+     * @param gateway to check
+     * @return true if the devices list of the gateway is not retrieved, false otherwise
+     * @since 1.1.4
+     */
+    private boolean isDevicesListSkipped(SystemOnGateway gateway) {
+        DeviceFilter hardwareIds = compiledHardwareIdFilter;
+        return gateway.isPrimary() && hardwareIds.hasIncludes() && !hardwareIds.hasIncludePatterns() && compiledDeviceModelFilter.isEmpty();
+    }
+
+    /**
+     * Check whether the device of the devices list passes {@link #deviceModelFilter} and {@link #hardwareIdFilter}.
+     * Devices that are excluded by any of the filters are dropped. If there are model includes - a device must match
+     * either the model or the hardware id includes. Otherwise, if there are hardware id patterns - a device must match
+     * the hardware id includes. All the devices pass otherwise, since the hardware ids listed explicitly are requested one by one.
+     *
+     * @param hardwareId of the device
+     * @param model of the device
+     * @return true if the device should be cached, false otherwise
+     * @since 1.1.4
+     */
+    private boolean isListedDeviceAccepted(String hardwareId, String model) {
+        DeviceFilter hardwareIds = compiledHardwareIdFilter;
+        DeviceFilter deviceModels = compiledDeviceModelFilter;
+        if (hardwareIds.excludes(hardwareId) || deviceModels.excludes(model)) {
+            return false;
+        }
+        if (deviceModels.hasIncludes()) {
+            return deviceModels.includes(model) || hardwareIds.includes(hardwareId);
+        }
+        return !hardwareIds.hasIncludePatterns() || hardwareIds.includes(hardwareId);
+    }
+
+    /**
+     * Check whether the cached device is collected from the gateway. Devices which gateway is not known yet
+     * belong to the adapter host.
+     *
+     * @param deviceId id of the device
+     * @param gateway to check
+     * @return true if the device is collected from the gateway, false otherwise
+     * @since 1.1.4
+     */
+    private boolean isGatewayDevice(String deviceId, SystemOnGateway gateway) {
+        SystemOnGateway deviceGateway = deviceGateways.get(deviceId);
+        return deviceGateway == null ? gateway.isPrimary() : deviceGateway == gateway;
+    }
+
+    /**
+     * Remove all the cached devices of the gateway, e.g. if the gateway devices list cannot be retrieved
+     *
+     * @param gateway which devices should be removed
+     * @since 1.1.4
+     */
+    private void removeGatewayDevices(SystemOnGateway gateway) {
+        if (gateways.size() <= 1) {
+            aggregatedDevices.clear();
+        } else {
+            aggregatedDevices.keySet().removeIf(deviceId -> isGatewayDevice(deviceId, gateway));
+        }
+        retainCachedDevicesData();
+    }
+
+    /**
+     * Remove data of the devices that are not in {@link #aggregatedDevices} anymore
+     * @since 1.1.4
      */
-    @Override
-    protected void authenticate() {
+    private void retainCachedDevicesData() {
+        Set<String> deviceIds = aggregatedDevices.keySet();
+        deviceGateways.keySet().retainAll(deviceIds);
+        devicePayloadHashes.keySet().retainAll(deviceIds);
+        controllablePropertiesIndex.retainAll(deviceIds);
+        deviceRefreshPolicy.retainAll(deviceIds);
+        deviceInitializationCache.retainAll(deviceIds);
     }
 
     /**
-     * {@inheritDoc}
+     * Clear {@link #latestErrors} related to the gateway. Errors of the additional gateways are tagged with the gateway name,
+     * all the other errors belong to the adapter host.
      *
-     * @throws Exception
+     * @param gateway which errors should be cleared
+     * @since 1.1.4
      */
-    @Override
-    public void controlProperties(List<ControllableProperty> controllableProperties) throws Exception {
-        if (CollectionUtils.isEmpty(controllableProperties)) {
-            throw new IllegalArgumentException("Controllable properties cannot be null or empty");
-        }
-
-        for (ControllableProperty controllableProperty : controllableProperties) {
-            controlProperty(controllableProperty);
+    private void clearGatewayErrors(SystemOnGateway gateway) {
+        if (!gateway.isPrimary()) {
+            latestErrors.keySet().removeIf(key -> key.endsWith(String.format("[%s]", gateway)));
+            return;
         }
+        Set<String> gatewayTags = gateways.stream().filter(systemOnGateway -> !systemOnGateway.isPrimary())
+                .map(systemOnGateway -> String.format("[%s]", systemOnGateway)).collect(toSet());
+        latestErrors.keySet().removeIf(key -> gatewayTags.stream().noneMatch(key::endsWith));
     }
 
     /**
-     * {@inheritDoc}
+     * Resolve gateway the device is collected from
      *
-     * @throws Exception
+     * @param deviceId id of the device
+     * @return gateway of the device, or the adapter host gateway if the device gateway is not known
+     * @since 1.1.4
      */
-    @Override
-    public void controlProperty(ControllableProperty controllableProperty) throws Exception {
-        String property = controllableProperty.getProperty();
-        Object value = controllableProperty.getValue();
-        String deviceId = controllableProperty.getDeviceId();
+    private SystemOnGateway resolveDeviceGateway(String deviceId) {
+        SystemOnGateway gateway = deviceId == null ? null : deviceGateways.get(deviceId);
+        return gateway != null ? gateway : resolveGateway(null);
+    }
 
-        if (logger.isDebugEnabled()) {
-            logger.debug("ShureSystemOn controlProperty property=" + property + " value=" + value +
-                    " deviceId=" + deviceId);
+    /**
+     * Resolve gateway by name
+     *
+     * @param name of the gateway
+     * @return gateway with the name provided, or the adapter host gateway if there's none
+     * @since 1.1.4
+     */
+    private SystemOnGateway resolveGateway(String name) {
+        List<SystemOnGateway> systemOnGateways = gateways;
+        for (SystemOnGateway gateway : systemOnGateways) {
+            if (gateway.getName().equals(name)) {
+                return gateway;
+            }
         }
-
-        doControl(property, value, deviceId);
+        return systemOnGateways.isEmpty() ? SystemOnGateway.primary(getHost(), getPort(), BASE_URL) : systemOnGateways.get(0);
     }
 
     /**
-     * {@inheritDoc}
+     * Refresh devices of the models which statistics refresh interval is shorter than {@link #deviceMetaDataRetrievalTimeout},
+     * while the general devices list retrieval is in cooldown. Only the models that have devices due for refresh are requested.
      *
-     * @throws Exception
+     * @param gateway to refresh devices of
+     * @since 1.1.4
+     * @throws Exception if any error occurs
      */
-    @Override
-    public List<AggregatedDevice> retrieveMultipleStatistics() throws Exception {
-        if (logger.isDebugEnabled()) {
-            logger.debug(String.format("Adapter initialized: %s, executorService exists: %s, serviceRunning: %s", isInitialized(), executorService != null, serviceRunning));
+    private void refreshDueModels(SystemOnGateway gateway) throws Exception {
+        if (isDevicesListSkipped(gateway)) {
+            return;
         }
-        if (executorService == null || executorService.isTerminated() || executorService.isShutdown()) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("Restarting executor service and initializing with the new data loader");
+        Set<String> requestedHardwareIds = compiledHardwareIdFilter.getIncludedValues();
+        long currentTimestamp = System.currentTimeMillis();
+        Set<String> dueModels = new TreeSet<>();
+        aggregatedDevices.forEach((deviceId, device) -> {
+            String deviceModel = device.getDeviceModel();
+            if (deviceModel != null && isGatewayDevice(deviceId, gateway) && deviceRefreshPolicy.getStatisticsRefreshInterval(deviceModel) < deviceMetaDataRetrievalTimeout
+                    && !requestedHardwareIds.contains(deviceId)
+                    && deviceRefreshPolicy.isRefreshDue(deviceId, deviceModel, currentTimestamp)) {
+                dueModels.add(deviceModel);
             }
-            // Due to the bug that after changing properties on fly - the adapter is destroyed but is not initialized properly afterwards,
-            // so executor service is not running. We need to make sure executorService exists
-            executorService = Executors.newFixedThreadPool(1);
-            executorService.submit(deviceDataLoader = new SystemOnDeviceDataLoader());
+        });
+        if (dueModels.isEmpty()) {
+            return;
         }
         if (logger.isDebugEnabled()) {
-            logger.debug(String.format("Aggregator Multiple statistics requested. Aggregated Devices collected so far: %s. Runner thread running: %s. Executor terminated: %s",
-                    aggregatedDevices.size(), serviceRunning, executorService.isTerminated()));
+            logger.debug(String.format("Refreshing Shure SystemOn devices of models %s, gateway '%s'", dueModels, gateway));
         }
+        fetchDevicesPages(gateway, String.join(",", dueModels), currentTimestamp);
+    }
 
-        long currentTimestamp = System.currentTimeMillis();
-        nextDevicesCollectionIterationTimestamp = currentTimestamp;
-        updateValidRetrieveStatisticsTimestamp();
+    /**
+     * Walk devices list page by page, {@link #deviceNumberPerPage} devices per page.
+     * Every device is mapped and merged into the cache as soon as it is read, so devices become available
+     * before the whole list is walked and only a single device payload is kept in memory
+     *
+     * @param gateway to retrieve devices from
+     * @param deviceModels CSV string of device models to retrieve, or null to retrieve all the devices
+     * @param currentTimestamp timestamp of the retrieval
+     * @return ids of the devices that are cached as a result
+     * @since 1.1.4
+     * @throws Exception if any error occurs
+     */
+    private Set<String> fetchDevicesPages(SystemOnGateway gateway, String deviceModels, long currentTimestamp) throws Exception {
+        Set<String> retrievedDeviceIds = new HashSet<>();
+        Set<String> listedHardwareIds = new HashSet<>();
+        for (int pageNumber = 1; ; pageNumber++) {
+            DevicesSnapshot page = fetchDevicesPage(gateway, pageNumber, deviceModels, payload -> {
+                String hardwareId = payload.getNode().path("hardwareId").asText();
+                String deviceModel = payload.getNode().path("model").asText();
+                if (!isListedDeviceAccepted(hardwareId, deviceModel)) {
+                    return null;
+                }
+                String modelName = deviceModelResolver.resolveModelName(payload.getNode());
+                if (modelName == null) {
+                    return null;
+                }
+                return applyDevicePayload(gateway, hardwareId, payload, modelName, deviceModel, currentTimestamp);
+            });
+            int pageSize = page.getHardwareIds().size();
+            if (pageSize == 0) {
+                break;
+            }
+            retrievedDeviceIds.addAll(page.getDeviceIds());
+            boolean newDevicesListed = listedHardwareIds.addAll(page.getHardwareIds());
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Retrieved page %s of Shure SystemOn devices: %s entries", pageNumber, pageSize));
+            }
+            // Last page is either incomplete, or the gateway does not support pagination and returns
+            // either the full list or the same page again - no need to go any further in these cases
+            if (pageSize < deviceNumberPerPage || pageSize > deviceNumberPerPage || !newDevicesListed) {
+                break;
+            }
+        }
+        return retrievedDeviceIds;
+    }
 
-        aggregatedDevices.values().forEach(aggregatedDevice -> aggregatedDevice.setTimestamp(currentTimestamp));
-        return new ArrayList<>(aggregatedDevices.values());
+    /**
+     * Fetch a single page of the devices list, based on device models and {@link #deviceNumberPerPage}
+     *
+     * @param gateway to retrieve devices from
+     * @param pageNumber number of the page to retrieve, starting with 1
+     * @param deviceModels CSV string of device models to retrieve, or null to retrieve all the devices
+     * @param deviceProcessor to process every device of the page, as soon as it is read. Returns id of the cached device, or null
+     * @return devices snapshot of the page
+     * @since 1.1.4
+     * @throws Exception if any error occurs
+     */
+    private DevicesSnapshot fetchDevicesPage(SystemOnGateway gateway, int pageNumber, String deviceModels, Function<DevicePayload, String> deviceProcessor) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        buildQueryStringFromCSV(builder, "deviceModels", deviceModels);
+        builder.append(builder.length() == 0 ? "?" : "")
+                .append(PAGE_NUMBER_PARAMETER).append("=").append(pageNumber).append("&")
+                .append(PAGE_SIZE_PARAMETER).append("=").append(deviceNumberPerPage);
+        return doConditionalGet(gateway.getBaseUri() + "/devices" + builder, deviceProcessor);
     }
 
     /**
-     * Retrieve devices information based on hardwareIds
+     * Perform conditional GET request for devices payload. If validators of the previous response are available,
+     * {@code If-None-Match}/{@code If-Modified-Since} headers are sent, and {@code 304 Not Modified} response is served
+     * from {@link #aggregatedDevices}, without any parsing or mapping.
+     * If some of the devices of the previous response are not cached anymore, or have properties refresh pending -
+     * the request is unconditional.
      *
-     * @param hardwareId to retrieve device for
-     * @since 1.1.3
+     * Concurrent requests for the same uri share a single request in flight and its result.
+     *
+     * @param uri to send request to
+     * @param deviceProcessor to process every device of the response. Returns id of the cached device, or null
+     * @return devices snapshot of the response
+     * @since 1.1.4
      * @throws Exception if any error occurs
-     * @throws DeviceRetrievalException if unable to find the device by hardwareId provided
      */
-    private void fetchDeviceByHardwareId(String hardwareId) throws Exception {
-        if (logger.isDebugEnabled()) {
-            logger.debug("Fetching device by hardwareId " + hardwareId);
-        }
-        JsonNode properties = doGet(BASE_URL + "/devices/" + hardwareId, JsonNode.class);
+    private DevicesSnapshot doConditionalGet(String uri, Function<DevicePayload, String> deviceProcessor) throws Exception {
+        return devicesRequests.execute(uri, () -> doSingleConditionalGet(uri, deviceProcessor));
+    }
 
-        AggregatedDevice aggregatedDevice = new AggregatedDevice();
-        JsonNode deviceModel = properties.get("model");
-        if (deviceModel == null || deviceModel.isNull()) {
-            aggregatedDevices.remove(hardwareId);
-            throw new DeviceRetrievalException(String.format("Unable to retrieve properties for device with hardwareId %s: No device model name available. Properties available: %s",
-                    hardwareId, properties));
+    /**
+     * Perform conditional GET request for devices payload, see {@link #doConditionalGet(String, Function)}
+     *
+     * @param uri to send request to
+     * @param deviceProcessor to process every device of the response. Returns id of the cached device, or null
+     * @return devices snapshot of the response
+     * @since 1.1.4
+     * @throws Exception if any error occurs
+     */
+    private DevicesSnapshot doSingleConditionalGet(String uri, Function<DevicePayload, String> deviceProcessor) throws Exception {
+        long currentTimestamp = System.currentTimeMillis();
+        DevicesSnapshot cachedSnapshot = retrieveValidCachedSnapshot(uri, currentTimestamp);
+        DevicesSnapshot snapshot = doStreamedGet(uri, response -> response.getStatusCode() == HttpStatus.NOT_MODIFIED ? null
+                : readDevicesResponse(uri, response.getHeaders(), response.getBody(), deviceProcessor));
+        if (snapshot != null) {
+            return snapshot;
         }
-        String deviceModelName = deviceModel.asText();
-        if (StringUtils.isNotNullOrEmpty(deviceModelFilter) && deviceModelFilter.contains(deviceModelName)) {
-            if (logger.isDebugEnabled()) {
-                logger.debug(String.format("Device with hardwareId '%s' was already retrieved by the model filter '%s'. Skipping.",
-                        hardwareId, deviceModelName));
+        return resolveNotModifiedResponse(uri, cachedSnapshot, currentTimestamp);
+    }
+
+    /**
+     * Perform conditional GET request for devices payload with the non-blocking client, see {@link #doConditionalGet(String, Function)}.
+     * Response is processed on the executor provided, so the client I/O threads are never blocked by the mapping.
+     *
+     * @param devicesClient to send the request with
+     * @param uri to send request to
+     * @param deviceProcessor to process every device of the response. Returns id of the cached device, or null
+     * @param devicesExecutor to process the response on
+     * @return future of the devices snapshot of the response
+     * @since 1.1.4
+     */
+    private CompletableFuture<DevicesSnapshot> doSingleConditionalGetAsync(AsyncDevicesClient devicesClient, String uri,
+                                                                           Function<DevicePayload, String> deviceProcessor, ExecutorService devicesExecutor) {
+        long currentTimestamp = System.currentTimeMillis();
+        DevicesSnapshot cachedSnapshot = retrieveValidCachedSnapshot(uri, currentTimestamp);
+        String requestUrl = buildRequestUrl(uri);
+        EndpointMetrics endpointMetrics = adapterMetrics.endpoint(resolveEndpointFamily(uri));
+        endpointMetrics.recordRequest();
+        long startTime = System.nanoTime();
+        return devicesClient.get(requestUrl, putExtraRequestHeaders(HttpMethod.GET, uri, new HttpHeaders())).handleAsync((response, error) -> {
+            if (error != null) {
+                endpointMetrics.recordError();
+                throw new CompletionException(new ResourceNotReachableException("Cannot reach resource at " + requestUrl, error));
             }
-            return;
+            endpointMetrics.recordLatency(System.nanoTime() - startTime);
+            try {
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode == HttpStatus.NOT_MODIFIED.value()) {
+                    return resolveNotModifiedResponse(uri, cachedSnapshot, currentTimestamp);
+                }
+                if (statusCode >= 400) {
+                    throw new CommandFailureException(getHost(), requestUrl, AsyncDevicesClient.readContent(response), statusCode);
+                }
+                HttpHeaders responseHeaders = new HttpHeaders();
+                for (Header header : response.getAllHeaders()) {
+                    responseHeaders.add(header.getName(), header.getValue());
+                }
+                return readDevicesResponse(uri, responseHeaders, AsyncDevicesClient.openContent(response), deviceProcessor);
+            } catch (Exception e) {
+                endpointMetrics.recordError();
+                throw new CompletionException(e);
+            }
+        }, devicesExecutor);
+    }
+
+    /**
+     * Retrieve devices snapshot of the previous response, if it can serve {@code 304 Not Modified} response.
+     * If some of the devices of the previous response are not cached anymore, or have properties refresh pending -
+     * validators of the uri are dropped, so the request is unconditional.
+     *
+     * @param uri of the request
+     * @param currentTimestamp current time, in milliseconds
+     * @return cached devices snapshot, or null if there is none, or it is not valid anymore
+     * @since 1.1.4
+     */
+    private DevicesSnapshot retrieveValidCachedSnapshot(String uri, long currentTimestamp) {
+        DevicesSnapshot cachedSnapshot = conditionalRequestCache.getSnapshot(uri);
+        if (cachedSnapshot != null && cachedSnapshot.getDeviceIds().stream().anyMatch(deviceId -> {
+            AggregatedDevice cachedDevice = aggregatedDevices.get(deviceId);
+            return cachedDevice == null || deviceRefreshPolicy.isPropertiesUpdatePending(deviceId, cachedDevice.getDeviceModel(), currentTimestamp);
+        })) {
+            conditionalRequestCache.invalidate(uri);
+            return null;
         }
-        aggregatedDeviceProcessor.applyProperties(aggregatedDevice, properties, deviceModel.asText());
-        String deviceId = aggregatedDevice.getDeviceId();
-        aggregatedDevice.setTimestamp(System.currentTimeMillis());
-        if (aggregatedDevices.containsKey(deviceId)) {
-            aggregatedDevices.get(deviceId).setDeviceOnline(aggregatedDevice.getDeviceOnline());
-        } else {
-            aggregatedDevices.put(deviceId, aggregatedDevice);
+        return cachedSnapshot;
+    }
+
+    /**
+     * Read devices of the response body one by one, process them and store validators of the response
+     *
+     * @param uri of the request
+     * @param responseHeaders headers of the response
+     * @param responseBody body of the response
+     * @param deviceProcessor to process every device of the response. Returns id of the cached device, or null
+     * @return devices snapshot of the response
+     * @since 1.1.4
+     * @throws IOException if the response body cannot be read
+     */
+    private DevicesSnapshot readDevicesResponse(String uri, HttpHeaders responseHeaders, InputStream responseBody,
+                                                Function<DevicePayload, String> deviceProcessor) throws IOException {
+        DevicesSnapshot responseSnapshot = new DevicesSnapshot();
+        CountingInputStream body = new CountingInputStream(responseBody);
+        long[] mappingTime = { 0 };
+        long readStartTime = System.nanoTime();
+        devicesStreamReader.readDevices(body, payload -> {
+            long mappingStartTime = System.nanoTime();
+            responseSnapshot.addDevice(payload.getNode().path("hardwareId").asText(), deviceProcessor.apply(payload));
+            long deviceMappingTime = System.nanoTime() - mappingStartTime;
+            adapterMetrics.recordMappingTime(deviceMappingTime);
+            mappingTime[0] += deviceMappingTime;
+        });
+        adapterMetrics.recordParseTime(System.nanoTime() - readStartTime - mappingTime[0]);
+        adapterMetrics.endpoint(resolveEndpointFamily(uri)).recordResponseBytes(body.getCount());
+        conditionalRequestCache.update(uri, responseHeaders, responseSnapshot);
+        return responseSnapshot;
+    }
+
+    /**
+     * Serve {@code 304 Not Modified} response from the devices snapshot of the previous response
+     *
+     * @param uri of the request
+     * @param cachedSnapshot devices snapshot of the previous response, null if the request was unconditional
+     * @param currentTimestamp time the request was sent at, in milliseconds
+     * @return cached devices snapshot
+     * @since 1.1.4
+     * @throws DeviceRetrievalException if there is no snapshot to serve the response from
+     */
+    private DevicesSnapshot resolveNotModifiedResponse(String uri, DevicesSnapshot cachedSnapshot, long currentTimestamp) {
+        if (cachedSnapshot == null) {
+            // Not expected, since no validators were sent, so there's nothing to serve the response from
+            throw new DeviceRetrievalException(String.format("Unexpected 304 Not Modified response for unconditional request '%s'", uri));
         }
         if (logger.isDebugEnabled()) {
-            logger.debug(String.format("Updated/Retrieved Shure SystemOn device with hardwareId '%s'", hardwareId));
+            logger.debug(String.format("Shure SystemOn response for '%s' is not modified, using cached devices %s", uri, cachedSnapshot.getDeviceIds()));
         }
+        cachedSnapshot.getDeviceIds().forEach(deviceId -> deviceRefreshPolicy.registerUnchanged(deviceId, currentTimestamp));
+        return cachedSnapshot;
     }
 
     /**
-     * Fetch full devices list, or list of devices based on {@link #deviceModelFilter}
+     * Add device to {@link #aggregatedDevices}, or, if the device is already cached, apply changed
+     * values to the cached device instance in place.
      *
-     * @since 1.1.3
-     * @throws Exception if any error occurs
+     * @param deviceId id of the device
+     * @param device freshly mapped device
+     * @since 1.1.4
      */
-    private void fetchDevicesList() throws Exception {
-        long currentTimestamp = System.currentTimeMillis();
-        if (aggregatedDevices.size() > 0 && validDeviceMetaDataRetrievalPeriodTimestamp > currentTimestamp) {
-            if (logger.isDebugEnabled()) {
-                logger.debug(String.format("General devices metadata retrieval is in cooldown. %s seconds left",
-                        (validDeviceMetaDataRetrievalPeriodTimestamp - currentTimestamp) / 1000));
-            }
+    private void updateCachedDevice(String deviceId, AggregatedDevice device) {
+        if (!aggregatedDevices.containsKey(deviceId)) {
+            device.setProperties(compactPropertyStore.compact(device.getDeviceModel(), device.getProperties()));
+        }
+        AggregatedDevice cachedDevice = aggregatedDevices.putIfAbsent(deviceId, device);
+        if (cachedDevice == null) {
+            controllablePropertiesIndex.index(deviceId, device);
             return;
         }
-        if (StringUtils.isNotNullOrEmpty(hardwareIdFilter) && StringUtils.isNullOrEmpty(deviceModelFilter)) {
-            // remove devices that are supposed to be filtered out now
-            aggregatedDevices.keySet().removeIf(existingDevice -> hardwareIdFilter.contains(existingDevice));
-            if (logger.isDebugEnabled()) {
-                logger.debug(String.format("Skipping unfiltered devices search, hardwareIdFilter is provided: '%s'", hardwareIdFilter));
+        synchronized (cachedDevice) {
+            if (aggregatedDeviceMerger.merge(cachedDevice, device)) {
+                controllablePropertiesIndex.index(deviceId, cachedDevice);
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format("Applied changes to the cached Shure SystemOn device with id '%s'", deviceId));
+                }
             }
-            return;
         }
-        // Clear latest errors because devices are retrieved from scratch now. This would only happen if hardwareIdFilter is not active.
-        latestErrors.clear();
+    }
 
-        validDeviceMetaDataRetrievalPeriodTimestamp = currentTimestamp + deviceMetaDataRetrievalTimeout;
-        StringBuilder builder = new StringBuilder();
-        buildQueryStringFromCSV(builder, "deviceModels", deviceModelFilter);
-        JsonNode properties = doGet(BASE_URL + "/devices" + builder, JsonNode.class);
+    /**
+     * Check whether device payload is the same as the one the cached device was mapped from,
+     * so the mapping can be skipped.
+     *
+     * @param hardwareId of the device
+     * @param payloadHash hash of the device payload retrieved
+     * @return true if the device is cached and its payload is not changed, false otherwise
+     * @since 1.1.4
+     */
+    private boolean isPayloadUnchanged(String hardwareId, long payloadHash) {
+        Long cachedPayloadHash = devicePayloadHashes.get(hardwareId);
+        return cachedPayloadHash != null && cachedPayloadHash == payloadHash && aggregatedDevices.containsKey(hardwareId);
+    }
 
-        List<String> retrievedDeviceIds = new ArrayList<>();
-        List<AggregatedDevice> statistics = aggregatedDeviceProcessor.extractDevices(properties);
+    /**
+     * Collect names of the properties that devices of the model may have: mapped properties and the ones
+     * the adapter adds, so that the model schema of {@link #compactPropertyStore} does not depend on the first device.
+     *
+     * @param mapping model mapping
+     * @return names of the device properties
+     * @since 1.1.4
+     */
+    private Set<String> createPropertyNames(PropertiesMapping mapping) {
+        Set<String> propertyNames = new HashSet<>();
+        if (mapping.getProperties() != null) {
+            propertyNames.addAll(mapping.getProperties().keySet());
+        }
+        propertyNames.add(DEVICE_DATA_STALE_PROPERTY);
+        propertyNames.add(GATEWAY_PROPERTY);
+        return propertyNames;
+    }
 
-        statistics.forEach(device -> {
-            String deviceId = device.getDeviceId();
-            device.setTimestamp(currentTimestamp);
-            retrievedDeviceIds.add(deviceId);
-            if (aggregatedDevices.containsKey(deviceId)) {
-                aggregatedDevices.get(deviceId).setDeviceOnline(device.getDeviceOnline());
-            } else {
-                aggregatedDevices.put(deviceId, device);
+    /**
+     * Create model mapping for the statistics refresh: statistics, dynamic statistics and controls are kept as is,
+     * properties are limited to the ones that back controllable properties and {@link #frequentlyRefreshedProperties},
+     * device properties are limited to the device id and online status.
+     *
+     * @param models full model mapping
+     * @return model mapping for the statistics refresh
+     * @since 1.1.4
+     */
+    private Map<String, PropertiesMapping> createStatisticsModels(Map<String, PropertiesMapping> models) {
+        Set<String> refreshedProperties = new HashSet<>();
+        if (StringUtils.isNotNullOrEmpty(frequentlyRefreshedProperties)) {
+            Arrays.stream(frequentlyRefreshedProperties.split(",")).map(String::trim).forEach(refreshedProperties::add);
+        }
+        Map<String, PropertiesMapping> statisticsModels = new HashMap<>();
+        models.forEach((name, mapping) -> {
+            Map<String, String> properties = new HashMap<>();
+            if (mapping.getProperties() != null) {
+                mapping.getProperties().forEach((key, value) -> {
+                    if (refreshedProperties.contains(key) || (mapping.getControlProperties() != null && mapping.getControlProperties().containsKey(key))) {
+                        properties.put(key, value);
+                    }
+                });
+            }
+            Map<String, String> deviceProperties = new HashMap<>();
+            if (mapping.getDeviceProperties() != null) {
+                mapping.getDeviceProperties().forEach((key, value) -> {
+                    if (DEVICE_ID_PROPERTY.equals(key) || DEVICE_ONLINE_PROPERTY.equals(key)) {
+                        deviceProperties.put(key, value);
+                    }
+                });
             }
+            statisticsModels.put(name, new PropertiesMapping(mapping.getNode(), mapping.getFilter(), properties, mapping.getStatistics(),
+                    mapping.getDynamicStatistics(), deviceProperties, mapping.getControlProperties()));
         });
+        return statisticsModels;
+    }
 
-        if (logger.isDebugEnabled()) {
-            logger.debug("Updated Shure SystemOn devices metadata: " + aggregatedDevices);
+    /**
+     * Perform GET request and process response body as a stream, so the payload is not
+     * materialized as a whole.
+     *
+     * @param uri to send request to
+     * @param responseExtractor to process the response with
+     * @param <T> type of the result
+     * @return result of the response processing
+     * @since 1.1.4
+     * @throws Exception if any error occurs
+     */
+    private <T> T doStreamedGet(String uri, ResponseExtractor<T> responseExtractor) throws Exception {
+        String requestUrl = buildRequestUrl(uri);
+        EndpointMetrics endpointMetrics = adapterMetrics.endpoint(resolveEndpointFamily(uri));
+        endpointMetrics.recordRequest();
+        long startTime = System.nanoTime();
+        try {
+            return obtainRestTemplate().execute(requestUrl, HttpMethod.GET,
+                    request -> putExtraRequestHeaders(HttpMethod.GET, uri, request.getHeaders()), response -> {
+                        endpointMetrics.recordLatency(System.nanoTime() - startTime);
+                        return responseExtractor.extractData(response);
+                    });
+        } catch (HttpStatusCodeException e) {
+            endpointMetrics.recordError();
+            throw new CommandFailureException(getHost(), requestUrl, e.getResponseBodyAsString(), e.getRawStatusCode(), e);
+        } catch (ResourceAccessException e) {
+            endpointMetrics.recordError();
+            throw new ResourceNotReachableException("Cannot reach resource at " + requestUrl, e);
+        } catch (RuntimeException e) {
+            endpointMetrics.recordError();
+            throw e;
         }
-        // Remove devices that were not populated by the API and are not a part of hardwareIdFilter,
-        // so they won't be retrieved later and were not retrieved by the filtered approach
-        aggregatedDevices.keySet().removeIf(existingDevice -> !retrievedDeviceIds.contains(existingDevice)
-        && !hardwareIdFilter.contains(existingDevice));
+    }
 
-        if (statistics.isEmpty() && StringUtils.isNullOrEmpty(hardwareIdFilter)) {
-            // If all the devices were not populated for any specific reason (no devices available, filtering, etc)
-            aggregatedDevices.clear();
+    /**
+     * Perform request and record its metrics under the endpoint family provided
+     *
+     * @param endpointFamily name of the endpoint family
+     * @param request to perform
+     * @param <T> type of the result
+     * @return result of the request
+     * @since 1.1.4
+     * @throws Exception if any error occurs
+     */
+    private <T> T doMeasuredRequest(String endpointFamily, Callable<T> request) throws Exception {
+        EndpointMetrics endpointMetrics = adapterMetrics.endpoint(endpointFamily);
+        endpointMetrics.recordRequest();
+        long startTime = System.nanoTime();
+        try {
+            return request.call();
+        } catch (Exception e) {
+            endpointMetrics.recordError();
+            throw e;
+        } finally {
+            endpointMetrics.recordLatency(System.nanoTime() - startTime);
         }
+    }
+
+    /**
+     * Resolve metrics endpoint family of the devices retrieval request
+     *
+     * @param uri of the request
+     * @return DeviceByHardwareId for the single device requests, DevicesList otherwise
+     * @since 1.1.4
+     */
+    private String resolveEndpointFamily(String uri) {
+        return uri.contains(BASE_URL + "/devices/") ? "DeviceByHardwareId" : "DevicesList";
+    }
 
-        nextDevicesCollectionIterationTimestamp = System.currentTimeMillis();
+    /**
+     * Build full request url for the uri provided
+     *
+     * @param uri relative request uri, or full request url of an additional gateway
+     * @return full request url
+     * @since 1.1.4
+     */
+    private String buildRequestUrl(String uri) {
+        if (uri.indexOf("://") > 0) {
+            return uri;
+        }
+        String host = getHost();
+        if (host.indexOf(':') >= 0) {
+            host = "[" + host + "]";
+        }
+        return String.format("%s://%s:%s/%s", getProtocol(), host, getPort(), uri);
     }
 
     /**
@@ -624,11 +2669,13 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
     }
 
     /**
-     * Add authorization and content-type headers for requests
+     * Add authorization, content-type and content encoding headers for requests.
+     * Device payloads are highly repetitive json, so gzip responses are requested, these are decompressed as a stream.
      */
     @Override
     protected HttpHeaders putExtraRequestHeaders(HttpMethod httpMethod, String uri, HttpHeaders headers) {
         headers.set("accept", "application/json");
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
         String apiKey = getPassword();
         if (apiKey != null && !apiKey.isEmpty()) {
             headers.set("Authorization", apiKey);
@@ -636,6 +2683,8 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
 
         if (!httpMethod.equals(HttpMethod.GET)) {
             headers.set("Content-Type", "application/json");
+        } else {
+            conditionalRequestCache.applyValidators(uri, headers);
         }
 
         return headers;
@@ -645,11 +2694,71 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      * According to Shure SystemOn API documentation: DeviceAuthentication API section
      * Initialize Shure networked device /api/v1.0/devices/{hardwareId}/initialize
      * It need do before call any control API. In other cases API return error
+     * Concurrent initialization requests for the same device share a single request in flight.
      *
      * @param deviceId Shure device ID
      */
     private void initShureDevice(String deviceId) throws Exception {
-        doPost(String.format(BASE_URL + "/devices/%s/initialize", deviceId), null);
+        String uri = deviceUri(deviceId, "/initialize");
+        try {
+            initializationRequests.execute(uri, () -> doMeasuredRequest("DeviceInitialization", () -> doPost(uri, null)));
+        } catch (Exception e) {
+            deviceInitializationCache.registerFailure(deviceId, System.currentTimeMillis());
+            throw e;
+        }
+        deviceInitializationCache.registerInitialized(deviceId, System.currentTimeMillis());
+    }
+
+    /**
+     * Build uri of the device endpoint, on the gateway the device is collected from
+     *
+     * @param deviceId id of the device
+     * @param path endpoint path, relative to the device uri
+     * @return device endpoint uri
+     * @since 1.1.4
+     */
+    private String deviceUri(String deviceId, String path) {
+        return resolveDeviceGateway(deviceId).getBaseUri() + "/devices/" + deviceId + path;
+    }
+
+    /**
+     * Initialize devices that have controllable properties in advance, in the background, so the first control
+     * of the device does not wait for the initialization. Devices which initialization failed recently are skipped.
+     * Initializations run on {@link #initializationExecutorService}, up to {@link #maxConcurrentDeviceInitializations}
+     * at a time, and are skipped if the device was initialized by a control command while queued.
+     *
+     * @since 1.1.4
+     */
+    private void initializeDevicesInAdvance() {
+        ExecutorService initializationExecutor = initializationExecutorService;
+        if (!proactiveDeviceInitialization || initializationExecutor == null) {
+            return;
+        }
+        long currentTimestamp = System.currentTimeMillis();
+        aggregatedDevices.forEach((deviceId, device) -> {
+            if (CollectionUtils.isEmpty(device.getControllableProperties()) || !deviceInitializationCache.isInitializationDue(deviceId, currentTimestamp)
+                    || !pendingDeviceInitializations.add(deviceId)) {
+                return;
+            }
+            try {
+                initializationExecutor.execute(() -> {
+                    try {
+                        if (deviceInitializationCache.isInitializationDue(deviceId, System.currentTimeMillis())) {
+                            initShureDevice(deviceId);
+                        }
+                    } catch (Exception e) {
+                        if (logger.isDebugEnabled()) {
+                            logger.debug(String.format("Unable to initialize device with id '%s' in advance: %s", deviceId, e.getMessage()));
+                        }
+                    } finally {
+                        pendingDeviceInitializations.remove(deviceId);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Adapter is destroyed, devices are initialized before the control then
+                pendingDeviceInitializations.remove(deviceId);
+            }
+        });
     }
 
     /**
@@ -675,35 +2784,30 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      * @throws Exception
      */
     private void automixerBypass(String deviceId) throws Exception {
-        try {
-            doPut(String.format(BASE_URL + "/devices/%s/automixer/bypass", deviceId), null, JsonNode.class);
-        } catch (CommandFailureException e) {
-            checkResponseCode(deviceId, e.getResponse(), "BypassAllEq", false);
-        }
+        doMeasuredRequest("ControlBypassAllEq", () -> doPut(deviceUri(deviceId, "/automixer/bypass"), null, JsonNode.class));
     }
 
     /**
-     * Check response code retrieved during control operations
+     * Check whether the control request failed because the device is not initialized
      *
-     * @param deviceId that the controllable property was triggered for
      * @param response received from the API
-     * @param controlName that was triggered
-     * @param value that controllable property was set to
+     * @return true if the response has {@link #ERROR_CODE} code, false otherwise
      * @throws Exception if any error occurs
      */
-    private void checkResponseCode(String deviceId, String response, String controlName, boolean value) throws Exception {
-        if (response != null) {
-            JsonNode node = new ObjectMapper().readTree(response);
-            String responseCode = findPath(node, "code");
-            if (responseCode != null && responseCode.equals(ERROR_CODE)) {
-                initShureDevice(deviceId);
-                doControl(controlName, value, deviceId);
-            }
+    private boolean isDeviceNotInitialized(String response) throws Exception {
+        // Most of the error responses are not related to the initialization, these are not parsed
+        if (response == null || !response.contains(ERROR_CODE)) {
+            return false;
         }
+        String responseCode = findPath(objectMapper.readTree(response), "code");
+        return ERROR_CODE.equals(responseCode);
     }
 
     /**
-     * Control device based on the control activated (by name)
+     * Control device based on the control activated (by name).
+     * The control is sent right away, the device is only initialized if the gateway reports it is not initialized,
+     * and the control is retried after the initialization up to {@link #MAX_CONTROL_INITIALIZATION_RETRIES} times.
+     * Local value of the controllable property is updated only after the control is accepted by the gateway.
      *
      * @param controlName name of the controllable property
      * @param value new value for the controllable property
@@ -711,7 +2815,37 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      * @throws Exception if any error occurs
      */
     private void doControl(String controlName, Object value, String deviceId) throws Exception {
-        boolean controlActivated = true;
+        if (!SUPPORTED_CONTROLS.contains(controlName)) {
+            return;
+        }
+        for (int attempt = 0; ; attempt++) {
+            try {
+                sendControl(controlName, value, deviceId);
+                break;
+            } catch (CommandFailureException e) {
+                if (!isDeviceNotInitialized(e.getResponse())) {
+                    throw e;
+                }
+                deviceInitializationCache.invalidate(deviceId);
+                if (attempt >= MAX_CONTROL_INITIALIZATION_RETRIES) {
+                    throw e;
+                }
+                initShureDevice(deviceId);
+            }
+        }
+        updateLocalControllableProperty(deviceId, controlName, value);
+    }
+
+    /**
+     * Send control command to device, based on the control activated (by name)
+     *
+     * @param controlName name of the controllable property, one of {@link #SUPPORTED_CONTROLS}
+     * @param value new value for the controllable property
+     * @param deviceId device id for which the controllable property was activated
+     * @throws Exception if any error occurs
+     * @since 1.1.4
+     */
+    private void sendControl(String controlName, Object value, String deviceId) throws Exception {
         switch (controlName) {
             case "BypassAllEq":
                 automixerBypass(deviceId);
@@ -729,12 +2863,8 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
                 defaultsReset(deviceId);
                 break;
             default:
-                controlActivated = false;
                 break;
         }
-        if (controlActivated) {
-            updateLocalControllableProperty(deviceId, controlName, value);
-        }
     }
 
     /**
@@ -746,12 +2876,7 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      */
     private void mute(String deviceId, boolean value) throws Exception {
         String body = String.format("{ \"muteState\": \"%s\" }", value);
-        try {
-            doPatch(String.format(BASE_URL + "/devices/%s/audio/mute", deviceId), body, JsonNode.class);
-        } catch (CommandFailureException e) {
-            checkResponseCode(deviceId, e.getResponse(), "Mute", value);
-        }
-
+        doMeasuredRequest("ControlMute", () -> doPatch(deviceUri(deviceId, "/audio/mute"), body, JsonNode.class));
     }
 
     /**
@@ -768,11 +2893,7 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
         } else {
             state = "disable";
         }
-        try {
-            doPatch(String.format(BASE_URL + "/devices/%s/encryption/audio/%s", deviceId, state), null, JsonNode.class);
-        } catch (CommandFailureException e) {
-            checkResponseCode(deviceId, e.getResponse(), "DanteEncryption", value);
-        }
+        doMeasuredRequest("ControlDanteEncryption", () -> doPatch(deviceUri(deviceId, "/encryption/audio/" + state), null, JsonNode.class));
     }
 
     /**
@@ -782,11 +2903,7 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      * @throws Exception
      */
     private void reboot(String deviceId) throws Exception {
-        try {
-            doPost(String.format(BASE_URL + "/devices/%s/maintenance/reboot", deviceId), null, JsonNode.class);
-        } catch (CommandFailureException e) {
-            checkResponseCode(deviceId, e.getResponse(), "Reboot", false);
-        }
+        doMeasuredRequest("ControlReboot", () -> doPost(deviceUri(deviceId, "/maintenance/reboot"), null, JsonNode.class));
     }
 
     /**
@@ -796,11 +2913,7 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      * @throws Exception
      */
     private void defaultsReset(String deviceId) throws Exception {
-        try {
-            doPost(String.format(BASE_URL + "/devices/%s/maintenance/defaultsreset", deviceId), null, JsonNode.class);
-        } catch (CommandFailureException e) {
-            checkResponseCode(deviceId, e.getResponse(), "Reset", false);
-        }
+        doMeasuredRequest("ControlReset", () -> doPost(deviceUri(deviceId, "/maintenance/defaultsreset"), null, JsonNode.class));
     }
 
     /**
@@ -829,9 +2942,19 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
      * @since 1.1.3
      */
     private void updateLocalControllableProperty(String deviceId, String name, Object value){
-        aggregatedDevices.get(deviceId).getControllableProperties().stream().filter(advancedControllableProperty ->
-                advancedControllableProperty.getName().equals(name)).findAny()
-                .ifPresent(advancedControllableProperty -> advancedControllableProperty.setValue(value));
+        AggregatedDevice cachedDevice = aggregatedDevices.get(deviceId);
+        if (cachedDevice == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Device with id '%s' is not cached, skipping local update of controllable property '%s'", deviceId, name));
+            }
+            return;
+        }
+        synchronized (cachedDevice) {
+            AdvancedControllableProperty advancedControllableProperty = controllablePropertiesIndex.get(deviceId, name);
+            if (advancedControllableProperty != null) {
+                advancedControllableProperty.setValue(value);
+            }
+        }
     }
 
     /**
@@ -906,22 +3029,4 @@ public class ShureSystemOn extends RestCommunicator implements Aggregator, Monit
         }
         return resultMessage;
     }
-
-    /**
-     * Calculates optimal average number of threads necessary for data retrieval,
-     * only relevant for retrieving data based on {@link #hardwareIdFilter}
-     *
-     * @param basis number to retrieve end number of threads based on
-     * @return numeric value of optimal number of threads
-     * @since 1.1.3
-     */
-    private int getTargetThreadsNumber(int basis) {
-        int max = 1;
-        for (int i = 1; i < 10; i++) {
-            if (basis % i == 0) {
-                max = i;
-            }
-        }
-        return max;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import com.avispl.symphony.api.dal.dto.control.AdvancedControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies freshly mapped device data to the cached {@link AggregatedDevice} instance in place.
+ * Only the values that did change are updated, existing device, maps and controllable properties
+ * instances are kept.
+ * Cached devices are guarded by their own monitor: merges hold it while the device is updated, and
+ * {@link #copy(AggregatedDevice)} holds it while the device is copied, so cached devices are never handed over
+ * to Symphony, or stored, while these are updated. In-place updates of the cached devices made elsewhere
+ * must hold the device monitor as well.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class AggregatedDeviceMerger {
+
+    /**
+     * Merge device data into the cached device
+     *
+     * @param cachedDevice device instance to update
+     * @param device freshly mapped device data
+     * @return true if any of the cached device values changed, false otherwise
+     */
+    public boolean merge(AggregatedDevice cachedDevice, AggregatedDevice device) {
+        synchronized (cachedDevice) {
+            return mergeDevice(cachedDevice, device);
+        }
+    }
+
+    /**
+     * Merge statistics tier of the device data into the cached device: online status, statistics, controls and
+     * the properties that are present in the device data. Other cached device properties are kept as is.
+     *
+     * @param cachedDevice device instance to update
+     * @param device device data, mapped for the statistics tier only
+     * @return true if any of the cached device values changed, false otherwise
+     */
+    public boolean mergeStatistics(AggregatedDevice cachedDevice, AggregatedDevice device) {
+        synchronized (cachedDevice) {
+            return mergeDeviceStatistics(cachedDevice, device);
+        }
+    }
+
+    /**
+     * Create a copy of the cached device, that shares no maps, lists or controllable properties with it.
+     * Maps and lists of the copy are immutable, so the copy is a consistent snapshot of the cached device,
+     * which properties are {@link CompactProperties} updated in place.
+     *
+     * @param cachedDevice device instance to copy
+     * @return copy of the device
+     */
+    public AggregatedDevice copy(AggregatedDevice cachedDevice) {
+        AggregatedDevice device = new AggregatedDevice();
+        synchronized (cachedDevice) {
+            device.setDeviceId(cachedDevice.getDeviceId());
+            device.setDeviceName(cachedDevice.getDeviceName());
+            LegacyDeviceFields.setDeviceType(device, LegacyDeviceFields.getDeviceType(cachedDevice));
+            device.setCategory(cachedDevice.getCategory());
+            device.setType(cachedDevice.getType());
+            device.setDeviceMake(cachedDevice.getDeviceMake());
+            device.setDeviceModel(cachedDevice.getDeviceModel());
+            device.setDeviceOnline(cachedDevice.getDeviceOnline());
+            device.setSerialNumber(cachedDevice.getSerialNumber());
+            device.setAviSplAssetId(cachedDevice.getAviSplAssetId());
+            device.setOwnerAssetId(cachedDevice.getOwnerAssetId());
+            device.setTimestamp(cachedDevice.getTimestamp());
+            device.setMacAddresses(copyList(cachedDevice.getMacAddresses()));
+            device.setProperties(copyMap(cachedDevice.getProperties()));
+            LegacyDeviceFields.setStatistics(device, copyMap(LegacyDeviceFields.getStatistics(cachedDevice)));
+            device.setDynamicStatistics(copyMap(cachedDevice.getDynamicStatistics()));
+            device.setMonitoredStatistics(copyList(cachedDevice.getMonitoredStatistics()));
+            LegacyDeviceFields.setControl(device, copyMap(LegacyDeviceFields.getControl(cachedDevice)));
+            device.setControllableProperties(copyControllableProperties(cachedDevice.getControllableProperties()));
+        }
+        return device;
+    }
+
+    /**
+     * Merge device data into the cached device, while holding the cached device monitor
+     *
+     * @param cachedDevice device instance to update
+     * @param device freshly mapped device data
+     * @return true if any of the cached device values changed, false otherwise
+     */
+    private boolean mergeDevice(AggregatedDevice cachedDevice, AggregatedDevice device) {
+        boolean changed = false;
+        if (!Objects.equals(cachedDevice.getDeviceName(), device.getDeviceName())) {
+            cachedDevice.setDeviceName(device.getDeviceName());
+            changed = true;
+        }
+        if (!Objects.equals(LegacyDeviceFields.getDeviceType(cachedDevice), LegacyDeviceFields.getDeviceType(device))) {
+            LegacyDeviceFields.setDeviceType(cachedDevice, LegacyDeviceFields.getDeviceType(device));
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getCategory(), device.getCategory())) {
+            cachedDevice.setCategory(device.getCategory());
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getType(), device.getType())) {
+            cachedDevice.setType(device.getType());
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getDeviceMake(), device.getDeviceMake())) {
+            cachedDevice.setDeviceMake(device.getDeviceMake());
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getDeviceModel(), device.getDeviceModel())) {
+            cachedDevice.setDeviceModel(device.getDeviceModel());
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getDeviceOnline(), device.getDeviceOnline())) {
+            cachedDevice.setDeviceOnline(device.getDeviceOnline());
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getSerialNumber(), device.getSerialNumber())) {
+            cachedDevice.setSerialNumber(device.getSerialNumber());
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getMacAddresses(), device.getMacAddresses())) {
+            cachedDevice.setMacAddresses(device.getMacAddresses());
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getAviSplAssetId(), device.getAviSplAssetId())) {
+            cachedDevice.setAviSplAssetId(device.getAviSplAssetId());
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getOwnerAssetId(), device.getOwnerAssetId())) {
+            cachedDevice.setOwnerAssetId(device.getOwnerAssetId());
+            changed = true;
+        }
+        if (!Objects.equals(cachedDevice.getMonitoredStatistics(), device.getMonitoredStatistics())) {
+            cachedDevice.setMonitoredStatistics(device.getMonitoredStatistics());
+            changed = true;
+        }
+        if (cachedDevice.getProperties() == null) {
+            cachedDevice.setProperties(device.getProperties());
+            changed = true;
+        } else {
+            changed |= mergeMap(cachedDevice.getProperties(), device.getProperties());
+        }
+        return mergeDynamicData(cachedDevice, device) || changed;
+    }
+
+    /**
+     * Merge statistics tier of the device data into the cached device, while holding the cached device monitor
+     *
+     * @param cachedDevice device instance to update
+     * @param device device data, mapped for the statistics tier only
+     * @return true if any of the cached device values changed, false otherwise
+     */
+    private boolean mergeDeviceStatistics(AggregatedDevice cachedDevice, AggregatedDevice device) {
+        boolean changed = false;
+        if (!Objects.equals(cachedDevice.getDeviceOnline(), device.getDeviceOnline())) {
+            cachedDevice.setDeviceOnline(device.getDeviceOnline());
+            changed = true;
+        }
+        if (cachedDevice.getProperties() == null) {
+            cachedDevice.setProperties(device.getProperties());
+            changed = true;
+        } else if (device.getProperties() != null) {
+            changed |= mergeMapEntries(cachedDevice.getProperties(), device.getProperties());
+        }
+        return mergeDynamicData(cachedDevice, device) || changed;
+    }
+
+    /**
+     * Merge timestamp, statistics and controls of the device data into the cached device
+     *
+     * @param cachedDevice device instance to update
+     * @param device freshly mapped device data
+     * @return true if any of the cached device values changed, false otherwise
+     */
+    private boolean mergeDynamicData(AggregatedDevice cachedDevice, AggregatedDevice device) {
+        if (device.getTimestamp() != null) {
+            // Timestamp is refreshed with every device data retrieved, it does not count as a change
+            cachedDevice.setTimestamp(device.getTimestamp());
+        }
+        boolean changed = false;
+        Map<String, String> cachedStatistics = LegacyDeviceFields.getStatistics(cachedDevice);
+        if (cachedStatistics == null) {
+            LegacyDeviceFields.setStatistics(cachedDevice, LegacyDeviceFields.getStatistics(device));
+            changed = true;
+        } else {
+            changed |= mergeMap(cachedStatistics, LegacyDeviceFields.getStatistics(device));
+        }
+        if (cachedDevice.getDynamicStatistics() == null) {
+            cachedDevice.setDynamicStatistics(device.getDynamicStatistics());
+            changed = true;
+        } else {
+            changed |= mergeMap(cachedDevice.getDynamicStatistics(), device.getDynamicStatistics());
+        }
+        Map<String, String> cachedControl = LegacyDeviceFields.getControl(cachedDevice);
+        if (cachedControl == null) {
+            LegacyDeviceFields.setControl(cachedDevice, LegacyDeviceFields.getControl(device));
+            changed = true;
+        } else {
+            changed |= mergeMap(cachedControl, LegacyDeviceFields.getControl(device));
+        }
+        if (cachedDevice.getControllableProperties() == null) {
+            cachedDevice.setControllableProperties(device.getControllableProperties());
+            changed = true;
+        } else {
+            changed |= mergeControllableProperties(cachedDevice.getControllableProperties(), device.getControllableProperties());
+        }
+        return changed;
+    }
+
+    /**
+     * Put source map entries to the target map, if the values differ. Entries that are not present
+     * in the source map are kept.
+     *
+     * @param target map to update
+     * @param source map to take values from
+     * @return true if the target map changed, false otherwise
+     */
+    private boolean mergeMapEntries(Map<String, String> target, Map<String, String> source) {
+        boolean changed = false;
+        for (Map.Entry<String, String> entry : source.entrySet()) {
+            if (!Objects.equals(target.get(entry.getKey()), entry.getValue())) {
+                target.put(entry.getKey(), entry.getValue());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Update target map so it has the same content as the source map
+     *
+     * @param target map to update
+     * @param source map to take values from
+     * @return true if the target map changed, false otherwise
+     */
+    private boolean mergeMap(Map<String, String> target, Map<String, String> source) {
+        if (source == null) {
+            boolean changed = !target.isEmpty();
+            target.clear();
+            return changed;
+        }
+        boolean changed = target.keySet().retainAll(source.keySet());
+        return mergeMapEntries(target, source) || changed;
+    }
+
+    /**
+     * Update target controllable properties so they have the same names, types and values as the source ones
+     *
+     * @param target controllable properties to update
+     * @param source controllable properties to take values from
+     * @return true if the target controllable properties changed, false otherwise
+     */
+    private boolean mergeControllableProperties(List<AdvancedControllableProperty> target, List<AdvancedControllableProperty> source) {
+        if (source == null) {
+            boolean changed = !target.isEmpty();
+            target.clear();
+            return changed;
+        }
+        Map<String, AdvancedControllableProperty> sourceProperties = new HashMap<>();
+        source.forEach(property -> sourceProperties.put(property.getName(), property));
+
+        boolean changed = target.removeIf(property -> !sourceProperties.containsKey(property.getName()));
+        Map<String, AdvancedControllableProperty> targetProperties = new HashMap<>();
+        target.forEach(property -> targetProperties.put(property.getName(), property));
+
+        for (AdvancedControllableProperty property : source) {
+            AdvancedControllableProperty targetProperty = targetProperties.get(property.getName());
+            if (targetProperty == null) {
+                target.add(property);
+                changed = true;
+            } else if (!isSameType(targetProperty.getType(), property.getType())) {
+                target.set(target.indexOf(targetProperty), property);
+                changed = true;
+            } else if (!Objects.equals(targetProperty.getValue(), property.getValue())) {
+                targetProperty.setValue(property.getValue());
+                targetProperty.setTimestamp(property.getTimestamp());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Copy nullable map
+     *
+     * @param map to copy
+     * @return immutable copy of the map, or null
+     */
+    private Map<String, String> copyMap(Map<String, String> map) {
+        return map == null ? null : Collections.unmodifiableMap(new HashMap<>(map));
+    }
+
+    /**
+     * Copy nullable list
+     *
+     * @param list to copy
+     * @param <T> type of the list elements
+     * @return immutable copy of the list, or null
+     */
+    private <T> List<T> copyList(List<T> list) {
+        return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    /**
+     * Copy controllable properties, values of the cached ones are updated in place, types are shared
+     *
+     * @param controllableProperties to copy
+     * @return immutable list of the controllable properties copies, or null
+     */
+    private List<AdvancedControllableProperty> copyControllableProperties(List<AdvancedControllableProperty> controllableProperties) {
+        if (controllableProperties == null) {
+            return null;
+        }
+        List<AdvancedControllableProperty> copies = new ArrayList<>(controllableProperties.size());
+        for (AdvancedControllableProperty property : controllableProperties) {
+            copies.add(new AdvancedControllableProperty(property.getName(), property.getTimestamp(), property.getType(), property.getValue()));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    /**
+     * Controllable property types do not implement equals, so types are compared by class and textual representation
+     *
+     * @param type first type to compare
+     * @param otherType second type to compare
+     * @return true if both types are of the same class and have the same configuration
+     */
+    private boolean isSameType(AdvancedControllableProperty.ControllableType type, AdvancedControllableProperty.ControllableType otherType) {
+        if (type == null || otherType == null) {
+            return type == otherType;
+        }
+        return type.getClass() == otherType.getClass() && Objects.equals(type.toString(), otherType.toString());
+    }
+}
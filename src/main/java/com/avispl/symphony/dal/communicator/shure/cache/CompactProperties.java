@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Device properties map, that keeps property names in the model {@link CompactPropertyStore.PropertyKeys} schema,
+ * shared by all the devices of the model, and only the values array per device.
+ * Properties that are not part of the schema (e.g. added by the adapter) are kept in a regular map.
+ * The map is fully mutable, so the cached devices are updated in place, and is serialized as a {@link HashMap}.
+ * The map is not thread-safe: properties of a cached device are only read and updated while holding the device
+ * monitor (see {@link AggregatedDeviceMerger}), and are handed over to Symphony as immutable copies only.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class CompactProperties extends AbstractMap<String, String> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * Marker of the properties with null value, since null in the values array stands for a missing property
+     */
+    private static final String NULL_VALUE = new String("");
+
+    private final transient CompactPropertyStore store;
+    private final transient CompactPropertyStore.PropertyKeys keys;
+    private final transient String[] values;
+    private transient int schemaSize;
+    private transient Map<String, String> extraProperties;
+    private transient Set<Entry<String, String>> entrySet;
+
+    /**
+     * CompactProperties instantiation
+     *
+     * @param store to deduplicate values with
+     * @param keys schema of the device model
+     */
+    CompactProperties(CompactPropertyStore store, CompactPropertyStore.PropertyKeys keys) {
+        this.store = store;
+        this.keys = keys;
+        this.values = new String[keys.size()];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return schemaSize + (extraProperties == null ? 0 : extraProperties.size());
+    }
+
+    /**
+     * Retrieves number of the properties that are not part of the model schema
+     *
+     * @return number of the properties kept per device
+     */
+    int getExtraPropertiesCount() {
+        return extraProperties == null ? 0 : extraProperties.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        int index = keys.indexOf(key);
+        if (index >= 0) {
+            return values[index] != null;
+        }
+        return extraProperties != null && extraProperties.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String get(Object key) {
+        int index = keys.indexOf(key);
+        if (index >= 0) {
+            return decode(values[index]);
+        }
+        return extraProperties == null ? null : extraProperties.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String put(String key, String value) {
+        String sharedValue = store.deduplicate(value);
+        int index = keys.indexOf(key);
+        if (index < 0) {
+            if (extraProperties == null) {
+                extraProperties = new HashMap<>(4);
+            }
+            return extraProperties.put(key, sharedValue);
+        }
+        String previousValue = values[index];
+        values[index] = sharedValue == null ? NULL_VALUE : sharedValue;
+        if (previousValue == null) {
+            schemaSize++;
+        }
+        return decode(previousValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String remove(Object key) {
+        int index = keys.indexOf(key);
+        if (index < 0) {
+            return extraProperties == null ? null : extraProperties.remove(key);
+        }
+        return removeAt(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        schemaSize = 0;
+        extraProperties = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, String>>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return CompactProperties.this.size();
+                }
+
+                @Override
+                public void clear() {
+                    CompactProperties.this.clear();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Remove schema property at the position
+     *
+     * @param index position of the property
+     * @return previous value of the property
+     */
+    private String removeAt(int index) {
+        String previousValue = values[index];
+        if (previousValue != null) {
+            values[index] = null;
+            schemaSize--;
+        }
+        return decode(previousValue);
+    }
+
+    /**
+     * Convert stored value to the property value
+     *
+     * @param value stored value
+     * @return property value
+     */
+    private static String decode(String value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    /**
+     * Serialize properties as a regular map, so these do not depend on the schema
+     *
+     * @return serializable copy of the properties
+     */
+    private Object writeReplace() {
+        return new HashMap<>(this);
+    }
+
+    /**
+     * Iterates over the schema properties, followed by the extra properties
+     */
+    private class EntryIterator implements Iterator<Entry<String, String>> {
+        private int nextIndex = -1;
+        private int currentIndex = -1;
+        private Iterator<Entry<String, String>> extraIterator;
+        private boolean extraEntry;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < values.length || (extraIterator != null && extraIterator.hasNext());
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (nextIndex < values.length) {
+                int index = nextIndex;
+                currentIndex = index;
+                extraEntry = false;
+                advance();
+                return new SchemaEntry(index);
+            }
+            if (extraIterator == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, String> entry = extraIterator.next();
+            extraEntry = true;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (extraEntry) {
+                extraIterator.remove();
+                extraEntry = false;
+                return;
+            }
+            if (currentIndex < 0) {
+                throw new IllegalStateException();
+            }
+            removeAt(currentIndex);
+            currentIndex = -1;
+        }
+
+        /**
+         * Move to the next schema property that has a value. Extra properties iterator is created
+         * once the schema properties are over.
+         */
+        private void advance() {
+            do {
+                nextIndex++;
+            } while (nextIndex < values.length && values[nextIndex] == null);
+            if (nextIndex >= values.length && extraIterator == null && extraProperties != null) {
+                extraIterator = extraProperties.entrySet().iterator();
+            }
+        }
+    }
+
+    /**
+     * Entry of the schema property, writes through to the values array
+     */
+    private class SchemaEntry implements Entry<String, String> {
+        private final int index;
+
+        SchemaEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return keys.keyAt(index);
+        }
+
+        @Override
+        public String getValue() {
+            return decode(values[index]);
+        }
+
+        @Override
+        public String setValue(String value) {
+            String sharedValue = store.deduplicate(value);
+            String previousValue = values[index];
+            values[index] = sharedValue == null ? NULL_VALUE : sharedValue;
+            if (previousValue == null) {
+                schemaSize++;
+            }
+            return decode(previousValue);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) other;
+            return getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ (getValue() == null ? 0 : getValue().hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
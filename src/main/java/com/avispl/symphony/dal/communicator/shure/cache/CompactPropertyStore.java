@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact storage of the cached device properties. Devices of the same model have the same property names,
+ * so the names are kept once per model, in a shared {@link PropertyKeys} schema, and every device only keeps
+ * an array of values, see {@link CompactProperties}. Short values, that repeat across the devices
+ * (e.g. "true", "Ok", "Dhcp"), are deduplicated, so all the devices share the same value instances.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class CompactPropertyStore {
+    /**
+     * Values longer than this are mostly unique (names, addresses) and are not deduplicated
+     */
+    private static final int MAX_SHARED_VALUE_LENGTH = 16;
+    /**
+     * Maximum number of the deduplicated values, values are stored as is once the limit is reached
+     */
+    private static final int MAX_SHARED_VALUES = 4096;
+
+    private final ConcurrentHashMap<String, PropertyKeys> schemas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> sharedValues = new ConcurrentHashMap<>();
+
+    /**
+     * Register schema of the device model, so the devices of the model keep all the property names provided
+     * in the shared schema, no matter which properties the first device of the model has.
+     *
+     * @param model device model
+     * @param propertyNames names of the properties the devices of the model may have
+     */
+    public void registerModel(String model, Collection<String> propertyNames) {
+        schemas.put(model == null ? "" : model, new PropertyKeys(propertyNames));
+    }
+
+    /**
+     * Create compact copy of the device properties. Schema of the model is the one registered with
+     * {@link #registerModel(String, Collection)}, or, for the models not registered, it is created from the first device
+     * properties of the model. Properties that are not part of the schema are stored per device.
+     *
+     * @param model device model, properties of the same model share the schema
+     * @param properties device properties
+     * @return compact properties, or the properties provided if these are null or compact already
+     */
+    public Map<String, String> compact(String model, Map<String, String> properties) {
+        if (properties == null || properties instanceof CompactProperties) {
+            return properties;
+        }
+        PropertyKeys keys = schemas.computeIfAbsent(model == null ? "" : model, name -> new PropertyKeys(properties.keySet()));
+        CompactProperties compactProperties = new CompactProperties(this, keys);
+        compactProperties.putAll(properties);
+        return compactProperties;
+    }
+
+    /**
+     * Retrieves number of the deduplicated values
+     *
+     * @return number of the deduplicated values
+     */
+    public int getSharedValuesCount() {
+        return sharedValues.size();
+    }
+
+    /**
+     * Remove all the schemas and deduplicated values. Properties that are compacted already keep working.
+     */
+    public void clear() {
+        schemas.clear();
+        sharedValues.clear();
+    }
+
+    /**
+     * Retrieve shared instance of the value
+     *
+     * @param value to deduplicate
+     * @return shared instance of the value, or the value itself, if it is not deduplicated
+     */
+    String deduplicate(String value) {
+        if (value == null || value.length() > MAX_SHARED_VALUE_LENGTH) {
+            return value;
+        }
+        String sharedValue = sharedValues.get(value);
+        if (sharedValue != null) {
+            return sharedValue;
+        }
+        if (sharedValues.size() >= MAX_SHARED_VALUES) {
+            return value;
+        }
+        sharedValue = sharedValues.putIfAbsent(value, value);
+        return sharedValue == null ? value : sharedValue;
+    }
+
+    /**
+     * Property names of a device model, along with their positions in the device values arrays
+     *
+     * @author Symphony Dev Team
+     * @since 1.1.4
+     */
+    static class PropertyKeys {
+        private final String[] keys;
+        private final Map<String, Integer> indexes;
+
+        /**
+         * PropertyKeys instantiation
+         *
+         * @param keys property names of the model
+         */
+        PropertyKeys(Collection<String> keys) {
+            List<String> sortedKeys = new ArrayList<>(keys);
+            sortedKeys.removeIf(key -> key == null);
+            Collections.sort(sortedKeys);
+            this.keys = sortedKeys.toArray(new String[0]);
+            Map<String, Integer> keyIndexes = new HashMap<>();
+            for (int i = 0; i < this.keys.length; i++) {
+                keyIndexes.put(this.keys[i], i);
+            }
+            indexes = keyIndexes;
+        }
+
+        /**
+         * Retrieve position of the property
+         *
+         * @param key property name
+         * @return position of the property, or -1 if the property is not part of the schema
+         */
+        int indexOf(Object key) {
+            Integer index = indexes.get(key);
+            return index == null ? -1 : index;
+        }
+
+        /**
+         * Retrieve property name at the position
+         *
+         * @param index position of the property
+         * @return property name
+         */
+        String keyAt(int index) {
+            return keys[index];
+        }
+
+        /**
+         * Retrieves number of the properties of the schema
+         *
+         * @return number of the properties of the schema
+         */
+        int size() {
+            return keys.length;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import com.avispl.symphony.dal.util.StringUtils;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@code ETag} and {@code Last-Modified} validators of the SystemOn responses, by request uri,
+ * together with the {@link DevicesSnapshot} of the response they were received with.
+ * Validators are sent back as {@code If-None-Match} and {@code If-Modified-Since} headers, so the gateway
+ * may respond with {@code 304 Not Modified} and no payload when nothing has changed.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class ConditionalRequestCache {
+    /**
+     * Validators and the devices snapshot of a single response
+     */
+    private static class Entry {
+        private final String eTag;
+        private final String lastModified;
+        private final DevicesSnapshot snapshot;
+
+        private Entry(String eTag, String lastModified, DevicesSnapshot snapshot) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Add conditional request headers, if there are validators available for the uri
+     *
+     * @param uri request uri
+     * @param headers request headers to update
+     */
+    public void applyValidators(String uri, HttpHeaders headers) {
+        Entry entry = entries.get(uri);
+        if (entry == null) {
+            return;
+        }
+        if (entry.eTag != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, entry.eTag);
+        }
+        if (entry.lastModified != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+        }
+    }
+
+    /**
+     * Store validators of the response, along with the devices snapshot of the response.
+     * If the response has no validators - whatever was kept for the uri is removed.
+     *
+     * @param uri request uri
+     * @param responseHeaders headers of the response
+     * @param snapshot devices snapshot of the response
+     */
+    public void update(String uri, HttpHeaders responseHeaders, DevicesSnapshot snapshot) {
+        String eTag = responseHeaders.getFirst(HttpHeaders.ETAG);
+        String lastModified = responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED);
+        if (StringUtils.isNullOrEmpty(eTag) && StringUtils.isNullOrEmpty(lastModified)) {
+            entries.remove(uri);
+            return;
+        }
+        entries.put(uri, new Entry(StringUtils.isNullOrEmpty(eTag) ? null : eTag,
+                StringUtils.isNullOrEmpty(lastModified) ? null : lastModified, snapshot));
+    }
+
+    /**
+     * Retrieve devices snapshot of the latest response that had validators
+     *
+     * @param uri request uri
+     * @return devices snapshot, or null if there are no validators kept for the uri
+     */
+    public DevicesSnapshot getSnapshot(String uri) {
+        Entry entry = entries.get(uri);
+        return entry == null ? null : entry.snapshot;
+    }
+
+    /**
+     * Remove validators of the uri, so the next request is unconditional
+     *
+     * @param uri request uri
+     */
+    public void invalidate(String uri) {
+        entries.remove(uri);
+    }
+
+    /**
+     * Remove all the validators
+     */
+    public void clear() {
+        entries.clear();
+    }
+}
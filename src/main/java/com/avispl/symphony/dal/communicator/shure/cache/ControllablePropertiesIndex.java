@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import com.avispl.symphony.api.dal.dto.control.AdvancedControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the cached devices controllable properties by name, so controllable properties are looked up
+ * without scanning the device controllable properties list.
+ * Device index is rebuilt when the cached device controllable properties change, otherwise it refers to the same
+ * {@link AdvancedControllableProperty} instances the cached device has.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class ControllablePropertiesIndex {
+    private final ConcurrentHashMap<String, Map<String, AdvancedControllableProperty>> devicesProperties = new ConcurrentHashMap<>();
+
+    /**
+     * Build index of the device controllable properties, replacing the existing one
+     *
+     * @param deviceId id of the device
+     * @param device cached device instance
+     */
+    public void index(String deviceId, AggregatedDevice device) {
+        List<AdvancedControllableProperty> controllableProperties = device.getControllableProperties();
+        if (controllableProperties == null || controllableProperties.isEmpty()) {
+            devicesProperties.put(deviceId, Collections.emptyMap());
+            return;
+        }
+        Map<String, AdvancedControllableProperty> properties = new HashMap<>(controllableProperties.size() * 2);
+        for (AdvancedControllableProperty property : controllableProperties) {
+            properties.putIfAbsent(property.getName(), property);
+        }
+        devicesProperties.put(deviceId, Collections.unmodifiableMap(properties));
+    }
+
+    /**
+     * Retrieve controllable property of the device
+     *
+     * @param deviceId id of the device
+     * @param name name of the controllable property
+     * @return controllable property, or null if the device is not indexed or has no such controllable property
+     */
+    public AdvancedControllableProperty get(String deviceId, String name) {
+        Map<String, AdvancedControllableProperty> properties = devicesProperties.get(deviceId);
+        return properties == null ? null : properties.get(name);
+    }
+
+    /**
+     * Remove devices that are not in the collection provided
+     *
+     * @param deviceIds ids of the devices to keep
+     */
+    public void retainAll(Collection<String> deviceIds) {
+        devicesProperties.keySet().retainAll(deviceIds);
+    }
+
+    /**
+     * Remove all the devices
+     */
+    public void clear() {
+        devicesProperties.clear();
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import com.avispl.symphony.api.dal.dto.control.AdvancedControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
+import com.avispl.symphony.dal.communicator.shure.metrics.CountingInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores snapshot of the cached devices on the local disk, so the device cache can be restored after
+ * the adapter restart, before the devices are retrieved from the SystemOn API again.
+ * Snapshot is a gzip compressed binary file: device fields and string maps are written with {@link DataOutputStream},
+ * controllable properties, which types have no common structure, are java-serialized per device.
+ * Snapshot is written to a temporary file first and then moved in place, so a partially written snapshot is never read.
+ * Lengths and counts read from the snapshot are checked against the data left and fixed maximums before anything
+ * is allocated, so a corrupted snapshot fails with {@link IOException} rather than an excessive allocation.
+ * Writes are serialized, since the snapshot is stored both by the collection cycle and by the adapter destruction.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DeviceCacheSnapshotStore {
+    private static final int MAGIC = 0x53485353;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Maximum length of a string, in bytes
+     */
+    private static final int MAX_STRING_LENGTH = 1024 * 1024;
+    /**
+     * Maximum length of the serialized controllable properties of a device, in bytes
+     */
+    private static final int MAX_CONTROLLABLE_PROPERTIES_LENGTH = 16 * 1024 * 1024;
+    /**
+     * Maximum number of the devices, map entries or mac addresses
+     */
+    private static final int MAX_COUNT = 1024 * 1024;
+    private static final String CONTROLLABLE_PROPERTY_CLASS = AdvancedControllableProperty.class.getName();
+    /**
+     * Classes, besides {@link AdvancedControllableProperty} and its nested types, serialized controllable properties
+     * consist of: the list, the timestamp, drop-down and preset options, range bounds and property values
+     */
+    private static final Set<String> CONTROLLABLE_PROPERTY_FIELD_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ArrayList.class.getName(), Date.class.getName(), String.class.getName(), Number.class.getName(),
+            Boolean.class.getName(), Byte.class.getName(), Short.class.getName(), Integer.class.getName(),
+            Long.class.getName(), Float.class.getName(), Double.class.getName())));
+
+    private final Path snapshotFile;
+
+    /**
+     * DeviceCacheSnapshotStore instantiation
+     *
+     * @param snapshotFile file to store the snapshot in
+     */
+    public DeviceCacheSnapshotStore(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Retrieves {@link #snapshotFile}
+     *
+     * @return value of {@link #snapshotFile}
+     */
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * Write snapshot of the devices, replacing the existing one
+     *
+     * @param devices to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public synchronized void write(Collection<AggregatedDevice> devices) throws IOException {
+        Path directory = snapshotFile.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        List<AggregatedDevice> snapshotDevices = new ArrayList<>(devices);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temporaryFile), BUFFER_SIZE), BUFFER_SIZE))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(snapshotDevices.size());
+            for (AggregatedDevice device : snapshotDevices) {
+                writeDevice(output, device);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        }
+        try {
+            Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Read devices from the snapshot
+     *
+     * @return devices stored, or an empty list if there is no snapshot
+     * @throws IOException if the snapshot cannot be read or has unsupported format
+     */
+    public List<AggregatedDevice> read() throws IOException {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return Collections.emptyList();
+        }
+        long snapshotSize = readUncompressedSize();
+        try (SnapshotInputStream input = new SnapshotInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(snapshotFile), BUFFER_SIZE), BUFFER_SIZE), snapshotSize)) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a device cache snapshot: " + snapshotFile);
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException(String.format("Unsupported device cache snapshot version %s: %s", version, snapshotFile));
+            }
+            int devicesCount = input.readLength(MAX_COUNT, Integer.BYTES);
+            if (devicesCount < 0) {
+                throw new IOException("Invalid devices count in the device cache snapshot: " + snapshotFile);
+            }
+            List<AggregatedDevice> devices = new ArrayList<>(devicesCount);
+            for (int i = 0; i < devicesCount; i++) {
+                devices.add(readDevice(input));
+            }
+            return devices;
+        }
+    }
+
+    /**
+     * Read uncompressed size of the snapshot from the gzip trailer. The size is stored modulo 2^32,
+     * so snapshots larger than 4GB are treated as corrupted.
+     *
+     * @return uncompressed size of the snapshot, in bytes
+     * @throws IOException if the snapshot cannot be read
+     */
+    private long readUncompressedSize() throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(snapshotFile)) {
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(Math.max(0, channel.size() - Integer.BYTES));
+            while (trailer.hasRemaining() && channel.read(trailer) >= 0) {
+                // read the trailer fully
+            }
+            if (trailer.hasRemaining()) {
+                throw new IOException("Device cache snapshot is truncated: " + snapshotFile);
+            }
+            trailer.flip();
+            return trailer.getInt() & 0xFFFFFFFFL;
+        }
+    }
+
+    /**
+     * Remove the snapshot, if present
+     *
+     * @throws IOException if the snapshot cannot be removed
+     */
+    public synchronized void delete() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    /**
+     * Write device fields to the output
+     *
+     * @param output to write to
+     * @param device to write
+     * @throws IOException if the device cannot be written
+     */
+    private void writeDevice(DataOutputStream output, AggregatedDevice device) throws IOException {
+        writeString(output, device.getDeviceId());
+        writeString(output, device.getDeviceName());
+        writeString(output, LegacyDeviceFields.getDeviceType(device));
+        writeString(output, device.getCategory());
+        writeString(output, device.getDeviceMake());
+        writeString(output, device.getDeviceModel());
+        writeString(output, device.getSerialNumber());
+        Boolean online = device.getDeviceOnline();
+        output.writeByte(online == null ? -1 : online ? 1 : 0);
+        Long timestamp = device.getTimestamp();
+        output.writeBoolean(timestamp != null);
+        if (timestamp != null) {
+            output.writeLong(timestamp);
+        }
+        List<String> macAddresses = device.getMacAddresses() == null ? null : new ArrayList<>(device.getMacAddresses());
+        output.writeInt(macAddresses == null ? -1 : macAddresses.size());
+        if (macAddresses != null) {
+            for (String macAddress : macAddresses) {
+                writeString(output, macAddress);
+            }
+        }
+        writeMap(output, device.getProperties());
+        writeMap(output, LegacyDeviceFields.getStatistics(device));
+        writeMap(output, device.getDynamicStatistics());
+        writeMap(output, LegacyDeviceFields.getControl(device));
+        writeControllableProperties(output, device.getControllableProperties());
+    }
+
+    /**
+     * Read device fields from the input
+     *
+     * @param input to read from
+     * @return device instance, with mutable maps and lists
+     * @throws IOException if the device cannot be read
+     */
+    private AggregatedDevice readDevice(SnapshotInputStream input) throws IOException {
+        AggregatedDevice device = new AggregatedDevice();
+        device.setDeviceId(readString(input));
+        device.setDeviceName(readString(input));
+        LegacyDeviceFields.setDeviceType(device, readString(input));
+        device.setCategory(readString(input));
+        device.setDeviceMake(readString(input));
+        device.setDeviceModel(readString(input));
+        device.setSerialNumber(readString(input));
+        byte online = input.readByte();
+        device.setDeviceOnline(online < 0 ? null : online == 1);
+        if (input.readBoolean()) {
+            device.setTimestamp(input.readLong());
+        }
+        int macAddressesCount = input.readLength(MAX_COUNT, Integer.BYTES);
+        if (macAddressesCount >= 0) {
+            List<String> macAddresses = new ArrayList<>(macAddressesCount);
+            for (int i = 0; i < macAddressesCount; i++) {
+                macAddresses.add(readString(input));
+            }
+            device.setMacAddresses(macAddresses);
+        }
+        device.setProperties(readMap(input));
+        LegacyDeviceFields.setStatistics(device, readMap(input));
+        device.setDynamicStatistics(readMap(input));
+        LegacyDeviceFields.setControl(device, readMap(input));
+        device.setControllableProperties(readControllableProperties(input));
+        return device;
+    }
+
+    /**
+     * Write nullable string map to the output
+     *
+     * @param output to write to
+     * @param map to write
+     * @throws IOException if the map cannot be written
+     */
+    private void writeMap(DataOutputStream output, Map<String, String> map) throws IOException {
+        if (map == null) {
+            output.writeInt(-1);
+            return;
+        }
+        List<Map.Entry<String, String>> entries = new ArrayList<>(map.entrySet());
+        output.writeInt(entries.size());
+        for (Map.Entry<String, String> entry : entries) {
+            writeString(output, entry.getKey());
+            writeString(output, entry.getValue());
+        }
+    }
+
+    /**
+     * Read nullable string map from the input
+     *
+     * @param input to read from
+     * @return map read, or null
+     * @throws IOException if the map cannot be read
+     */
+    private Map<String, String> readMap(SnapshotInputStream input) throws IOException {
+        int size = input.readLength(MAX_COUNT, 2 * Integer.BYTES);
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> map = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            map.put(readString(input), readString(input));
+        }
+        return map;
+    }
+
+    /**
+     * Write controllable properties of the device to the output, as a length-prefixed serialized list
+     *
+     * @param output to write to
+     * @param controllableProperties to write
+     * @throws IOException if the controllable properties cannot be written
+     */
+    private void writeControllableProperties(DataOutputStream output, List<AdvancedControllableProperty> controllableProperties) throws IOException {
+        if (controllableProperties == null) {
+            output.writeInt(-1);
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutput = new ObjectOutputStream(bytes)) {
+            objectOutput.writeObject(new ArrayList<>(controllableProperties));
+        }
+        output.writeInt(bytes.size());
+        bytes.writeTo(output);
+    }
+
+    /**
+     * Read controllable properties of the device from the input.
+     * Controllable properties that cannot be deserialized, e.g. after the API classes change, are dropped,
+     * these are restored with the next device retrieval.
+     *
+     * @param input to read from
+     * @return controllable properties list, or null
+     * @throws IOException if the snapshot cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    private List<AdvancedControllableProperty> readControllableProperties(SnapshotInputStream input) throws IOException {
+        int length = input.readLength(MAX_CONTROLLABLE_PROPERTIES_LENGTH, 1);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        try (ObjectInputStream objectInput = new ControllablePropertiesInputStream(new ByteArrayInputStream(bytes))) {
+            return new ArrayList<>((List<AdvancedControllableProperty>) objectInput.readObject());
+        } catch (ClassNotFoundException | InvalidClassException | ClassCastException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Write nullable string to the output. Unlike {@link DataOutputStream#writeUTF(String)}, strings are not limited in length.
+     *
+     * @param output to write to
+     * @param value to write
+     * @throws IOException if the string cannot be written
+     */
+    private void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Read nullable string from the input
+     *
+     * @param input to read from
+     * @return string read, or null
+     * @throws IOException if the string cannot be read
+     */
+    private String readString(SnapshotInputStream input) throws IOException {
+        int length = input.readLength(MAX_STRING_LENGTH, 1);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Data input stream of the snapshot, that keeps track of the data left to validate lengths read
+     */
+    private static class SnapshotInputStream extends DataInputStream {
+        private final CountingInputStream countingInput;
+        private final long size;
+
+        /**
+         * SnapshotInputStream instantiation
+         *
+         * @param input to read uncompressed snapshot from
+         * @param size uncompressed size of the snapshot, in bytes
+         */
+        SnapshotInputStream(InputStream input, long size) {
+            this(new CountingInputStream(input), size);
+        }
+
+        private SnapshotInputStream(CountingInputStream countingInput, long size) {
+            super(countingInput);
+            this.countingInput = countingInput;
+            this.size = size;
+        }
+
+        /**
+         * Read length, or count, of the nullable value that follows
+         *
+         * @param maximum maximum length allowed
+         * @param elementSize minimum number of bytes every element of the value takes
+         * @return length read, or -1 for a null value
+         * @throws IOException if the length is out of range
+         */
+        int readLength(int maximum, int elementSize) throws IOException {
+            int length = readInt();
+            if (length < -1 || length > maximum || (long) length * elementSize > size - countingInput.getCount()) {
+                throw new IOException(String.format("Invalid length %s in the device cache snapshot, the snapshot is corrupted", length));
+            }
+            return length;
+        }
+    }
+
+    /**
+     * Object input stream that only resolves classes controllable properties consist of, see
+     * {@link #CONTROLLABLE_PROPERTY_FIELD_CLASSES}, so a tampered snapshot cannot instantiate arbitrary serializable classes
+     */
+    private static class ControllablePropertiesInputStream extends ObjectInputStream {
+        /**
+         * ControllablePropertiesInputStream instantiation
+         *
+         * @param input to read serialized controllable properties from
+         * @throws IOException if the stream header cannot be read
+         */
+        ControllablePropertiesInputStream(InputStream input) throws IOException {
+            super(input);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+            String className = description.getName();
+            while (className.startsWith("[")) {
+                className = className.substring(1);
+            }
+            if (className.startsWith("L") && className.endsWith(";")) {
+                className = className.substring(1, className.length() - 1);
+            }
+            boolean controllablePropertyClass = className.equals(CONTROLLABLE_PROPERTY_CLASS) || className.startsWith(CONTROLLABLE_PROPERTY_CLASS + "$");
+            if (className.length() > 1 && !controllablePropertyClass && !CONTROLLABLE_PROPERTY_FIELD_CLASSES.contains(className)) {
+                throw new InvalidClassException(description.getName(), "Class is not allowed in the device cache snapshot");
+            }
+            return super.resolveClass(description);
+        }
+    }
+}
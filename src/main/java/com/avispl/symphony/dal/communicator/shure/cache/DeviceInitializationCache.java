@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the devices that are initialized for control, so these are not initialized in advance again,
+ * and the first control command does not take a failed request and initialization round-trip.
+ * Initialization is considered valid for {@link #initializationTtl}, since the gateway may drop it (e.g. on reboot).
+ * Failed initialization attempts are postponed for {@link #failureBackoff}, so devices that cannot be initialized
+ * are not requested constantly.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DeviceInitializationCache {
+    private final ConcurrentHashMap<String, Long> initializedUntil = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> retryNotBefore = new ConcurrentHashMap<>();
+    private volatile long initializationTtl;
+    private volatile long failureBackoff;
+
+    /**
+     * DeviceInitializationCache instantiation
+     *
+     * @param initializationTtl period of time device initialization is considered valid for, in milliseconds
+     * @param failureBackoff period of time next initialization attempt is postponed for, after a failed one, in milliseconds
+     */
+    public DeviceInitializationCache(long initializationTtl, long failureBackoff) {
+        this.initializationTtl = initializationTtl;
+        this.failureBackoff = failureBackoff;
+    }
+
+    /**
+     * Sets {@link #initializationTtl} value
+     *
+     * @param initializationTtl new value of {@link #initializationTtl}
+     */
+    public void setInitializationTtl(long initializationTtl) {
+        this.initializationTtl = initializationTtl;
+    }
+
+    /**
+     * Sets {@link #failureBackoff} value
+     *
+     * @param failureBackoff new value of {@link #failureBackoff}
+     */
+    public void setFailureBackoff(long failureBackoff) {
+        this.failureBackoff = failureBackoff;
+    }
+
+    /**
+     * Check whether the device is initialized and the initialization is not expired
+     *
+     * @param deviceId id of the device
+     * @param timestamp current timestamp
+     * @return true if the device is initialized, false otherwise
+     */
+    public boolean isInitialized(String deviceId, long timestamp) {
+        Long validUntil = initializedUntil.get(deviceId);
+        return validUntil != null && validUntil > timestamp;
+    }
+
+    /**
+     * Check whether the device should be initialized in advance: it is not initialized,
+     * and the previous initialization attempt did not fail recently
+     *
+     * @param deviceId id of the device
+     * @param timestamp current timestamp
+     * @return true if the device initialization is due, false otherwise
+     */
+    public boolean isInitializationDue(String deviceId, long timestamp) {
+        Long notBefore = retryNotBefore.get(deviceId);
+        return !isInitialized(deviceId, timestamp) && (notBefore == null || notBefore <= timestamp);
+    }
+
+    /**
+     * Register successful device initialization
+     *
+     * @param deviceId id of the device
+     * @param timestamp initialization timestamp
+     */
+    public void registerInitialized(String deviceId, long timestamp) {
+        initializedUntil.put(deviceId, timestamp + initializationTtl);
+        retryNotBefore.remove(deviceId);
+    }
+
+    /**
+     * Register failed device initialization
+     *
+     * @param deviceId id of the device
+     * @param timestamp initialization timestamp
+     */
+    public void registerFailure(String deviceId, long timestamp) {
+        initializedUntil.remove(deviceId);
+        retryNotBefore.put(deviceId, timestamp + failureBackoff);
+    }
+
+    /**
+     * Drop device initialization, e.g. when the gateway reports the device is not initialized
+     *
+     * @param deviceId id of the device
+     */
+    public void invalidate(String deviceId) {
+        initializedUntil.remove(deviceId);
+    }
+
+    /**
+     * Remove devices that are not in the collection provided
+     *
+     * @param deviceIds ids of the devices to keep
+     */
+    public void retainAll(Collection<String> deviceIds) {
+        initializedUntil.keySet().retainAll(deviceIds);
+        retryNotBefore.keySet().retainAll(deviceIds);
+    }
+
+    /**
+     * Remove all the devices
+     */
+    public void clear() {
+        initializedUntil.clear();
+        retryNotBefore.clear();
+    }
+}
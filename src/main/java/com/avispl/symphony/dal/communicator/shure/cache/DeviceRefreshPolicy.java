@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import com.avispl.symphony.dal.util.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the devices data refresh, separately for 2 tiers:
+ * statistics tier - statistics, controls and frequently changing properties (e.g. battery and on-air state), and
+ * properties tier - all the other device properties, that are mostly static (e.g. firmware, network and Dante settings).
+ * Every tier has its own refresh interval, that can be overridden per device model. Between the refreshes -
+ * cached values are used.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DeviceRefreshPolicy {
+    /**
+     * Refresh timestamps of a single device
+     */
+    private static class RefreshState {
+        private volatile long statisticsRefreshTimestamp;
+        private volatile long propertiesRefreshTimestamp;
+        /**
+         * Whether the device payload changed since the properties tier was refreshed, only statistics tier is applied
+         */
+        private volatile boolean propertiesOutdated;
+    }
+
+    private volatile long statisticsRefreshInterval;
+    private volatile long propertiesRefreshInterval;
+    private volatile Map<String, Long> modelStatisticsRefreshIntervals = Collections.emptyMap();
+    private volatile Map<String, Long> modelPropertiesRefreshIntervals = Collections.emptyMap();
+    private final ConcurrentHashMap<String, RefreshState> refreshStates = new ConcurrentHashMap<>();
+
+    /**
+     * DeviceRefreshPolicy instantiation
+     *
+     * @param statisticsRefreshInterval default statistics tier refresh interval, in milliseconds
+     * @param propertiesRefreshInterval default properties tier refresh interval, in milliseconds
+     */
+    public DeviceRefreshPolicy(long statisticsRefreshInterval, long propertiesRefreshInterval) {
+        this.statisticsRefreshInterval = statisticsRefreshInterval;
+        this.propertiesRefreshInterval = propertiesRefreshInterval;
+    }
+
+    /**
+     * Sets {@link #statisticsRefreshInterval} value
+     *
+     * @param statisticsRefreshInterval new value of {@link #statisticsRefreshInterval}
+     */
+    public void setStatisticsRefreshInterval(long statisticsRefreshInterval) {
+        this.statisticsRefreshInterval = statisticsRefreshInterval;
+    }
+
+    /**
+     * Sets {@link #propertiesRefreshInterval} value
+     *
+     * @param propertiesRefreshInterval new value of {@link #propertiesRefreshInterval}
+     */
+    public void setPropertiesRefreshInterval(long propertiesRefreshInterval) {
+        this.propertiesRefreshInterval = propertiesRefreshInterval;
+    }
+
+    /**
+     * Sets {@link #modelStatisticsRefreshIntervals} value
+     *
+     * @param modelStatisticsRefreshIntervals statistics tier refresh intervals by model name
+     */
+    public void setModelStatisticsRefreshIntervals(Map<String, Long> modelStatisticsRefreshIntervals) {
+        this.modelStatisticsRefreshIntervals = Collections.unmodifiableMap(new HashMap<>(modelStatisticsRefreshIntervals));
+    }
+
+    /**
+     * Sets {@link #modelPropertiesRefreshIntervals} value
+     *
+     * @param modelPropertiesRefreshIntervals properties tier refresh intervals by model name
+     */
+    public void setModelPropertiesRefreshIntervals(Map<String, Long> modelPropertiesRefreshIntervals) {
+        this.modelPropertiesRefreshIntervals = Collections.unmodifiableMap(new HashMap<>(modelPropertiesRefreshIntervals));
+    }
+
+    /**
+     * Retrieve statistics tier refresh interval of the device model
+     *
+     * @param model device model name
+     * @return refresh interval, in milliseconds
+     */
+    public long getStatisticsRefreshInterval(String model) {
+        return model == null ? statisticsRefreshInterval : modelStatisticsRefreshIntervals.getOrDefault(model, statisticsRefreshInterval);
+    }
+
+    /**
+     * Retrieve properties tier refresh interval of the device model
+     *
+     * @param model device model name
+     * @return refresh interval, in milliseconds
+     */
+    public long getPropertiesRefreshInterval(String model) {
+        return model == null ? propertiesRefreshInterval : modelPropertiesRefreshIntervals.getOrDefault(model, propertiesRefreshInterval);
+    }
+
+    /**
+     * Retrieve the shortest statistics tier refresh interval, of all the models
+     *
+     * @return refresh interval, in milliseconds
+     */
+    public long getShortestStatisticsRefreshInterval() {
+        long interval = statisticsRefreshInterval;
+        for (Long modelInterval : modelStatisticsRefreshIntervals.values()) {
+            interval = Math.min(interval, modelInterval);
+        }
+        return interval;
+    }
+
+    /**
+     * Check whether statistics tier of the device should be refreshed
+     *
+     * @param deviceId id of the device
+     * @param model device model name
+     * @param timestamp current timestamp
+     * @return true if the device statistics were never refreshed, or the refresh interval has passed
+     */
+    public boolean isStatisticsRefreshDue(String deviceId, String model, long timestamp) {
+        RefreshState state = refreshStates.get(deviceId);
+        return state == null || timestamp - state.statisticsRefreshTimestamp >= getStatisticsRefreshInterval(model);
+    }
+
+    /**
+     * Check whether properties tier of the device should be refreshed
+     *
+     * @param deviceId id of the device
+     * @param model device model name
+     * @param timestamp current timestamp
+     * @return true if the device properties were never refreshed, or the refresh interval has passed
+     */
+    public boolean isPropertiesRefreshDue(String deviceId, String model, long timestamp) {
+        RefreshState state = refreshStates.get(deviceId);
+        return state == null || timestamp - state.propertiesRefreshTimestamp >= getPropertiesRefreshInterval(model);
+    }
+
+    /**
+     * Check whether any of the device tiers should be refreshed
+     *
+     * @param deviceId id of the device
+     * @param model device model name
+     * @param timestamp current timestamp
+     * @return true if either statistics or properties refresh is due
+     */
+    public boolean isRefreshDue(String deviceId, String model, long timestamp) {
+        return isStatisticsRefreshDue(deviceId, model, timestamp) || isPropertiesRefreshDue(deviceId, model, timestamp);
+    }
+
+    /**
+     * Check whether device properties are due and are outdated, so the device payload must be applied
+     * even if it is not changed since the latest statistics refresh
+     *
+     * @param deviceId id of the device
+     * @param model device model name
+     * @param timestamp current timestamp
+     * @return true if device properties must be refreshed from the full device payload
+     */
+    public boolean isPropertiesUpdatePending(String deviceId, String model, long timestamp) {
+        RefreshState state = refreshStates.get(deviceId);
+        return state != null && state.propertiesOutdated && isPropertiesRefreshDue(deviceId, model, timestamp);
+    }
+
+    /**
+     * Register refresh of both device tiers
+     *
+     * @param deviceId id of the device
+     * @param timestamp refresh timestamp
+     */
+    public void registerFullRefresh(String deviceId, long timestamp) {
+        RefreshState state = refreshStates.computeIfAbsent(deviceId, id -> new RefreshState());
+        state.statisticsRefreshTimestamp = timestamp;
+        state.propertiesRefreshTimestamp = timestamp;
+        state.propertiesOutdated = false;
+    }
+
+    /**
+     * Register refresh of the device statistics tier, based on a changed payload
+     *
+     * @param deviceId id of the device
+     * @param timestamp refresh timestamp
+     */
+    public void registerStatisticsRefresh(String deviceId, long timestamp) {
+        RefreshState state = refreshStates.computeIfAbsent(deviceId, id -> new RefreshState());
+        state.statisticsRefreshTimestamp = timestamp;
+        state.propertiesOutdated = true;
+    }
+
+    /**
+     * Register that the device payload did not change. Both tiers are up to date then, unless the properties
+     * are outdated by one of the previous statistics refreshes.
+     *
+     * @param deviceId id of the device
+     * @param timestamp refresh timestamp
+     */
+    public void registerUnchanged(String deviceId, long timestamp) {
+        RefreshState state = refreshStates.get(deviceId);
+        if (state == null) {
+            return;
+        }
+        state.statisticsRefreshTimestamp = timestamp;
+        if (!state.propertiesOutdated) {
+            state.propertiesRefreshTimestamp = timestamp;
+        }
+    }
+
+    /**
+     * Remove refresh states of the devices that are not in the collection provided
+     *
+     * @param deviceIds ids of the devices to keep refresh state of
+     */
+    public void retainAll(Collection<String> deviceIds) {
+        refreshStates.keySet().retainAll(deviceIds);
+    }
+
+    /**
+     * Remove refresh states of all the devices
+     */
+    public void clear() {
+        refreshStates.clear();
+    }
+
+    /**
+     * Parse refresh intervals by model, from CSV string formatted as {@code MXW6:10000,MXW8:10000}
+     *
+     * @param value CSV string to parse
+     * @param minInterval minimal refresh interval, lower values are adjusted to this value
+     * @return refresh intervals by model name
+     * @throws IllegalArgumentException if the value cannot be parsed
+     */
+    public static Map<String, Long> parseModelIntervals(String value, long minInterval) {
+        Map<String, Long> intervals = new HashMap<>();
+        if (StringUtils.isNullOrEmpty(value)) {
+            return intervals;
+        }
+        for (String entry : value.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            int separatorIndex = entry.lastIndexOf(':');
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException(String.format("Invalid model refresh interval '%s', expected format is model:milliseconds", entry.trim()));
+            }
+            try {
+                long interval = Long.parseLong(entry.substring(separatorIndex + 1).trim());
+                intervals.put(entry.substring(0, separatorIndex).trim(), Math.max(minInterval, interval));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format("Invalid model refresh interval '%s', expected format is model:milliseconds", entry.trim()), e);
+            }
+        }
+        return intervals;
+    }
+}
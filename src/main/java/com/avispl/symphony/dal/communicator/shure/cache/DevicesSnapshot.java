@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of a single SystemOn devices response: hardware ids of all the devices listed in the response
+ * and ids of the devices that are cached as a result.
+ * Kept for every response that has validators, so a {@code 304 Not Modified} response can be served
+ * from the devices cache.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DevicesSnapshot {
+    private final List<String> hardwareIds = new ArrayList<>();
+    private final Set<String> deviceIds = new HashSet<>();
+
+    /**
+     * Register device listed in the response
+     *
+     * @param hardwareId of the device listed
+     * @param deviceId id of the cached device, or null if the device is not cached (e.g. not supported by the model mapping)
+     */
+    public void addDevice(String hardwareId, String deviceId) {
+        hardwareIds.add(hardwareId);
+        if (deviceId != null) {
+            deviceIds.add(deviceId);
+        }
+    }
+
+    /**
+     * Retrieves {@link #hardwareIds}
+     *
+     * @return value of {@link #hardwareIds}
+     */
+    public List<String> getHardwareIds() {
+        return Collections.unmodifiableList(hardwareIds);
+    }
+
+    /**
+     * Retrieves {@link #deviceIds}
+     *
+     * @return value of {@link #deviceIds}
+     */
+    public Set<String> getDeviceIds() {
+        return Collections.unmodifiableSet(deviceIds);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
+
+import java.util.Map;
+
+/**
+ * Access to the deprecated {@link AggregatedDevice} fields, that the model mapping still fills:
+ * device type, statistics and control. The fields have to be carried over when the cached devices
+ * are merged, copied and stored, so the deprecation warnings are suppressed here only.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+final class LegacyDeviceFields {
+
+    private LegacyDeviceFields() {
+    }
+
+    /**
+     * Retrieves device type
+     *
+     * @param device to get the value of
+     * @return device type
+     */
+    @SuppressWarnings("deprecation")
+    static String getDeviceType(AggregatedDevice device) {
+        return device.getDeviceType();
+    }
+
+    /**
+     * Sets device type
+     *
+     * @param device to set the value of
+     * @param deviceType new value
+     */
+    @SuppressWarnings("deprecation")
+    static void setDeviceType(AggregatedDevice device, String deviceType) {
+        device.setDeviceType(deviceType);
+    }
+
+    /**
+     * Retrieves device statistics
+     *
+     * @param device to get the value of
+     * @return device statistics
+     */
+    @SuppressWarnings("deprecation")
+    static Map<String, String> getStatistics(AggregatedDevice device) {
+        return device.getStatistics();
+    }
+
+    /**
+     * Sets device statistics
+     *
+     * @param device to set the value of
+     * @param statistics new value
+     */
+    @SuppressWarnings("deprecation")
+    static void setStatistics(AggregatedDevice device, Map<String, String> statistics) {
+        device.setStatistics(statistics);
+    }
+
+    /**
+     * Retrieves device control values
+     *
+     * @param device to get the value of
+     * @return device control values
+     */
+    @SuppressWarnings("deprecation")
+    static Map<String, String> getControl(AggregatedDevice device) {
+        return device.getControl();
+    }
+
+    /**
+     * Sets device control values
+     *
+     * @param device to set the value of
+     * @param control new value
+     */
+    @SuppressWarnings("deprecation")
+    static void setControl(AggregatedDevice device, Map<String, String> control) {
+        device.setControl(control);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.concurrency;
+
+/**
+ * Additive increase/multiplicative decrease limit of concurrent requests to the SystemOn gateway.
+ * Every successful request with a latency close to the baseline latency increases the limit by 1/limit,
+ * so the limit grows by about 1 per round of requests. Requests that are much slower than the baseline
+ * decrease the limit slightly, failures that indicate gateway overload decrease it by half.
+ * The limit always stays between 1 and the configured ceiling.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class AimdConcurrencyLimiter {
+    /**
+     * Requests slower than the baseline latency times this factor are considered a congestion sign
+     */
+    private static final double LATENCY_TOLERANCE = 2.0;
+    /**
+     * Limit decrease factor for the requests that are too slow
+     */
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    /**
+     * Limit decrease factor for the requests that failed due to gateway overload
+     */
+    private static final double OVERLOAD_BACKOFF_RATIO = 0.5;
+    /**
+     * Weight of a new latency sample, when the baseline latency drifts towards higher values
+     */
+    private static final double BASELINE_DRIFT_WEIGHT = 0.01;
+
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    private double baselineLatency = -1;
+
+    /**
+     * AimdConcurrencyLimiter instantiation
+     *
+     * @param initialLimit limit to start with
+     * @param maxLimit limit ceiling
+     */
+    public AimdConcurrencyLimiter(int initialLimit, int maxLimit) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limit = Math.max(1, Math.min(initialLimit, this.maxLimit));
+    }
+
+    /**
+     * Acquire a permit for a single request, if the limit allows it
+     *
+     * @return true if the request can be sent right away, false otherwise
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= getLimit()) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Release permit of the request that was not sent
+     */
+    public synchronized void release() {
+        inFlight = Math.max(0, inFlight - 1);
+    }
+
+    /**
+     * Release permit of the request that is complete and adjust the limit based on the request latency
+     *
+     * @param latencyNanos request latency, in nanoseconds
+     */
+    public synchronized void onSuccess(long latencyNanos) {
+        release();
+        if (baselineLatency < 0 || latencyNanos < baselineLatency) {
+            baselineLatency = latencyNanos;
+        } else {
+            baselineLatency += (latencyNanos - baselineLatency) * BASELINE_DRIFT_WEIGHT;
+        }
+        if (latencyNanos > baselineLatency * LATENCY_TOLERANCE) {
+            limit = Math.max(1, limit * LATENCY_BACKOFF_RATIO);
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Release permit of the request that failed because the gateway is overloaded or unavailable, and decrease the limit
+     */
+    public synchronized void onOverload() {
+        release();
+        limit = Math.max(1, limit * OVERLOAD_BACKOFF_RATIO);
+    }
+
+    /**
+     * Retrieves current number of concurrent requests allowed
+     *
+     * @return current limit
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Retrieves number of requests in flight
+     *
+     * @return number of requests in flight
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.concurrency;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor that runs tasks on the delegate executor, but no more than {@code parallelism} of them at a time.
+ * Intended for the thread-per-task executors (e.g. virtual threads), where the number of threads does not limit
+ * the number of requests sent to the gateway: tasks over the limit wait for a permit in their own thread.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class ConcurrencyLimitedExecutorService extends AbstractExecutorService {
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+
+    /**
+     * ConcurrencyLimitedExecutorService instantiation
+     *
+     * @param delegate executor to run the tasks on
+     * @param parallelism maximum number of tasks running at a time
+     */
+    public ConcurrencyLimitedExecutorService(ExecutorService delegate, int parallelism) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(Math.max(1, parallelism));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // Executor is shut down while the task is waiting for a permit
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
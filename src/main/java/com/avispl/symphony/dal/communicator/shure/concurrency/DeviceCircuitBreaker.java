@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.concurrency;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Circuit breaker for every device (by hardwareId), so devices that keep failing do not take
+ * requests capacity away from the healthy ones.
+ * A breaker is closed while device retrieval succeeds. After {@link #failureThreshold} consecutive failures
+ * it opens, and no requests are allowed until the backoff period is over. Then it is half-open: a single
+ * probe request is allowed, success closes the breaker, failure opens it again for twice as long
+ * (up to {@link #maxBackoff}). Backoff periods are jittered, so devices that failed together are not probed together.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DeviceCircuitBreaker {
+    /**
+     * Circuit breaker states
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Breaker of a single device
+     */
+    private static class Breaker {
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private int openCount;
+        private long openUntil;
+        private long probeStartTimestamp;
+    }
+
+    private final int failureThreshold;
+    private final long baseBackoff;
+    private final long maxBackoff;
+    private final ConcurrentHashMap<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * DeviceCircuitBreaker instantiation
+     *
+     * @param failureThreshold number of consecutive failures that opens the breaker
+     * @param baseBackoff backoff period after the breaker opens for the first time, in milliseconds
+     * @param maxBackoff maximum backoff period, in milliseconds
+     */
+    public DeviceCircuitBreaker(int failureThreshold, long baseBackoff, long maxBackoff) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = Math.max(baseBackoff, maxBackoff);
+    }
+
+    /**
+     * Check whether a request for the device is allowed. If the backoff period of an open breaker is over -
+     * the breaker becomes half-open and a single probe request is allowed.
+     *
+     * @param hardwareId of the device
+     * @param timestamp current timestamp
+     * @return true if the device can be requested, false otherwise
+     */
+    public boolean allowRequest(String hardwareId, long timestamp) {
+        Breaker breaker = breakers.get(hardwareId);
+        if (breaker == null) {
+            return true;
+        }
+        synchronized (breaker) {
+            switch (breaker.state) {
+                case OPEN:
+                    if (timestamp < breaker.openUntil) {
+                        return false;
+                    }
+                    breaker.state = State.HALF_OPEN;
+                    breaker.probeStartTimestamp = timestamp;
+                    return true;
+                case HALF_OPEN:
+                    // Probe result is never reported if the probe is cancelled, so it is not waited for longer than the max backoff
+                    if (timestamp - breaker.probeStartTimestamp < maxBackoff) {
+                        return false;
+                    }
+                    breaker.probeStartTimestamp = timestamp;
+                    return true;
+                default:
+                    return true;
+            }
+        }
+    }
+
+    /**
+     * Register successful device retrieval, the breaker is closed
+     *
+     * @param hardwareId of the device
+     */
+    public void onSuccess(String hardwareId) {
+        breakers.remove(hardwareId);
+    }
+
+    /**
+     * Register failed device retrieval. The breaker opens, if the failure threshold is reached or the probe failed.
+     *
+     * @param hardwareId of the device
+     * @param timestamp current timestamp
+     * @return true if the breaker is open as a result, false otherwise
+     */
+    public boolean onFailure(String hardwareId, long timestamp) {
+        Breaker breaker = breakers.computeIfAbsent(hardwareId, id -> new Breaker());
+        synchronized (breaker) {
+            breaker.consecutiveFailures++;
+            if (breaker.state == State.CLOSED && breaker.consecutiveFailures < failureThreshold) {
+                return false;
+            }
+            breaker.openCount++;
+            long backoff = maxBackoff;
+            if (breaker.openCount < Long.SIZE - 1) {
+                backoff = Math.min(maxBackoff, baseBackoff * (1L << (breaker.openCount - 1)));
+            }
+            // Equal jitter: half of the backoff period is fixed, the other half is random
+            long jitteredBackoff = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            breaker.state = State.OPEN;
+            breaker.openUntil = timestamp + jitteredBackoff;
+            return true;
+        }
+    }
+
+    /**
+     * Retrieve current state of the device breaker
+     *
+     * @param hardwareId of the device
+     * @return breaker state
+     */
+    public State getState(String hardwareId) {
+        Breaker breaker = breakers.get(hardwareId);
+        if (breaker == null) {
+            return State.CLOSED;
+        }
+        synchronized (breaker) {
+            return breaker.state;
+        }
+    }
+
+    /**
+     * Remove breakers of the devices that are not in the collection provided
+     *
+     * @param hardwareIds of the devices to keep breakers for
+     */
+    public void retainAll(Collection<String> hardwareIds) {
+        breakers.keySet().retainAll(hardwareIds);
+    }
+
+    /**
+     * Remove all the breakers
+     */
+    public void clear() {
+        breakers.clear();
+    }
+}
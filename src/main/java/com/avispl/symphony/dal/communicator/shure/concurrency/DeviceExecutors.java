@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.concurrency;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates executors for the blocking device I/O: device retrieval, control commands and device initialization.
+ * This is the Java 8 implementation, which uses pools of platform threads. The multi-release jar overrides it
+ * for Java 21+ (see {@code src/main/java21}) with virtual threads.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public final class DeviceExecutors {
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private DeviceExecutors() {
+    }
+
+    /**
+     * Whether virtual threads are available in the current runtime
+     *
+     * @return false, virtual threads require Java 21+
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return false;
+    }
+
+    /**
+     * Create executor that runs up to {@code parallelism} tasks at a time. Threads are only created when needed
+     * and are released when idle.
+     *
+     * @param parallelism maximum number of tasks running at a time
+     * @param preferVirtualThreads whether virtual threads should be used, if supported by the runtime
+     * @return executor instance
+     */
+    public static ExecutorService newDeviceExecutor(int parallelism, boolean preferVirtualThreads) {
+        return newPlatformThreadsExecutor(parallelism);
+    }
+
+    /**
+     * Create pool of platform threads, which size matches the parallelism
+     *
+     * @param parallelism maximum number of tasks running at a time
+     * @return executor instance
+     */
+    static ExecutorService newPlatformThreadsExecutor(int parallelism) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
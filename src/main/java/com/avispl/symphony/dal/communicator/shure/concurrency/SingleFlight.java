@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.concurrency;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical operations: while an operation for a key is in flight, other callers
+ * with the same key do not start their own operation, but wait for the one in flight and share its result
+ * (or its error). Once the operation is complete, the next call for the key starts a new operation.
+ *
+ * @param <T> type of the operation result
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class SingleFlight<T> {
+    private final ConcurrentHashMap<String, CompletableFuture<T>> operationsInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Execute the operation, or join the operation with the same key that is in flight already
+     *
+     * @param key operation key, e.g. request uri
+     * @param operation to execute
+     * @return result of the operation
+     * @throws Exception if the operation failed, or the current thread is interrupted while waiting for the result
+     */
+    public T execute(String key, Callable<T> operation) throws Exception {
+        CompletableFuture<T> operationFuture = new CompletableFuture<>();
+        CompletableFuture<T> operationInFlight = operationsInFlight.putIfAbsent(key, operationFuture);
+        if (operationInFlight != null) {
+            return awaitResult(operationInFlight);
+        }
+        try {
+            T result = operation.call();
+            operationFuture.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            operationFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            operationsInFlight.remove(key, operationFuture);
+        }
+    }
+
+    /**
+     * Start the asynchronous operation, or join the operation with the same key that is in flight already
+     *
+     * @param key operation key, e.g. request uri
+     * @param operation to start
+     * @return future of the operation result, completed with the operation error if it failed
+     */
+    public CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> operation) {
+        CompletableFuture<T> operationFuture = new CompletableFuture<>();
+        CompletableFuture<T> operationInFlight = operationsInFlight.putIfAbsent(key, operationFuture);
+        if (operationInFlight != null) {
+            return operationInFlight;
+        }
+        CompletableFuture<T> startedOperation;
+        try {
+            startedOperation = operation.get();
+        } catch (RuntimeException | Error e) {
+            operationsInFlight.remove(key, operationFuture);
+            operationFuture.completeExceptionally(e);
+            return operationFuture;
+        }
+        startedOperation.whenComplete((result, error) -> {
+            operationsInFlight.remove(key, operationFuture);
+            if (error == null) {
+                operationFuture.complete(result);
+            } else {
+                operationFuture.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        });
+        return operationFuture;
+    }
+
+    /**
+     * Retrieves number of operations in flight
+     *
+     * @return number of operations in flight
+     */
+    public int getOperationsInFlight() {
+        return operationsInFlight.size();
+    }
+
+    /**
+     * Wait for the operation in flight to complete
+     *
+     * @param operationInFlight future of the operation in flight
+     * @return result of the operation
+     * @throws Exception error of the operation
+     */
+    private T awaitResult(CompletableFuture<T> operationInFlight) throws Exception {
+        try {
+            return operationInFlight.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
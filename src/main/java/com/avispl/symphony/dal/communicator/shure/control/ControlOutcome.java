@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.control;
+
+import com.avispl.symphony.api.dal.dto.control.ControllableProperty;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a single control command of a controls batch
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class ControlOutcome {
+    private final ControllableProperty controllableProperty;
+    private final Exception error;
+    private final long durationNanos;
+
+    /**
+     * ControlOutcome instantiation
+     *
+     * @param controllableProperty control command
+     * @param error command failure, or null if the command succeeded
+     * @param durationNanos command execution time, in nanoseconds
+     */
+    public ControlOutcome(ControllableProperty controllableProperty, Exception error, long durationNanos) {
+        this.controllableProperty = controllableProperty;
+        this.error = error;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * Retrieves {@link #controllableProperty}
+     *
+     * @return value of {@link #controllableProperty}
+     */
+    public ControllableProperty getControllableProperty() {
+        return controllableProperty;
+    }
+
+    /**
+     * Retrieves {@link #error}
+     *
+     * @return value of {@link #error}
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * Retrieves {@link #durationNanos}
+     *
+     * @return value of {@link #durationNanos}
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Check whether the command succeeded
+     *
+     * @return true if the command succeeded, false otherwise
+     */
+    public boolean isSucceeded() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]=%s: %s (%sms)", controllableProperty.getProperty(), controllableProperty.getDeviceId(),
+                controllableProperty.getValue(), error == null ? "OK" : "FAILED " + error.getMessage(),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.error;
+
+import com.avispl.symphony.dal.communicator.shure.control.ControlOutcome;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Exception for the controls batch, that has some of the control commands failed
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class ControlBatchException extends RuntimeException {
+    private final List<ControlOutcome> outcomes;
+
+    /**
+     * Class constructor with outcomes of all the batch commands
+     *
+     * @param outcomes of the batch commands, in the order of the batch
+     */
+    public ControlBatchException(List<ControlOutcome> outcomes) {
+        super(String.format("%s of %s control commands failed: %s", outcomes.stream().filter(outcome -> !outcome.isSucceeded()).count(),
+                outcomes.size(), outcomes.stream().filter(outcome -> !outcome.isSucceeded()).map(ControlOutcome::toString)
+                        .collect(Collectors.joining("; "))));
+        this.outcomes = Collections.unmodifiableList(outcomes);
+        outcomes.stream().filter(outcome -> !outcome.isSucceeded()).findFirst().ifPresent(outcome -> initCause(outcome.getError()));
+    }
+
+    /**
+     * Retrieves {@link #outcomes}
+     *
+     * @return value of {@link #outcomes}
+     */
+    public List<ControlOutcome> getOutcomes() {
+        return outcomes;
+    }
+}
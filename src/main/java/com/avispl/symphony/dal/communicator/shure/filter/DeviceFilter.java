@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.filter;
+
+import com.avispl.symphony.dal.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiled CSV filter of the device hardware ids or models. The filter is parsed once, so every check is a hash lookup
+ * for the exact values, and patterns are only evaluated if there are any.
+ * Supported entries:
+ * <ul>
+ *     <li>{@code MXA910} - exact value</li>
+ *     <li>{@code MXA*}, {@code MXW?} - glob pattern, {@code *} matches any characters, {@code ?} matches a single character</li>
+ *     <li>{@code /MXA(310|910)/} - regular expression, matched against the whole value. Commas inside the slashes
+ *     are part of the expression, e.g. {@code /MXW[0-9]{1,2}/}</li>
+ *     <li>{@code !MXA910}, {@code !MXW*}, {@code !/P.+/} - exclusion of any of the above</li>
+ * </ul>
+ * Exclusions take precedence over the includes. Values are case-sensitive.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DeviceFilter {
+    private static final DeviceFilter EMPTY = new DeviceFilter("");
+
+    private final String source;
+    private final Set<String> includedValues = new LinkedHashSet<>();
+    private final List<Pattern> includedPatterns = new ArrayList<>();
+    private final Set<String> excludedValues = new HashSet<>();
+    private final List<Pattern> excludedPatterns = new ArrayList<>();
+    /**
+     * Exact included values that are not excluded, in the filter order
+     */
+    private Set<String> listedValues = Collections.emptySet();
+
+    /**
+     * DeviceFilter instantiation
+     *
+     * @param source CSV filter value
+     */
+    private DeviceFilter(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Parse CSV filter value
+     *
+     * @param filter CSV filter value, null or empty value matches everything
+     * @return compiled filter
+     * @throws IllegalArgumentException if the filter has an invalid or unterminated regular expression
+     */
+    public static DeviceFilter parse(String filter) {
+        if (StringUtils.isNullOrEmpty(filter) || filter.trim().isEmpty()) {
+            return EMPTY;
+        }
+        DeviceFilter deviceFilter = new DeviceFilter(filter);
+        for (String value : splitEntries(filter)) {
+            String entry = value.trim();
+            boolean exclusion = entry.startsWith("!");
+            if (exclusion) {
+                entry = entry.substring(1).trim();
+            }
+            if (entry.isEmpty()) {
+                continue;
+            }
+            Pattern pattern = compilePattern(entry);
+            if (pattern == null) {
+                (exclusion ? deviceFilter.excludedValues : deviceFilter.includedValues).add(entry);
+            } else {
+                (exclusion ? deviceFilter.excludedPatterns : deviceFilter.includedPatterns).add(pattern);
+            }
+        }
+        Set<String> listedValues = new LinkedHashSet<>(deviceFilter.includedValues);
+        listedValues.removeIf(deviceFilter::excludes);
+        deviceFilter.listedValues = Collections.unmodifiableSet(listedValues);
+        return deviceFilter;
+    }
+
+    /**
+     * Check whether the value passes the filter: it is not excluded and, if there are any includes, it is included
+     *
+     * @param value to check
+     * @return true if the value passes the filter, false otherwise
+     */
+    public boolean matches(String value) {
+        return !excludes(value) && (!hasIncludes() || includes(value));
+    }
+
+    /**
+     * Check whether the value matches any of the includes
+     *
+     * @param value to check
+     * @return true if the value is included, false if it is not, or there are no includes
+     */
+    public boolean includes(String value) {
+        return value != null && (includedValues.contains(value) || matchesAny(includedPatterns, value));
+    }
+
+    /**
+     * Check whether the value matches any of the exclusions
+     *
+     * @param value to check
+     * @return true if the value is excluded, false otherwise
+     */
+    public boolean excludes(String value) {
+        return value != null && (excludedValues.contains(value) || matchesAny(excludedPatterns, value));
+    }
+
+    /**
+     * Check whether the filter has any includes
+     *
+     * @return true if there are included values or patterns, false otherwise
+     */
+    public boolean hasIncludes() {
+        return !includedValues.isEmpty() || !includedPatterns.isEmpty();
+    }
+
+    /**
+     * Check whether the filter has any include patterns, so the included values cannot be listed
+     *
+     * @return true if there are include patterns, false otherwise
+     */
+    public boolean hasIncludePatterns() {
+        return !includedPatterns.isEmpty();
+    }
+
+    /**
+     * Check whether the filter has no rules
+     *
+     * @return true if the filter matches everything, false otherwise
+     */
+    public boolean isEmpty() {
+        return !hasIncludes() && excludedValues.isEmpty() && excludedPatterns.isEmpty();
+    }
+
+    /**
+     * Retrieve exact values of the includes that are not excluded, in the filter order
+     *
+     * @return included values
+     */
+    public Set<String> getIncludedValues() {
+        return listedValues;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * Check whether the value matches any of the patterns
+     *
+     * @param patterns to check the value against
+     * @param value to check
+     * @return true if the value matches one of the patterns, false otherwise
+     */
+    private static boolean matchesAny(List<Pattern> patterns, String value) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(value).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split CSV filter value into entries. Commas between the slashes of a regular expression entry do not split it:
+     * the expression ends at the slash followed by a comma or by the end of the value.
+     *
+     * @param filter CSV filter value
+     * @return filter entries, not trimmed
+     * @throws IllegalArgumentException if the filter has an unterminated regular expression
+     */
+    private static List<String> splitEntries(String filter) {
+        List<String> entries = new ArrayList<>();
+        StringBuilder entry = new StringBuilder();
+        boolean regex = false;
+        for (int i = 0; i < filter.length(); i++) {
+            char character = filter.charAt(i);
+            if (regex) {
+                entry.append(character);
+                if (character == '\\' && i + 1 < filter.length()) {
+                    entry.append(filter.charAt(++i));
+                } else if (character == '/' && isEntryEnd(filter, i + 1)) {
+                    regex = false;
+                }
+                continue;
+            }
+            if (character == ',') {
+                entries.add(entry.toString());
+                entry.setLength(0);
+                continue;
+            }
+            if (character == '/') {
+                String prefix = entry.toString().trim();
+                regex = prefix.isEmpty() || prefix.equals("!");
+            }
+            entry.append(character);
+        }
+        if (regex) {
+            throw new IllegalArgumentException(String.format("Unterminated regular expression '%s' of the device filter", entry.toString().trim()));
+        }
+        entries.add(entry.toString());
+        return entries;
+    }
+
+    /**
+     * Check whether the filter entry ends at the position: only whitespaces are left before the next comma
+     * or the end of the value
+     *
+     * @param filter CSV filter value
+     * @param position to check from
+     * @return true if the entry ends at the position, false otherwise
+     */
+    private static boolean isEntryEnd(String filter, int position) {
+        for (int i = position; i < filter.length(); i++) {
+            char character = filter.charAt(i);
+            if (character == ',') {
+                return true;
+            }
+            if (!Character.isWhitespace(character)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compile filter entry into a pattern
+     *
+     * @param entry filter entry, without the exclusion mark
+     * @return compiled pattern, or null if the entry is an exact value
+     * @throws IllegalArgumentException if the entry is an invalid regular expression
+     */
+    private static Pattern compilePattern(String entry) {
+        if (entry.length() > 2 && entry.startsWith("/") && entry.endsWith("/")) {
+            try {
+                return Pattern.compile(entry.substring(1, entry.length() - 1));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException(String.format("Invalid regular expression '%s' of the device filter", entry), e);
+            }
+        }
+        if (entry.indexOf('*') < 0 && entry.indexOf('?') < 0) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char character : entry.toCharArray()) {
+            if (character == '*' || character == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(character == '*' ? ".*" : ".");
+            } else {
+                literal.append(character);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.gateway;
+
+import com.avispl.symphony.dal.util.StringUtils;
+
+/**
+ * SystemOn gateway the adapter collects devices from. The primary gateway is the adapter host itself and is requested
+ * with relative uris, additional gateways are requested with absolute uris, so the same http client, headers and
+ * conditional requests cache serve all of them.
+ * Every gateway has its own devices list retrieval cooldown, so gateways are refreshed independently.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class SystemOnGateway {
+    private final String name;
+    private final String baseUri;
+    private final boolean primary;
+    /**
+     * Time period within which the gateway devices list cannot be refreshed
+     */
+    private volatile long validDeviceMetaDataRetrievalPeriodTimestamp;
+
+    /**
+     * SystemOnGateway instantiation
+     *
+     * @param name of the gateway, {@code host:port}
+     * @param baseUri SystemOn API base uri of the gateway
+     * @param primary whether the gateway is the adapter host
+     */
+    public SystemOnGateway(String name, String baseUri, boolean primary) {
+        this.name = name;
+        this.baseUri = baseUri;
+        this.primary = primary;
+    }
+
+    /**
+     * Create gateway of the adapter host
+     *
+     * @param host adapter host
+     * @param port adapter port
+     * @param baseUri relative SystemOn API base uri
+     * @return primary gateway instance
+     */
+    public static SystemOnGateway primary(String host, int port, String baseUri) {
+        return new SystemOnGateway(host + ":" + port, baseUri, true);
+    }
+
+    /**
+     * Create additional gateway from the {@code host[:port]} entry. IPv6 hosts must be enclosed in brackets if port is provided.
+     *
+     * @param entry gateway {@code host[:port]}
+     * @param protocol protocol to request the gateway with
+     * @param defaultPort port to use, if the entry has none
+     * @param baseUri relative SystemOn API base uri
+     * @return gateway instance
+     * @throws IllegalArgumentException if the entry is empty or has invalid port
+     */
+    public static SystemOnGateway additional(String entry, String protocol, int defaultPort, String baseUri) {
+        String value = entry == null ? "" : entry.trim();
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("SystemOn gateway host is empty");
+        }
+        String host = value;
+        int port = defaultPort;
+        int portSeparator = value.lastIndexOf(':');
+        if ((portSeparator > 0 && value.indexOf(':') == portSeparator) || (value.startsWith("[") && portSeparator > value.indexOf(']'))) {
+            host = value.substring(0, portSeparator);
+            String portValue = value.substring(portSeparator + 1);
+            try {
+                port = Integer.parseInt(portValue);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format("Invalid port '%s' of SystemOn gateway '%s'", portValue, value), e);
+            }
+        }
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        }
+        if (StringUtils.isNullOrEmpty(host)) {
+            throw new IllegalArgumentException(String.format("SystemOn gateway '%s' has no host", value));
+        }
+        String urlHost = host.indexOf(':') >= 0 ? "[" + host + "]" : host;
+        return new SystemOnGateway(host + ":" + port, String.format("%s://%s:%s/%s", protocol, urlHost, port, baseUri), false);
+    }
+
+    /**
+     * Retrieves {@link #name}
+     *
+     * @return value of {@link #name}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves {@link #baseUri}
+     *
+     * @return value of {@link #baseUri}
+     */
+    public String getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Retrieves {@link #primary}
+     *
+     * @return value of {@link #primary}
+     */
+    public boolean isPrimary() {
+        return primary;
+    }
+
+    /**
+     * Retrieves {@link #validDeviceMetaDataRetrievalPeriodTimestamp}
+     *
+     * @return value of {@link #validDeviceMetaDataRetrievalPeriodTimestamp}
+     */
+    public long getValidDeviceMetaDataRetrievalPeriodTimestamp() {
+        return validDeviceMetaDataRetrievalPeriodTimestamp;
+    }
+
+    /**
+     * Sets {@link #validDeviceMetaDataRetrievalPeriodTimestamp} value
+     *
+     * @param validDeviceMetaDataRetrievalPeriodTimestamp new value of {@link #validDeviceMetaDataRetrievalPeriodTimestamp}
+     */
+    public void setValidDeviceMetaDataRetrievalPeriodTimestamp(long validDeviceMetaDataRetrievalPeriodTimestamp) {
+        this.validDeviceMetaDataRetrievalPeriodTimestamp = validDeviceMetaDataRetrievalPeriodTimestamp;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.http;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.ssl.SSLContexts;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Non-blocking http client for the SystemOn devices requests. Requests are multiplexed by a few I/O reactor threads,
+ * so requests in flight do not hold a thread each while waiting for the gateway response.
+ * Response bodies are buffered by the client as received, the response is handed over once it is received as a whole.
+ * Content encoding is not handled by the client, gzip and deflate bodies are decompressed as a stream
+ * by {@link #openContent(HttpResponse)}, so compressed payloads are kept in memory until they are read.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class AsyncDevicesClient implements Closeable {
+    private final CloseableHttpAsyncClient httpClient;
+
+    /**
+     * AsyncDevicesClient instantiation, the client is started right away
+     *
+     * @param ioThreads number of I/O reactor threads
+     * @param maxConnectionsPerRoute maximum number of connections to a single gateway
+     * @param maxConnections maximum number of connections to all the gateways
+     * @param timeout connect, socket and connection lease timeout, in milliseconds
+     * @param trustAllCertificates whether gateway certificates and host names are not verified
+     * @throws Exception if the client cannot be created
+     */
+    public AsyncDevicesClient(int ioThreads, int maxConnectionsPerRoute, int maxConnections, int timeout, boolean trustAllCertificates) throws Exception {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(Math.max(1, ioThreads))
+                .setConnectTimeout(timeout)
+                .setSoTimeout(timeout)
+                .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeout)
+                .setSocketTimeout(timeout)
+                .setConnectionRequestTimeout(timeout)
+                .build();
+        HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                .setDefaultIOReactorConfig(ioReactorConfig)
+                .setDefaultRequestConfig(requestConfig)
+                .setMaxConnPerRoute(Math.max(1, maxConnectionsPerRoute))
+                .setMaxConnTotal(Math.max(maxConnectionsPerRoute, maxConnections));
+        if (trustAllCertificates) {
+            builder.setSSLContext(SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build())
+                    .setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+        }
+        httpClient = builder.build();
+        httpClient.start();
+    }
+
+    /**
+     * Send GET request
+     *
+     * @param url full request url
+     * @param headers request headers
+     * @return future of the response, completed exceptionally if the request cannot be sent or the response cannot be received
+     */
+    public CompletableFuture<HttpResponse> get(String url, HttpHeaders headers) {
+        CompletableFuture<HttpResponse> responseFuture = new CompletableFuture<>();
+        try {
+            HttpGet request = new HttpGet(url);
+            headers.forEach((name, values) -> values.forEach(value -> request.addHeader(name, value)));
+            httpClient.execute(request, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    responseFuture.complete(response);
+                }
+
+                @Override
+                public void failed(Exception error) {
+                    responseFuture.completeExceptionally(error);
+                }
+
+                @Override
+                public void cancelled() {
+                    responseFuture.cancel(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            // client is closed, or the url is invalid
+            responseFuture.completeExceptionally(e);
+        }
+        return responseFuture;
+    }
+
+    /**
+     * Open response body stream, decompressing gzip and deflate encoded bodies on the fly
+     *
+     * @param response to read body of
+     * @return response body stream, empty if the response has no body
+     * @throws IOException if the body cannot be opened
+     */
+    public static InputStream openContent(HttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        InputStream content = entity.getContent();
+        Header contentEncoding = entity.getContentEncoding();
+        String encoding = contentEncoding == null ? "" : contentEncoding.getValue().trim().toLowerCase(Locale.ROOT);
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(content);
+            case "deflate":
+                return new InflaterInputStream(content);
+            default:
+                return content;
+        }
+    }
+
+    /**
+     * Read response body as text, e.g. for the error messages
+     *
+     * @param response to read body of
+     * @return response body, decompressed if needed
+     * @throws IOException if the body cannot be read
+     */
+    public static String readContent(HttpResponse response) throws IOException {
+        try (InputStream content = openContent(response)) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Shut down I/O reactor and close all the connections. Requests in flight are cancelled.
+     *
+     * @throws IOException if the client cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot path instrumentation of the adapter: requests metrics per SystemOn API endpoint family,
+ * devices payload parsing and mapping time, devices collection cycles duration and size.
+ * Metrics are published as adapter statistics, grouped under {@link #METRICS_GROUP}.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class AdapterMetrics {
+    /**
+     * Statistics group metrics are published to
+     */
+    public static final String METRICS_GROUP = "Metrics#";
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final LatencyHistogram mappingTime = new LatencyHistogram();
+    private final LatencyHistogram cycleDuration = new LatencyHistogram();
+    private final LongAdder unchangedPayloads = new LongAdder();
+    private volatile long lastCycleDuration;
+    private volatile int lastCycleDevices;
+
+    /**
+     * Retrieve metrics of the endpoint family, create them if necessary
+     *
+     * @param endpointFamily name of the endpoint family, e.g. DevicesList
+     * @return endpoint family metrics
+     */
+    public EndpointMetrics endpoint(String endpointFamily) {
+        return endpoints.computeIfAbsent(endpointFamily, name -> new EndpointMetrics());
+    }
+
+    /**
+     * Register time spent on reading devices payload, excluding devices mapping
+     *
+     * @param durationNanos duration, in nanoseconds
+     */
+    public void recordParseTime(long durationNanos) {
+        parseTime.record(durationNanos);
+    }
+
+    /**
+     * Register time spent on mapping a device payload
+     *
+     * @param durationNanos duration, in nanoseconds
+     */
+    public void recordMappingTime(long durationNanos) {
+        mappingTime.record(durationNanos);
+    }
+
+    /**
+     * Register device payload that is not mapped, since it did not change since the last time
+     */
+    public void recordUnchangedPayload() {
+        unchangedPayloads.increment();
+    }
+
+    /**
+     * Register devices collection cycle
+     *
+     * @param durationNanos cycle duration, in nanoseconds
+     * @param devices number of devices available after the cycle
+     */
+    public void recordCycle(long durationNanos, int devices) {
+        cycleDuration.record(durationNanos);
+        lastCycleDuration = durationNanos;
+        lastCycleDevices = devices;
+    }
+
+    /**
+     * Add metrics to the statistics map
+     *
+     * @param statistics to add metrics to
+     */
+    public void publish(Map<String, String> statistics) {
+        endpoints.forEach((name, endpoint) -> {
+            statistics.put(METRICS_GROUP + name + "Requests", String.valueOf(endpoint.getRequests()));
+            statistics.put(METRICS_GROUP + name + "Errors", String.valueOf(endpoint.getErrors()));
+            statistics.put(METRICS_GROUP + name + "ResponseBytes", String.valueOf(endpoint.getResponseBytes()));
+            publishPercentiles(statistics, name + "Latency", endpoint.getLatency());
+        });
+        publishPercentiles(statistics, "PayloadParseTime", parseTime);
+        publishPercentiles(statistics, "DeviceMappingTime", mappingTime);
+        publishPercentiles(statistics, "CycleDuration", cycleDuration);
+        statistics.put(METRICS_GROUP + "UnchangedPayloads", String.valueOf(unchangedPayloads.sum()));
+        long cycles = cycleDuration.getCount();
+        if (cycles > 0) {
+            statistics.put(METRICS_GROUP + "Cycles", String.valueOf(cycles));
+            statistics.put(METRICS_GROUP + "LastCycleDuration(ms)", formatMillis(TimeUnit.NANOSECONDS.toMicros(lastCycleDuration) / 1000d));
+            statistics.put(METRICS_GROUP + "LastCycleDevices", String.valueOf(lastCycleDevices));
+        }
+    }
+
+    /**
+     * Remove all the metrics recorded
+     */
+    public void clear() {
+        endpoints.clear();
+        parseTime.clear();
+        mappingTime.clear();
+        cycleDuration.clear();
+        unchangedPayloads.reset();
+        lastCycleDuration = 0;
+        lastCycleDevices = 0;
+    }
+
+    /**
+     * Add p50, p95 and p99 of the histogram to the statistics map, if anything is recorded
+     *
+     * @param statistics to add percentiles to
+     * @param name of the metric
+     * @param histogram to calculate percentiles of
+     */
+    private void publishPercentiles(Map<String, String> statistics, String name, LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        statistics.put(METRICS_GROUP + name + "P50(ms)", formatMillis(histogram.getPercentile(50)));
+        statistics.put(METRICS_GROUP + name + "P95(ms)", formatMillis(histogram.getPercentile(95)));
+        statistics.put(METRICS_GROUP + name + "P99(ms)", formatMillis(histogram.getPercentile(99)));
+    }
+
+    /**
+     * Format milliseconds value
+     *
+     * @param millis value to format
+     * @return value with 3 decimal places
+     */
+    private String formatMillis(double millis) {
+        return String.format(Locale.US, "%.3f", millis);
+    }
+}
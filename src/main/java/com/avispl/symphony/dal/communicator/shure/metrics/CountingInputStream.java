@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that keeps track of the number of bytes read from the underlying stream
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class CountingInputStream extends FilterInputStream {
+    private long count;
+
+    /**
+     * CountingInputStream instantiation
+     *
+     * @param in stream to read from
+     */
+    public CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int result = super.read();
+        if (result >= 0) {
+            count++;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int result = super.read(b, off, len);
+        if (result > 0) {
+            count += result;
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long result = super.skip(n);
+        count += result;
+        return result;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Retrieves number of bytes read
+     *
+     * @return number of bytes read
+     */
+    public long getCount() {
+        return count;
+    }
+}
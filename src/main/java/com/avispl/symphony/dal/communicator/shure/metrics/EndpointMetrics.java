@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request metrics of a single SystemOn API endpoint family: number of requests and errors,
+ * response latency and number of response bytes read
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class EndpointMetrics {
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Register request sent
+     */
+    public void recordRequest() {
+        requests.increment();
+    }
+
+    /**
+     * Register failed request
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Register response latency
+     *
+     * @param latencyNanos time until the response is received, in nanoseconds
+     */
+    public void recordLatency(long latencyNanos) {
+        latency.record(latencyNanos);
+    }
+
+    /**
+     * Register number of response bytes read
+     *
+     * @param bytes number of response bytes
+     */
+    public void recordResponseBytes(long bytes) {
+        responseBytes.add(bytes);
+    }
+
+    /**
+     * Retrieves number of requests sent
+     *
+     * @return number of requests
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Retrieves number of failed requests
+     *
+     * @return number of errors
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Retrieves number of response bytes read
+     *
+     * @return number of response bytes
+     */
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    /**
+     * Retrieves response latency histogram
+     *
+     * @return latency histogram
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
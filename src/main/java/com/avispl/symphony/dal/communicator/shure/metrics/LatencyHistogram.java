@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Low-overhead histogram of durations, with logarithmic buckets.
+ * Durations are recorded in microseconds, every power of two range is split into {@link #SUB_BUCKETS} linear buckets,
+ * so percentiles are reported with the relative error of 25% at most. Recording is a single atomic increment,
+ * no locks or allocations are involved.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Record duration
+     *
+     * @param durationNanos duration, in nanoseconds
+     */
+    public void record(long durationNanos) {
+        buckets.incrementAndGet(bucketIndex(TimeUnit.NANOSECONDS.toMicros(Math.max(0, durationNanos))));
+    }
+
+    /**
+     * Retrieve number of durations recorded
+     *
+     * @return number of durations recorded
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Retrieve percentile of the durations recorded
+     *
+     * @param percentile percentile to retrieve, between 0 and 100
+     * @return upper bound of the bucket the percentile falls into, in milliseconds, or 0 if nothing is recorded
+     */
+    public double getPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += counts[i];
+            if (accumulated >= rank) {
+                return bucketUpperBound(i) / 1000d;
+            }
+        }
+        return bucketUpperBound(BUCKETS - 1) / 1000d;
+    }
+
+    /**
+     * Remove all the durations recorded
+     */
+    public void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+    }
+
+    /**
+     * Calculate bucket index for the value
+     *
+     * @param value to calculate bucket index for
+     * @return bucket index
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Calculate the highest value of the bucket
+     *
+     * @param index of the bucket
+     * @return the highest value that falls into the bucket
+     */
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long bucketWidth = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS | subBucket) << (exponent - SUB_BUCKET_BITS)) + bucketWidth - 1;
+    }
+}
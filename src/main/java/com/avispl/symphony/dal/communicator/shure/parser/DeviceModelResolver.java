@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.parser;
+
+import com.avispl.symphony.dal.aggregator.parser.PropertiesMapping;
+import com.avispl.symphony.dal.aggregator.parser.converter.JsonPropertyConverter;
+import com.avispl.symphony.dal.util.StringUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves model mapping name for a device payload.
+ * Model filters of the form {@code get("model").asText().equals("MXA910")} are indexed by the model name
+ * once, so most of the devices are resolved with a single hash lookup. Only filters that cannot be indexed
+ * are evaluated as expressions.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DeviceModelResolver {
+    private static final Pattern MODEL_FILTER_PATTERN = Pattern.compile("^\\s*get\\(\"model\"\\)\\.asText\\(\\)\\.equals\\(\"([^\"]+)\"\\)\\s*$");
+    private static final String MODEL_FIELD = "model";
+
+    private final JsonPropertyConverter jsonPropertyConverter;
+    /**
+     * Model name, as reported by the SystemOn API, to the model mapping name
+     */
+    private final Map<String, String> modelsIndex = new HashMap<>();
+    /**
+     * Model mapping name to the filter expression, for filters that cannot be indexed
+     */
+    private final Map<String, String> expressionFilters = new HashMap<>();
+
+    /**
+     * DeviceModelResolver instantiation
+     *
+     * @param models model mapping, as loaded from yml configuration
+     * @param jsonPropertyConverter to evaluate filters that cannot be indexed
+     */
+    public DeviceModelResolver(Map<String, PropertiesMapping> models, JsonPropertyConverter jsonPropertyConverter) {
+        this.jsonPropertyConverter = jsonPropertyConverter;
+        models.forEach((name, mapping) -> {
+            String filter = mapping.getFilter();
+            if (StringUtils.isNullOrEmpty(filter)) {
+                return;
+            }
+            Matcher matcher = MODEL_FILTER_PATTERN.matcher(filter);
+            if (matcher.matches()) {
+                modelsIndex.putIfAbsent(matcher.group(1), name);
+            } else {
+                expressionFilters.put(name, filter);
+            }
+        });
+    }
+
+    /**
+     * Resolve model mapping name for the device payload
+     *
+     * @param deviceNode device payload
+     * @return model mapping name, or null if none of the model filters match the payload
+     */
+    public String resolveModelName(JsonNode deviceNode) {
+        JsonNode model = deviceNode.get(MODEL_FIELD);
+        if (model != null && !model.isNull()) {
+            String modelName = modelsIndex.get(model.asText());
+            if (modelName != null) {
+                return modelName;
+            }
+        }
+        for (Map.Entry<String, String> filter : expressionFilters.entrySet()) {
+            if (Boolean.parseBoolean(jsonPropertyConverter.retrieveJsonValue(deviceNode, filter.getValue()))) {
+                return filter.getKey();
+            }
+        }
+        return null;
+    }
+}
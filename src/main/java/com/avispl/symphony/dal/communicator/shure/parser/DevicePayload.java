@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Device payload, read by {@link DevicesStreamReader}, along with the hash of its content.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DevicePayload {
+    private final JsonNode node;
+    private final long hash;
+
+    /**
+     * DevicePayload instantiation
+     *
+     * @param node device json node
+     * @param hash hash of the device payload content
+     */
+    public DevicePayload(JsonNode node, long hash) {
+        this.node = node;
+        this.hash = hash;
+    }
+
+    /**
+     * Retrieves {@link #node}
+     *
+     * @return value of {@link #node}
+     */
+    public JsonNode getNode() {
+        return node;
+    }
+
+    /**
+     * Retrieves {@link #hash}
+     *
+     * @return value of {@link #hash}
+     */
+    public long getHash() {
+        return hash;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.parser;
+
+import com.avispl.symphony.dal.aggregator.parser.PropertiesMapping;
+import com.avispl.symphony.dal.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tree of the device payload fields that are referenced by the model mapping, so the rest of the payload
+ * is never materialized. Paths are derived from the mapping expressions of the form {@code get("dante")?.get("ipAddress")}:
+ * the last field of a path is read as a whole, intermediate fields are only read for the projected children.
+ * Projection of an array field applies to every array element.
+ * If an expression accesses the payload in any other way, the payload is read as a whole, so the mapping
+ * never misses a value.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DeviceProjection {
+    private static final Pattern PATH_PATTERN = Pattern.compile("get\\(\"[^\"]*\"\\)(\\??\\.get\\(\"[^\"]*\"\\))*");
+    private static final Pattern FIELD_PATTERN = Pattern.compile("get\\(\"([^\"]*)\"\\)");
+    private static final Pattern UNSUPPORTED_ACCESS_PATTERN = Pattern.compile("\\b(get|path|at|with|findValue|findValues|findPath|findParent|elements|fields|fieldNames|iterator)\\(");
+
+    /**
+     * Projected children by the field name, null if the node is read as a whole
+     */
+    private Map<String, DeviceProjection> children = new HashMap<>();
+
+    /**
+     * DeviceProjection instantiation. New projection has no fields, use {@link #fromModels(Map, Collection)}
+     * or {@link #complete()} to create one.
+     */
+    private DeviceProjection() {
+    }
+
+    /**
+     * Create projection that reads the payload as a whole
+     *
+     * @return complete projection
+     */
+    public static DeviceProjection complete() {
+        DeviceProjection projection = new DeviceProjection();
+        projection.children = null;
+        return projection;
+    }
+
+    /**
+     * Create projection of the fields that are referenced by the model mapping filters, properties, statistics,
+     * device properties and controls of all the models. Models are resolved after the payload is read,
+     * so the projection is the same for all the models.
+     *
+     * @param models model mapping, as loaded from yml configuration
+     * @param requiredFields top level fields that are read by the adapter itself, e.g. hardwareId
+     * @return projection of the referenced fields
+     */
+    public static DeviceProjection fromModels(Map<String, PropertiesMapping> models, Collection<String> requiredFields) {
+        DeviceProjection projection = new DeviceProjection();
+        requiredFields.forEach(field -> projection.addPath(Arrays.asList(field)));
+        for (PropertiesMapping mapping : models.values()) {
+            if (StringUtils.isNotNullOrEmpty(mapping.getNode())) {
+                // model data is nested under a node, which is not supported by the projection
+                return complete();
+            }
+            boolean supported = projection.addExpression(mapping.getFilter())
+                    && projection.addExpressions(mapping.getProperties())
+                    && projection.addExpressions(mapping.getStatistics())
+                    && projection.addExpressions(mapping.getDynamicStatistics())
+                    && projection.addExpressions(mapping.getDeviceProperties())
+                    && projection.addExpressions(mapping.getControlProperties());
+            if (!supported) {
+                return complete();
+            }
+        }
+        return projection;
+    }
+
+    /**
+     * Check whether the node is read as a whole
+     *
+     * @return true if all the node fields are read, false if only projected children are read
+     */
+    public boolean isComplete() {
+        return children == null;
+    }
+
+    /**
+     * Retrieve projection of the child field
+     *
+     * @param name of the field
+     * @return projection of the field, or null if the field is not read
+     */
+    public DeviceProjection getChild(String name) {
+        return children == null ? this : children.get(name);
+    }
+
+    /**
+     * Add paths referenced by the mapping expressions
+     *
+     * @param expressions mapping expressions by the property name. Control properties are mapped to their
+     * configuration maps rather than to plain expressions, so the values are processed as text
+     * @return false if some of the expressions access the payload in a way that is not supported, true otherwise
+     */
+    private boolean addExpressions(Map<String, ?> expressions) {
+        if (expressions == null) {
+            return true;
+        }
+        for (Object expression : expressions.values()) {
+            if (expression != null && !addExpression(String.valueOf(expression))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add paths referenced by the mapping expression
+     *
+     * @param expression mapping expression, e.g. {@code get("dante")?.get("ipAddress")}, or a constant value
+     * @return false if the expression accesses the payload in a way that is not supported, true otherwise
+     */
+    private boolean addExpression(String expression) {
+        if (StringUtils.isNullOrEmpty(expression)) {
+            return true;
+        }
+        Matcher pathMatcher = PATH_PATTERN.matcher(expression);
+        StringBuffer remainder = new StringBuffer();
+        while (pathMatcher.find()) {
+            List<String> path = new ArrayList<>();
+            Matcher fieldMatcher = FIELD_PATTERN.matcher(pathMatcher.group());
+            while (fieldMatcher.find()) {
+                path.add(fieldMatcher.group(1));
+            }
+            addPath(path);
+            pathMatcher.appendReplacement(remainder, "");
+        }
+        pathMatcher.appendTail(remainder);
+        return !UNSUPPORTED_ACCESS_PATTERN.matcher(remainder).find();
+    }
+
+    /**
+     * Add path of the fields to the projection, the last field of the path is read as a whole
+     *
+     * @param path field names, starting from the top level field
+     */
+    private void addPath(List<String> path) {
+        DeviceProjection node = this;
+        for (String field : path) {
+            if (node.isComplete()) {
+                return;
+            }
+            node = node.children.computeIfAbsent(field, name -> new DeviceProjection());
+        }
+        node.children = null;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for SystemOn devices payloads.
+ * Instead of building a tree for the whole response, devices are read one by one and handed over
+ * to the consumer right away, so only a single device is kept in memory at a time.
+ * Only the fields of the {@link DeviceProjection} are materialized, the rest of the payload (e.g. equalizer filters
+ * of every lobe channel) is skipped.
+ * While a device is read, a 64-bit FNV-1a hash of its tokens is calculated, so unchanged payloads can be detected
+ * without mapping them. Skipped fields do not contribute to the hash.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public class DevicesStreamReader {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final JsonFactory jsonFactory;
+    private final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+    private final DeviceProjection projection;
+
+    /**
+     * DevicesStreamReader instantiation
+     *
+     * @param jsonFactory to create parsers with
+     * @param projection fields of the device payload that should be materialized
+     */
+    public DevicesStreamReader(JsonFactory jsonFactory, DeviceProjection projection) {
+        this.jsonFactory = jsonFactory;
+        this.projection = projection;
+    }
+
+    /**
+     * Read devices from the stream. Both array of devices and a single device object are supported.
+     *
+     * @param stream SystemOn response body
+     * @param deviceConsumer to process every device read
+     * @return number of devices read
+     * @throws IOException if the payload cannot be read
+     */
+    public int readDevices(InputStream stream, Consumer<DevicePayload> deviceConsumer) throws IOException {
+        int devicesRead = 0;
+        try (JsonParser parser = jsonFactory.createParser(stream)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                deviceConsumer.accept(readDevice(parser));
+                return 1;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                return 0;
+            }
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token == JsonToken.START_OBJECT) {
+                    deviceConsumer.accept(readDevice(parser));
+                    devicesRead++;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return devicesRead;
+    }
+
+    /**
+     * Read a single device from the stream
+     *
+     * @param stream SystemOn response body
+     * @return device payload, or null if the response contains no device
+     * @throws IOException if the payload cannot be read
+     */
+    public DevicePayload readDevice(InputStream stream) throws IOException {
+        DevicePayload[] device = new DevicePayload[1];
+        readDevices(stream, node -> {
+            if (device[0] == null) {
+                device[0] = node;
+            }
+        });
+        return device[0];
+    }
+
+    /**
+     * Read device object the parser is currently positioned at
+     *
+     * @param parser positioned at {@link JsonToken#START_OBJECT}
+     * @return device payload
+     * @throws IOException if the payload cannot be read
+     */
+    private DevicePayload readDevice(JsonParser parser) throws IOException {
+        long[] hash = { FNV_OFFSET_BASIS };
+        ObjectNode node = readObject(parser, projection, hash);
+        return new DevicePayload(node, hash[0]);
+    }
+
+    /**
+     * Read object node the parser is currently positioned at, skipping the fields that are not projected
+     *
+     * @param parser positioned at {@link JsonToken#START_OBJECT}
+     * @param objectProjection fields of the object to read
+     * @param hash payload hash to update
+     * @return object node
+     * @throws IOException if the payload cannot be read
+     */
+    private ObjectNode readObject(JsonParser parser, DeviceProjection objectProjection, long[] hash) throws IOException {
+        ObjectNode node = nodeFactory.objectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            DeviceProjection fieldProjection = objectProjection.getChild(name);
+            if (fieldProjection == null) {
+                parser.skipChildren();
+                continue;
+            }
+            updateHash(hash, name);
+            node.set(name, readValue(parser, token, fieldProjection, hash));
+        }
+        updateHash(hash, JsonToken.END_OBJECT.id());
+        return node;
+    }
+
+    /**
+     * Read array node the parser is currently positioned at
+     *
+     * @param parser positioned at {@link JsonToken#START_ARRAY}
+     * @param elementProjection fields of the array elements to read
+     * @param hash payload hash to update
+     * @return array node
+     * @throws IOException if the payload cannot be read
+     */
+    private ArrayNode readArray(JsonParser parser, DeviceProjection elementProjection, long[] hash) throws IOException {
+        ArrayNode node = nodeFactory.arrayNode();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            node.add(readValue(parser, token, elementProjection, hash));
+        }
+        updateHash(hash, JsonToken.END_ARRAY.id());
+        return node;
+    }
+
+    /**
+     * Read value of the current token
+     *
+     * @param parser parser instance
+     * @param token current token
+     * @param valueProjection fields of the value to read, if the value is an object or an array
+     * @param hash payload hash to update
+     * @return json node representation of the value
+     * @throws IOException if the payload cannot be read
+     */
+    private JsonNode readValue(JsonParser parser, JsonToken token, DeviceProjection valueProjection, long[] hash) throws IOException {
+        updateHash(hash, token.id());
+        if (token.isScalarValue()) {
+            updateHash(hash, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        switch (token) {
+            case START_OBJECT:
+                return readObject(parser, valueProjection, hash);
+            case START_ARRAY:
+                return readArray(parser, valueProjection, hash);
+            case VALUE_STRING:
+                return nodeFactory.textNode(parser.getText());
+            case VALUE_NUMBER_INT:
+                switch (parser.getNumberType()) {
+                    case INT:
+                        return nodeFactory.numberNode(parser.getIntValue());
+                    case LONG:
+                        return nodeFactory.numberNode(parser.getLongValue());
+                    default:
+                        return nodeFactory.numberNode(parser.getBigIntegerValue());
+                }
+            case VALUE_NUMBER_FLOAT:
+                return nodeFactory.numberNode(parser.getDoubleValue());
+            case VALUE_TRUE:
+                return nodeFactory.booleanNode(true);
+            case VALUE_FALSE:
+                return nodeFactory.booleanNode(false);
+            case VALUE_NULL:
+                return nodeFactory.nullNode();
+            default:
+                throw new IOException("Unexpected token in SystemOn device payload: " + token);
+        }
+    }
+
+    /**
+     * Update FNV-1a hash with the characters provided
+     *
+     * @param hash hash to update
+     * @param characters to add to the hash
+     * @param offset of the first character
+     * @param length number of characters
+     */
+    private static void updateHash(long[] hash, char[] characters, int offset, int length) {
+        long value = hash[0];
+        for (int i = offset; i < offset + length; i++) {
+            value = (value ^ characters[i]) * FNV_PRIME;
+        }
+        hash[0] = value;
+    }
+
+    /**
+     * Update FNV-1a hash with the field name provided
+     *
+     * @param hash hash to update
+     * @param name to add to the hash
+     */
+    private static void updateHash(long[] hash, String name) {
+        long value = hash[0];
+        for (int i = 0; i < name.length(); i++) {
+            value = (value ^ name.charAt(i)) * FNV_PRIME;
+        }
+        hash[0] = value;
+    }
+
+    /**
+     * Update FNV-1a hash with the token id provided
+     *
+     * @param hash hash to update
+     * @param tokenId to add to the hash
+     */
+    private static void updateHash(long[] hash, int tokenId) {
+        hash[0] = (hash[0] ^ tokenId) * FNV_PRIME;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.concurrency;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates executors for the blocking device I/O: device retrieval, control commands and device initialization.
+ * This is the Java 21+ implementation of the multi-release jar: every task gets its own virtual thread,
+ * so the tasks blocked on the gateway responses do not hold platform threads. The number of tasks running
+ * at a time is still limited, so the gateway is not flooded with requests.
+ *
+ * @author Symphony Dev Team
+ * @since 1.1.4
+ */
+public final class DeviceExecutors {
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private DeviceExecutors() {
+    }
+
+    /**
+     * Whether virtual threads are available in the current runtime
+     *
+     * @return true, virtual threads are available since Java 21
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return true;
+    }
+
+    /**
+     * Create executor that runs up to {@code parallelism} tasks at a time, on virtual threads if preferred.
+     *
+     * @param parallelism maximum number of tasks running at a time
+     * @param preferVirtualThreads whether virtual threads should be used
+     * @return executor instance
+     */
+    public static ExecutorService newDeviceExecutor(int parallelism, boolean preferVirtualThreads) {
+        if (!preferVirtualThreads) {
+            return newPlatformThreadsExecutor(parallelism);
+        }
+        return new ConcurrencyLimitedExecutorService(Executors.newVirtualThreadPerTaskExecutor(), parallelism);
+    }
+
+    /**
+     * Create pool of platform threads, which size matches the parallelism
+     *
+     * @param parallelism maximum number of tasks running at a time
+     * @return executor instance
+     */
+    static ExecutorService newPlatformThreadsExecutor(int parallelism) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -5,7 +5,7 @@ package com.avispl.symphony.communicator.shure;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
-import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.google.common.io.Resources.getResource;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -17,6 +17,7 @@ import com.google.common.io.Resources;
 import java.io.IOException;
 import java.util.List;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -39,34 +40,59 @@ public class ShureSystemOnDevicesTest {
         shureSystemOn.init();
     }
 
+    @After
+    public void tearDown() {
+        shureSystemOn.destroy();
+    }
+
     private static String resource(String s) throws IOException {
         return Resources.toString(getResource(s), UTF_8);
     }
 
+    /**
+     * Devices are collected asynchronously and become available one by one,
+     * so the first calls may return an incomplete list
+     */
+    private List<AggregatedDevice> retrieveDevices(int expectedNumber) throws Exception {
+        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        for (int i = 0; i < 50 && devices.size() < expectedNumber; i++) {
+            Thread.sleep(200);
+            devices = shureSystemOn.retrieveMultipleStatistics();
+        }
+        return devices;
+    }
+
+    /**
+     * Devices are cached unordered, so the device checked is picked by its hardwareId
+     */
+    private static AggregatedDevice device(List<AggregatedDevice> devices, String hardwareId) {
+        return devices.stream().filter(device -> hardwareId.equals(device.getDeviceId())).findFirst().orElseThrow(AssertionError::new);
+    }
+
     @Test
     public void shureSystemOnAniusbTest() throws Exception {
-        wireMockRule.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        wireMockRule.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/responces/ANIUSB.json")).build());
 
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(2);
         Assert.assertEquals(2, devices.size());
-        AggregatedDevice device = devices.get(0);
+        AggregatedDevice device = device(devices, "dd506beb-0000-11dd-a000-000eddcccccc");
 
         checkForEmptyFields(device);
         Assert.assertEquals("ANIUSB", device.getDeviceModel());
         Assert.assertEquals(0, device.getControl().size());
         Assert.assertEquals(4, device.getControllableProperties().size());
-        Assert.assertEquals(34, device.getProperties().size());
+        Assert.assertEquals(31, device.getProperties().size());
     }
 
     @Test
     public void shureSystemOnImxRoomTest() throws Exception {
-        wireMockRule.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        wireMockRule.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/responces/IMX-Room.json")).build());
 
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(3);
         Assert.assertEquals(3, devices.size());
-        AggregatedDevice device = devices.get(0);
+        AggregatedDevice device = device(devices, "94c691aa-1363-11e9-a000-000eddaaaaaa");
 
         checkForEmptyFields(device);
         Assert.assertEquals("IMX-Room", device.getDeviceModel());
@@ -77,12 +103,12 @@ public class ShureSystemOnDevicesTest {
 
     @Test
     public void shureSystemOnMXA310Test() throws Exception {
-        wireMockRule.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        wireMockRule.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/responces/MXA310.json")).build());
 
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(1);
         Assert.assertEquals(1, devices.size());
-        AggregatedDevice device = devices.get(0);
+        AggregatedDevice device = device(devices, "dd51a1cc-0000-11dd-a000-000eddcccccc");
 
         checkForEmptyFields(device);
         Assert.assertEquals("MXA310", device.getDeviceModel());
@@ -93,12 +119,12 @@ public class ShureSystemOnDevicesTest {
 
     @Test
     public void shureSystemOnMXA910Test() throws Exception {
-        wireMockRule.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        wireMockRule.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/responces/MXA910.json")).build());
 
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(3);
         Assert.assertEquals(3, devices.size());
-        AggregatedDevice device = devices.get(0);
+        AggregatedDevice device = device(devices, "dd504759-0000-11dd-a000-000eddcccccc");
 
         checkForEmptyFields(device);
         Assert.assertEquals("MXA910", device.getDeviceModel());
@@ -109,12 +135,12 @@ public class ShureSystemOnDevicesTest {
 
     @Test
     public void shureSystemOnMXWAPT8Test() throws Exception {
-        wireMockRule.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        wireMockRule.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/responces/MXWAPT8.json")).build());
 
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(2);
         Assert.assertEquals(2, devices.size());
-        AggregatedDevice device = devices.get(0);
+        AggregatedDevice device = device(devices, "dd404238-0000-11dd-a000-000eddcccccc");
 
         checkForEmptyFields(device);
         Assert.assertEquals("MXWAPT8", device.getDeviceModel());
@@ -125,12 +151,12 @@ public class ShureSystemOnDevicesTest {
 
     @Test
     public void shureSystemOnMXWNCS4Test() throws Exception {
-        wireMockRule.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        wireMockRule.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/responces/MXWNCS4.json")).build());
 
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(2);
         Assert.assertEquals(2, devices.size());
-        AggregatedDevice device = devices.get(0);
+        AggregatedDevice device = device(devices, "dd408167-0000-11dd-a000-000eddcccccc");
 
         checkForEmptyFields(device);
         Assert.assertEquals("MXWNCS4", device.getDeviceModel());
@@ -141,12 +167,12 @@ public class ShureSystemOnDevicesTest {
 
     @Test
     public void shureSystemOnP300Test() throws Exception {
-        wireMockRule.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        wireMockRule.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/responces/P300.json")).build());
 
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(2);
         Assert.assertEquals(2, devices.size());
-        AggregatedDevice device = devices.get(0);
+        AggregatedDevice device = device(devices, "dd5121fb-0000-11dd-a000-000eddcccccc");
 
         checkForEmptyFields(device);
         Assert.assertEquals("P300", device.getDeviceModel());
@@ -157,12 +183,12 @@ public class ShureSystemOnDevicesTest {
 
     @Test
     public void shureSystemOnSBC850Test() throws Exception {
-        wireMockRule.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        wireMockRule.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/responces/SBC850.json")).build());
 
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(1);
         Assert.assertEquals(1, devices.size());
-        AggregatedDevice device = devices.get(0);
+        AggregatedDevice device = device(devices, "dd44cd02-0000-11dd-a000-000eddcccccc");
 
         checkForEmptyFields(device);
         Assert.assertEquals("SBC850", device.getDeviceModel());
@@ -173,12 +199,12 @@ public class ShureSystemOnDevicesTest {
 
     @Test
     public void shureSystemOnSCM820DANTest() throws Exception {
-        wireMockRule.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        wireMockRule.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/responces/SCM820-DAN.json")).build());
 
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(1);
         Assert.assertEquals(1, devices.size());
-        AggregatedDevice device = devices.get(0);
+        AggregatedDevice device = device(devices, "ddfe0028-0000-11dd-a000-000eddcccccc");
 
         checkForEmptyFields(device);
         Assert.assertEquals("SCM820-DAN", device.getDeviceModel());
@@ -4,11 +4,24 @@
 package com.avispl.symphony.communicator.shure;
 
 import com.avispl.symphony.api.dal.dto.control.ControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
 import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
+import com.avispl.symphony.api.dal.error.CommandFailureException;
 import com.avispl.symphony.dal.communicator.shure.ShureSystemOn;
+import com.avispl.symphony.dal.communicator.shure.control.ControlOutcome;
+import com.avispl.symphony.dal.communicator.shure.error.ControlBatchException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.io.Resources;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -16,8 +29,20 @@ import org.junit.Test;
 import org.junit.jupiter.api.Tag;
 
 import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.google.common.io.Resources.getResource;
@@ -35,9 +60,45 @@ public class ShureSystemOnTest {
         return Resources.toString(getResource(s), UTF_8);
     }
 
+    /**
+     * Devices are collected asynchronously and become available one by one,
+     * so the first calls may return an incomplete list
+     */
+    private List<AggregatedDevice> retrieveDevices(int expectedNumber) throws Exception {
+        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        for (int i = 0; i < 50 && devices.size() < expectedNumber; i++) {
+            Thread.sleep(200);
+            devices = shureSystemOn.retrieveMultipleStatistics();
+        }
+        return devices;
+    }
+
+    private long completedCycles() throws Exception {
+        Map<String, String> statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+        return Long.parseLong(statistics.getOrDefault("Metrics#Cycles", "0"));
+    }
+
+    private long waitForCycles(long expectedNumber) throws Exception {
+        long cycles = completedCycles();
+        for (int i = 0; i < 50 && cycles < expectedNumber; i++) {
+            Thread.sleep(200);
+            cycles = completedCycles();
+        }
+        return cycles;
+    }
+
+    private int devicesListRequestsNumber() {
+        return service.findAll(getRequestedFor(urlPathEqualTo("/api/v1.0/devices"))).size();
+    }
+
+    private int conditionalRequestsNumber(String hardwareId) {
+        return service.findAll(getRequestedFor(urlEqualTo("/api/v1.0/devices/" + hardwareId))
+            .withHeader("If-None-Match", containing(hardwareId + "-v1"))).size();
+    }
+
     @Before
     public void setUp() throws Exception {
-        service.stubFor(get(urlEqualTo("/api/v1.0/devices")))
+        service.stubFor(get(urlPathEqualTo("/api/v1.0/devices")))
             .setResponse(okJson(resource("shure/devices-response.json")).build());
 
         service.stubFor(put(urlMatching(".*/api/v1.0/devices/.*"))).setResponse(ok().build());
@@ -51,9 +112,14 @@ public class ShureSystemOnTest {
         shureSystemOn.init();
     }
 
+    @After
+    public void tearDown() {
+        shureSystemOn.destroy();
+    }
+
     @Test
     public void retrieveMultipleStatisticsTest() throws Exception {
-        List<AggregatedDevice> devices = shureSystemOn.retrieveMultipleStatistics();
+        List<AggregatedDevice> devices = retrieveDevices(9);
 
         Assert.assertEquals(9, devices.size());
 
@@ -65,9 +131,364 @@ public class ShureSystemOnTest {
         Assert.assertNotEquals("", device.getProperties().get("DeviceVersion"));
     }
 
+    @Test
+    public void compactPropertiesTest() throws Exception {
+        AggregatedDevice device = retrieveDevices(9).get(0);
+        Map<String, String> properties = device.getProperties();
+        Map<String, String> expectedProperties = new HashMap<>(properties);
+
+        // Devices are handed over with immutable copies of the compact cached properties
+        Assert.assertEquals(expectedProperties, properties);
+        Assert.assertEquals(expectedProperties.hashCode(), properties.hashCode());
+        try {
+            properties.put("ExtraProperty", "true");
+            Assert.fail("Properties of the retrieved device are expected to be immutable");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertFalse(properties.containsKey("ExtraProperty"));
+        }
+
+        Map<String, String> statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+        Assert.assertTrue(Integer.parseInt(statistics.get("Metrics#SharedPropertyValues")) > 0);
+    }
+
+    @Test
+    public void retrieveMultipleStatisticsPaginatedTest() throws Exception {
+        ArrayNode devicesList = (ArrayNode) new ObjectMapper().readTree(resource("shure/devices-response.json"));
+        ArrayNode firstPage = JsonNodeFactory.instance.arrayNode();
+        ArrayNode secondPage = JsonNodeFactory.instance.arrayNode();
+        for (int i = 0; i < devicesList.size(); i++) {
+            (i < 5 ? firstPage : secondPage).add(devicesList.get(i));
+        }
+        service.stubFor(get(urlPathEqualTo("/api/v1.0/devices")).withQueryParam("pageNumber", equalTo("1"))
+            .willReturn(okJson(firstPage.toString())));
+        service.stubFor(get(urlPathEqualTo("/api/v1.0/devices")).withQueryParam("pageNumber", equalTo("2"))
+            .willReturn(okJson(secondPage.toString())));
+        shureSystemOn.setDeviceNumberPerPage(5);
+
+        List<AggregatedDevice> devices = retrieveDevices(devicesList.size());
+
+        Assert.assertEquals(9, devices.size());
+        service.verify(1, getRequestedFor(urlPathEqualTo("/api/v1.0/devices"))
+            .withQueryParam("pageNumber", equalTo("1")).withQueryParam("pageSize", equalTo("5")));
+        service.verify(1, getRequestedFor(urlPathEqualTo("/api/v1.0/devices"))
+            .withQueryParam("pageNumber", equalTo("2")).withQueryParam("pageSize", equalTo("5")));
+        service.verify(0, getRequestedFor(urlPathEqualTo("/api/v1.0/devices"))
+            .withQueryParam("pageNumber", equalTo("3")));
+    }
+
+    @Test
+    public void retrieveMultipleStatisticsModelPatternsTest() throws Exception {
+        shureSystemOn.destroy();
+        shureSystemOn.setDeviceModelFilter("MXA*, MXW6?, !MXA910");
+        shureSystemOn.init();
+
+        List<AggregatedDevice> devices = retrieveDevices(2);
+
+        Assert.assertEquals(2, devices.size());
+        for (AggregatedDevice device : devices) {
+            Assert.assertEquals("MXA310", device.getDeviceModel());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidModelPatternTest() {
+        shureSystemOn.setDeviceModelFilter("/MXA(310/");
+    }
+
+    @Test
+    public void retrieveMultipleStatisticsByHardwareIdsTest() throws Exception {
+        ArrayNode devicesList = (ArrayNode) new ObjectMapper().readTree(resource("shure/devices-response.json"));
+        List<String> hardwareIds = new ArrayList<>();
+        for (int i = 0; i < devicesList.size(); i++) {
+            String hardwareId = devicesList.get(i).get("hardwareId").asText();
+            service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + hardwareId))
+                .willReturn(okJson(devicesList.get(i).toString()).withFixedDelay(100)));
+            hardwareIds.add(hardwareId);
+        }
+        shureSystemOn.destroy();
+        shureSystemOn.setHardwareIdFilter(String.join(",", hardwareIds));
+        shureSystemOn.setMaxConcurrentDeviceRequests(4);
+        shureSystemOn.init();
+
+        List<AggregatedDevice> devices = retrieveDevices(hardwareIds.size());
+
+        Assert.assertEquals(hardwareIds.size(), devices.size());
+        for (String hardwareId : hardwareIds) {
+            Assert.assertFalse(service.findAll(getRequestedFor(urlEqualTo("/api/v1.0/devices/" + hardwareId))).isEmpty());
+        }
+    }
+
+    @Test
+    public void retrieveMultipleStatisticsAsyncTest() throws Exception {
+        ArrayNode devicesList = (ArrayNode) new ObjectMapper().readTree(resource("shure/devices-response.json"));
+        List<String> hardwareIds = new ArrayList<>();
+        for (int i = 0; i < devicesList.size(); i++) {
+            String hardwareId = devicesList.get(i).get("hardwareId").asText();
+            service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + hardwareId))
+                .willReturn(okJson(devicesList.get(i).toString()).withFixedDelay(100)));
+            hardwareIds.add(hardwareId);
+        }
+        String failingHardwareId = "00000000-0000-0000-0000-000000000000";
+        service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + failingHardwareId)).willReturn(aResponse().withStatus(404)));
+        shureSystemOn.destroy();
+        shureSystemOn.setHardwareIdFilter(String.join(",", hardwareIds) + "," + failingHardwareId);
+        shureSystemOn.setAsyncDeviceRequests(true);
+        shureSystemOn.setAsyncIoThreads(1);
+        shureSystemOn.init();
+
+        List<AggregatedDevice> devices = retrieveDevices(hardwareIds.size());
+        Map<String, String> statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+        for (int i = 0; i < 50 && !statistics.containsKey("Errors#CommandFailureException[" + failingHardwareId + "]"); i++) {
+            Thread.sleep(200);
+            statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+        }
+
+        Assert.assertEquals(hardwareIds.size(), devices.size());
+        Assert.assertEquals("true", statistics.get("Metrics#AsyncDeviceRequests"));
+        Assert.assertTrue(statistics.containsKey("Errors#CommandFailureException[" + failingHardwareId + "]"));
+        for (String hardwareId : hardwareIds) {
+            Assert.assertFalse(service.findAll(getRequestedFor(urlEqualTo("/api/v1.0/devices/" + hardwareId))
+                .withHeader("Authorization", equalTo("test")).withHeader("Accept-Encoding", equalTo("gzip"))).isEmpty());
+        }
+    }
+
+    @Test
+    public void retrieveMultipleStatisticsUpToDateHardwareIdsTest() throws Exception {
+        ArrayNode devicesList = JsonNodeFactory.instance.arrayNode();
+        List<String> hardwareIds = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String hardwareId = "listed-device-" + i;
+            devicesList.addObject().put("hardwareId", hardwareId).put("model", "SBC850").put("name", hardwareId);
+            hardwareIds.add(hardwareId);
+        }
+        service.stubFor(get(urlPathEqualTo("/api/v1.0/devices")).willReturn(okJson(devicesList.toString())));
+        shureSystemOn.destroy();
+        shureSystemOn.setHardwareIdFilter(String.join(",", hardwareIds));
+        shureSystemOn.setDeviceModelFilter("SBC850");
+        shureSystemOn.setAsyncDeviceRequests(true);
+        shureSystemOn.init();
+
+        // Listed devices are up to date, so their retrievals by hardwareId complete synchronously, one after another
+        Assert.assertEquals(hardwareIds.size(), retrieveDevices(hardwareIds.size()).size());
+        Assert.assertTrue(waitForCycles(1) >= 1);
+        Assert.assertTrue(service.findAll(getRequestedFor(urlMatching("/api/v1.0/devices/listed-device-.*"))).isEmpty());
+    }
+
+    @Test
+    public void retrieveMultipleStatisticsNotModifiedTest() throws Exception {
+        ArrayNode devicesList = (ArrayNode) new ObjectMapper().readTree(resource("shure/devices-response.json"));
+        List<String> hardwareIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String hardwareId = devicesList.get(i).get("hardwareId").asText();
+            String eTag = "\"" + hardwareId + "-v1\"";
+            service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + hardwareId))
+                .willReturn(okJson(devicesList.get(i).toString()).withHeader("ETag", eTag)));
+            // WireMock gzip handler adds a suffix to the ETag, so the validator is matched partially
+            service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + hardwareId)).withHeader("If-None-Match", containing(hardwareId + "-v1"))
+                .willReturn(aResponse().withStatus(304).withHeader("ETag", eTag)));
+            hardwareIds.add(hardwareId);
+        }
+        shureSystemOn.destroy();
+        shureSystemOn.setHardwareIdFilter(String.join(",", hardwareIds));
+        shureSystemOn.setStatisticsRefreshInterval(5000);
+        shureSystemOn.init();
+
+        List<AggregatedDevice> devices = retrieveDevices(2);
+        for (int i = 0; i < 50 && hardwareIds.stream().anyMatch(hardwareId -> conditionalRequestsNumber(hardwareId) < 1); i++) {
+            Thread.sleep(200);
+            devices = shureSystemOn.retrieveMultipleStatistics();
+        }
+
+        Assert.assertEquals(2, devices.size());
+        for (AggregatedDevice device : devices) {
+            Assert.assertTrue(hardwareIds.contains(device.getDeviceId()));
+            Assert.assertFalse(device.getProperties().isEmpty());
+        }
+        for (String hardwareId : hardwareIds) {
+            service.verify(1, getRequestedFor(urlEqualTo("/api/v1.0/devices/" + hardwareId)).withoutHeader("If-None-Match"));
+            Assert.assertTrue(conditionalRequestsNumber(hardwareId) >= 1);
+        }
+    }
+
+    @Test
+    public void retrieveMultipleStatisticsRefreshTiersTest() throws Exception {
+        ArrayNode devicesList = (ArrayNode) new ObjectMapper().readTree(resource("shure/devices-response.json"));
+        ObjectNode device = (ObjectNode) devicesList.get(4);
+        String hardwareId = device.get("hardwareId").asText();
+        service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + hardwareId)).willReturn(okJson(device.toString())));
+        shureSystemOn.destroy();
+        shureSystemOn.setHardwareIdFilter(hardwareId);
+        shureSystemOn.setStatisticsRefreshInterval(5000);
+        shureSystemOn.init();
+
+        Assert.assertEquals("100", statistics(retrieveDevices(1).get(0)).get("BatteryPercentage"));
+
+        device.put("batteryPercentage", 50).put("batteryCycleCount", 10).put("onAir", true);
+        service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + hardwareId)).willReturn(okJson(device.toString())));
+        AggregatedDevice aggregatedDevice = retrieveDevices(1).get(0);
+        for (int i = 0; i < 50 && !"50".equals(statistics(aggregatedDevice).get("BatteryPercentage")); i++) {
+            Thread.sleep(200);
+            aggregatedDevice = retrieveDevices(1).get(0);
+        }
+
+        Assert.assertEquals("50", statistics(aggregatedDevice).get("BatteryPercentage"));
+        Assert.assertEquals("true", aggregatedDevice.getProperties().get("OnAir"));
+        // Static properties are only refreshed once per properties refresh interval
+        Assert.assertEquals("0", aggregatedDevice.getProperties().get("BatteryCycleCount"));
+    }
+
+    @Test
+    public void retrieveMultipleStatisticsUnchangedPayloadTest() throws Exception {
+        ArrayNode devicesList = (ArrayNode) new ObjectMapper().readTree(resource("shure/devices-response.json"));
+        ObjectNode device = (ObjectNode) devicesList.get(4);
+        String hardwareId = device.get("hardwareId").asText();
+        service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + hardwareId)).willReturn(okJson(device.toString())));
+        shureSystemOn.destroy();
+        shureSystemOn.setHardwareIdFilter(hardwareId);
+        shureSystemOn.setStatisticsRefreshInterval(5000);
+        shureSystemOn.init();
+
+        Assert.assertEquals("100", statistics(retrieveDevices(1).get(0)).get("BatteryPercentage"));
+        Map<String, String> statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+        Assert.assertEquals("0", statistics.get("Metrics#UnchangedPayloads"));
+
+        // The same payload is retrieved again once the statistics refresh is due, and is not mapped
+        for (int i = 0; i < 50 && "0".equals(statistics.get("Metrics#UnchangedPayloads")); i++) {
+            Thread.sleep(200);
+            retrieveDevices(1);
+            statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+        }
+        Assert.assertEquals("1", statistics.get("Metrics#UnchangedPayloads"));
+
+        device.put("batteryPercentage", 50);
+        service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + hardwareId)).willReturn(okJson(device.toString())));
+        AggregatedDevice aggregatedDevice = retrieveDevices(1).get(0);
+        for (int i = 0; i < 50 && !"50".equals(statistics(aggregatedDevice).get("BatteryPercentage")); i++) {
+            Thread.sleep(200);
+            aggregatedDevice = retrieveDevices(1).get(0);
+        }
+        Assert.assertEquals("50", statistics(aggregatedDevice).get("BatteryPercentage"));
+        statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+        Assert.assertEquals("1", statistics.get("Metrics#UnchangedPayloads"));
+    }
+
+    @Test
+    public void retrieveMultipleStatisticsCircuitBreakerTest() throws Exception {
+        ArrayNode devicesList = (ArrayNode) new ObjectMapper().readTree(resource("shure/devices-response.json"));
+        String hardwareId = devicesList.get(0).get("hardwareId").asText();
+        String failingHardwareId = devicesList.get(1).get("hardwareId").asText();
+        service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + hardwareId)).willReturn(okJson(devicesList.get(0).toString())));
+        service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + failingHardwareId)).willReturn(okJson(devicesList.get(1).toString())));
+        shureSystemOn.destroy();
+        shureSystemOn.setHardwareIdFilter(hardwareId + "," + failingHardwareId);
+        shureSystemOn.setStatisticsRefreshInterval(5000);
+        shureSystemOn.setDeviceFailureThreshold(1);
+        shureSystemOn.setDeviceRetryBackoff(60000);
+        shureSystemOn.init();
+
+        Assert.assertEquals(2, retrieveDevices(2).size());
+
+        service.stubFor(get(urlEqualTo("/api/v1.0/devices/" + failingHardwareId)).willReturn(aResponse().withStatus(500)));
+        AggregatedDevice failingDevice = null;
+        for (int i = 0; i < 50 && (failingDevice == null || !failingDevice.getProperties().containsKey("StaleData")); i++) {
+            Thread.sleep(200);
+            failingDevice = retrieveDevices(2).stream().filter(device -> failingHardwareId.equals(device.getDeviceId())).findFirst().orElse(null);
+        }
+        Assert.assertNotNull(failingDevice);
+        Assert.assertEquals("true", failingDevice.getProperties().get("StaleData"));
+
+        // Both devices are due for refresh again, but the failing one is not requested until the backoff period is over
+        int requestsNumber = service.findAll(getRequestedFor(urlEqualTo("/api/v1.0/devices/" + hardwareId))).size();
+        for (int i = 0; i < 50 && service.findAll(getRequestedFor(urlEqualTo("/api/v1.0/devices/" + hardwareId))).size() == requestsNumber; i++) {
+            Thread.sleep(200);
+            retrieveDevices(2);
+        }
+        List<AggregatedDevice> devices = retrieveDevices(2);
+        Assert.assertEquals(2, devices.size());
+        service.verify(2, getRequestedFor(urlEqualTo("/api/v1.0/devices/" + failingHardwareId)));
+        Assert.assertTrue(service.findAll(getRequestedFor(urlEqualTo("/api/v1.0/devices/" + hardwareId))).size() > requestsNumber);
+    }
+
+    @Test
+    public void loaderSignalTest() throws Exception {
+        shureSystemOn.destroy();
+        shureSystemOn.setStatisticsRefreshInterval(60000);
+        shureSystemOn.init();
+        retrieveDevices(9);
+        waitForCycles(1);
+        // Let the cycles signalled by the retrieval calls above finish
+        Thread.sleep(1000);
+        long cycles = completedCycles();
+
+        // Next scheduled cycle is a minute away, so nothing runs until the next signal
+        Thread.sleep(1000);
+        Assert.assertEquals(cycles, completedCycles());
+
+        shureSystemOn.retrieveMultipleStatistics();
+        Assert.assertEquals(cycles + 1, waitForCycles(cycles + 1));
+    }
+
+    @Test
+    public void loaderCyclesDoNotOverlapTest() throws Exception {
+        service.stubFor(get(urlPathEqualTo("/api/v1.0/devices"))
+            .willReturn(okJson(resource("shure/devices-response.json")).withFixedDelay(1500)));
+        shureSystemOn.destroy();
+        shureSystemOn.setStatisticsRefreshInterval(60000);
+        shureSystemOn.init();
+
+        // Signals sent while the cycle is running are ignored, instead of starting cycles in parallel
+        for (int i = 0; i < 10; i++) {
+            shureSystemOn.retrieveMultipleStatistics();
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(1, waitForCycles(1));
+        Thread.sleep(500);
+
+        Assert.assertEquals(1, completedCycles());
+        Assert.assertEquals(1, devicesListRequestsNumber());
+        Assert.assertEquals(9, shureSystemOn.retrieveMultipleStatistics().size());
+    }
+
+    @Test
+    public void loaderStopRestartTest() throws Exception {
+        Assert.assertEquals(9, retrieveDevices(9).size());
+        shureSystemOn.destroy();
+        int requestsNumber = devicesListRequestsNumber();
+
+        // Stopped loader sends no requests and schedules no cycles
+        Thread.sleep(1000);
+        Assert.assertEquals(requestsNumber, devicesListRequestsNumber());
+
+        shureSystemOn.init();
+        Assert.assertEquals(9, retrieveDevices(9).size());
+        Assert.assertTrue(waitForCycles(1) >= 1);
+        Assert.assertTrue(devicesListRequestsNumber() > requestsNumber);
+    }
+
+    @Test
+    public void getMultipleStatisticsMetricsTest() throws Exception {
+        String deviceId = retrieveDevices(9).get(0).getDeviceId();
+        shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, deviceId));
+
+        Map<String, String> statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+        Assert.assertTrue(Long.parseLong(statistics.get("Metrics#DevicesListRequests")) >= 1);
+        Assert.assertEquals("0", statistics.get("Metrics#DevicesListErrors"));
+        Assert.assertTrue(Long.parseLong(statistics.get("Metrics#DevicesListResponseBytes")) > 0);
+        Assert.assertNotNull(statistics.get("Metrics#DevicesListLatencyP95(ms)"));
+        Assert.assertNotNull(statistics.get("Metrics#PayloadParseTimeP50(ms)"));
+        Assert.assertNotNull(statistics.get("Metrics#DeviceMappingTimeP99(ms)"));
+        Assert.assertEquals("1", statistics.get("Metrics#ControlMuteRequests"));
+        Assert.assertNotNull(statistics.get("Metrics#DeviceRequestsLimit"));
+        Assert.assertNotNull(statistics.get("Metrics#SharedRequestsInFlight"));
+        // Set by the java21 profile, which runs the tests against the multi-release jar
+        if (Boolean.getBoolean("expectVirtualThreads")) {
+            Assert.assertEquals("true", statistics.get("Metrics#VirtualThreads"));
+        }
+    }
+
     @Test
     public void muteOnTest() throws Exception {
-        String deviceId = shureSystemOn.retrieveMultipleStatistics().get(0).getDeviceId();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
         shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, deviceId));
 
         service.verify(patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute"))
@@ -76,7 +497,7 @@ public class ShureSystemOnTest {
 
     @Test
     public void muteOffTest() throws Exception {
-        String deviceId = shureSystemOn.retrieveMultipleStatistics().get(0).getDeviceId();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
         shureSystemOn.controlProperty(new ControllableProperty("Mute", 0, deviceId));
 
         service.verify(patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute"))
@@ -85,7 +506,7 @@ public class ShureSystemOnTest {
 
     @Test
     public void encryptionOnTest() throws Exception {
-        String deviceId = shureSystemOn.retrieveMultipleStatistics().get(0).getDeviceId();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
         shureSystemOn.controlProperty(new ControllableProperty("DanteEncryption", 1, deviceId));
 
         service.verify(patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/encryption/audio/enable")));
@@ -93,7 +514,7 @@ public class ShureSystemOnTest {
 
     @Test
     public void encryptionOffTest() throws Exception {
-        String deviceId = shureSystemOn.retrieveMultipleStatistics().get(0).getDeviceId();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
         shureSystemOn.controlProperty(new ControllableProperty("DanteEncryption", 0, deviceId));
 
         service.verify(patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/encryption/audio/disable")));
@@ -101,7 +522,7 @@ public class ShureSystemOnTest {
 
     @Test
     public void resetTest() throws Exception {
-        String deviceId = shureSystemOn.retrieveMultipleStatistics().get(0).getDeviceId();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
         shureSystemOn.controlProperty(new ControllableProperty("Reset", null, deviceId));
 
         service.verify(postRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/maintenance/defaultsreset")));
@@ -109,7 +530,7 @@ public class ShureSystemOnTest {
 
     @Test
     public void rebootTest() throws Exception {
-        String deviceId = shureSystemOn.retrieveMultipleStatistics().get(0).getDeviceId();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
         shureSystemOn.controlProperty(new ControllableProperty("Reboot", null, deviceId));
 
         service.verify(postRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/maintenance/reboot")));
@@ -117,7 +538,7 @@ public class ShureSystemOnTest {
 
     @Test
     public void automixerBypassTest() throws Exception {
-        String deviceId = shureSystemOn.retrieveMultipleStatistics().get(0).getDeviceId();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
         shureSystemOn.controlProperty(new ControllableProperty("BypassAllEq", null, deviceId));
 
         service.verify(putRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/automixer/bypass")));
@@ -127,4 +548,362 @@ public class ShureSystemOnTest {
     public void controlPropertiesTest() throws Exception {
         shureSystemOn.controlProperties(Collections.emptyList());
     }
+
+    @Test
+    public void controlLocalUpdateTest() throws Exception {
+        AggregatedDevice device = retrieveDevices(9).stream().filter(aggregatedDevice -> aggregatedDevice.getControllableProperties().stream()
+            .anyMatch(property -> "Mute".equals(property.getName()))).findFirst().orElseThrow(AssertionError::new);
+
+        shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, device.getDeviceId()));
+
+        // Devices are handed over as copies, so the local update is only visible to the next retrieval
+        Assert.assertNotEquals(1, device.getControllableProperties().stream().filter(property -> "Mute".equals(property.getName()))
+            .findFirst().get().getValue());
+        AggregatedDevice updatedDevice = shureSystemOn.retrieveMultipleStatistics().stream()
+            .filter(aggregatedDevice -> device.getDeviceId().equals(aggregatedDevice.getDeviceId())).findFirst().orElseThrow(AssertionError::new);
+        Assert.assertEquals(1, updatedDevice.getControllableProperties().stream().filter(property -> "Mute".equals(property.getName()))
+            .findFirst().get().getValue());
+    }
+
+    @Test
+    public void controlUnknownDeviceTest() throws Exception {
+        retrieveDevices(9);
+
+        shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, "unknown-device"));
+
+        service.verify(patchRequestedFor(urlEqualTo("/api/v1.0/devices/unknown-device/audio/mute")));
+    }
+
+    /**
+     * Device controls fail with DeviceNotInitialized until the device is initialized
+     */
+    private void stubDeviceInitialization(String deviceId, int initializationDelay) {
+        String scenario = "Initialization of " + deviceId;
+        service.stubFor(patch(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute")).inScenario(scenario)
+            .whenScenarioStateIs(Scenario.STARTED).willReturn(aResponse().withStatus(400).withBody("{\"code\": \"DeviceNotInitialized\"}")));
+        service.stubFor(post(urlEqualTo("/api/v1.0/devices/" + deviceId + "/initialize")).inScenario(scenario)
+            .willReturn(ok().withFixedDelay(initializationDelay)).willSetStateTo("Initialized"));
+        service.stubFor(patch(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute")).inScenario(scenario)
+            .whenScenarioStateIs("Initialized").willReturn(ok()));
+    }
+
+    @Test
+    public void controlWithoutInitializationTest() throws Exception {
+        shureSystemOn.destroy();
+        shureSystemOn.setProactiveDeviceInitialization(false);
+        shureSystemOn.init();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
+        service.stubFor(post(urlEqualTo("/api/v1.0/devices/" + deviceId + "/initialize")).willReturn(aResponse().withStatus(500)));
+
+        shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, deviceId));
+        shureSystemOn.controlProperty(new ControllableProperty("Mute", 0, deviceId));
+
+        // Devices that accept controls are not initialized, so a failing initialization does not affect them
+        service.verify(0, postRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/initialize")));
+        service.verify(2, patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute")));
+    }
+
+    @Test
+    public void controlInitializationTest() throws Exception {
+        shureSystemOn.destroy();
+        shureSystemOn.setProactiveDeviceInitialization(false);
+        shureSystemOn.init();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
+        stubDeviceInitialization(deviceId, 0);
+
+        shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, deviceId));
+        shureSystemOn.controlProperty(new ControllableProperty("Mute", 0, deviceId));
+
+        // The device is initialized once the gateway reports it is not, and the control is retried
+        service.verify(1, postRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/initialize")));
+        service.verify(3, patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute")));
+    }
+
+    @Test
+    public void controlDeviceNotInitializedTest() throws Exception {
+        shureSystemOn.destroy();
+        shureSystemOn.setProactiveDeviceInitialization(false);
+        shureSystemOn.init();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
+        service.stubFor(patch(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute"))
+            .willReturn(aResponse().withStatus(400).withBody("{\"code\": \"DeviceNotInitialized\"}")));
+
+        try {
+            shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, deviceId));
+            Assert.fail("Control is expected to fail");
+        } catch (CommandFailureException e) {
+            // The control is retried once after the device initialization, and is not retried any further
+            service.verify(2, patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute")));
+            service.verify(1, postRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/initialize")));
+        }
+    }
+
+    @Test
+    public void controlConcurrentInitializationTest() throws Exception {
+        shureSystemOn.destroy();
+        shureSystemOn.setProactiveDeviceInitialization(false);
+        shureSystemOn.init();
+        String deviceId = retrieveDevices(1).get(0).getDeviceId();
+        stubDeviceInitialization(deviceId, 1000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> controls = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                controls.add(executor.submit(() -> {
+                    start.await();
+                    shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, deviceId));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> control : controls) {
+                control.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Concurrent controls share the initialization request in flight, and are retried once it is complete
+        service.verify(1, postRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/initialize")));
+        Assert.assertTrue(service.findAll(patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute"))).size() > 5);
+    }
+
+    @Test
+    public void initializeDevicesInAdvanceTest() throws Exception {
+        retrieveDevices(9);
+        for (int i = 0; i < 50 && service.findAll(postRequestedFor(urlMatching("/api/v1.0/devices/.*/initialize"))).isEmpty(); i++) {
+            Thread.sleep(200);
+        }
+        String deviceId = service.findAll(postRequestedFor(urlMatching("/api/v1.0/devices/.*/initialize"))).get(0).getUrl().split("/")[4];
+
+        shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, deviceId));
+
+        service.verify(1, postRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/initialize")));
+    }
+
+    @Test
+    public void initializeDevicesInAdvanceControlTest() throws Exception {
+        shureSystemOn.destroy();
+        shureSystemOn.setMaxConcurrentDeviceInitializations(1);
+        service.stubFor(post(urlMatching("/api/v1.0/devices/.*/initialize")).willReturn(ok().withFixedDelay(1000)));
+        shureSystemOn.init();
+        List<String> deviceIds = retrieveDevices(9).stream().filter(aggregatedDevice -> !aggregatedDevice.getControllableProperties().isEmpty())
+            .map(AggregatedDevice::getDeviceId).collect(Collectors.toList());
+        Assert.assertTrue(deviceIds.size() > 2);
+        for (int i = 0; i < 50 && initializationRequests().isEmpty(); i++) {
+            Thread.sleep(200);
+        }
+        List<String> initializedDeviceIds = initializationRequests();
+        String deviceId = deviceIds.stream().filter(id -> !initializedDeviceIds.contains(id)).reduce((first, second) -> second)
+            .orElseThrow(AssertionError::new);
+        stubDeviceInitialization(deviceId, 1000);
+
+        List<ControlOutcome> outcomes = shureSystemOn.executeControls(Collections.singletonList(new ControllableProperty("Mute", 1, deviceId)));
+
+        // Initializations in advance run one at a time on their own executor, the control does not wait for all of them
+        Assert.assertTrue(outcomes.get(0).isSucceeded());
+        Assert.assertTrue(initializationRequests().size() < deviceIds.size());
+        for (int i = 0; i < 100 && initializationRequests().size() < deviceIds.size(); i++) {
+            Thread.sleep(200);
+        }
+        // Device initialized by the control is not initialized again by the queued initialization in advance
+        Assert.assertEquals(deviceIds.size(), initializationRequests().size());
+        service.verify(1, postRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/initialize")));
+    }
+
+    private List<String> initializationRequests() {
+        return service.findAll(postRequestedFor(urlMatching("/api/v1.0/devices/.*/initialize"))).stream()
+            .map(request -> request.getUrl().split("/")[4]).collect(Collectors.toList());
+    }
+
+    @Test
+    public void deviceCacheSnapshotTest() throws Exception {
+        Path snapshotFile = Files.createTempDirectory("shure-systemon").resolve("devices.snapshot");
+        try {
+            shureSystemOn.destroy();
+            shureSystemOn.setDeviceCacheSnapshotFile(snapshotFile.toString());
+            shureSystemOn.init();
+            AggregatedDevice device = retrieveDevices(9).stream().filter(aggregatedDevice -> !aggregatedDevice.getControllableProperties().isEmpty())
+                .findFirst().orElseThrow(AssertionError::new);
+            shureSystemOn.destroy();
+            Assert.assertTrue(Files.exists(snapshotFile));
+
+            service.stubFor(get(urlPathEqualTo("/api/v1.0/devices"))
+                .willReturn(okJson(resource("shure/devices-response.json")).withFixedDelay(2000)));
+            shureSystemOn.init();
+
+            List<AggregatedDevice> restoredDevices = shureSystemOn.retrieveMultipleStatistics();
+            Assert.assertEquals(9, restoredDevices.size());
+            AggregatedDevice restoredDevice = restoredDevices.stream().filter(aggregatedDevice -> device.getDeviceId().equals(aggregatedDevice.getDeviceId()))
+                .findFirst().orElseThrow(AssertionError::new);
+            Assert.assertEquals("true", restoredDevice.getProperties().get("StaleData"));
+            Assert.assertEquals(device.getDeviceName(), restoredDevice.getDeviceName());
+            Assert.assertEquals(statistics(device), statistics(restoredDevice));
+            Assert.assertEquals(device.getControllableProperties().size(), restoredDevice.getControllableProperties().size());
+
+            for (int i = 0; i < 50 && restoredDevice.getProperties().containsKey("StaleData"); i++) {
+                Thread.sleep(200);
+                restoredDevice = shureSystemOn.retrieveMultipleStatistics().stream().filter(aggregatedDevice -> device.getDeviceId().equals(aggregatedDevice.getDeviceId()))
+                    .findFirst().orElseThrow(AssertionError::new);
+            }
+            Assert.assertFalse(restoredDevice.getProperties().containsKey("StaleData"));
+        } finally {
+            shureSystemOn.destroy();
+            Files.deleteIfExists(snapshotFile);
+            Files.deleteIfExists(snapshotFile.getParent());
+        }
+    }
+
+    @Test
+    public void additionalGatewaysTest() throws Exception {
+        WireMockServer gateway = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        gateway.start();
+        try (ServerSocket socket = new ServerSocket(0)) {
+            ArrayNode devicesList = (ArrayNode) new ObjectMapper().readTree(resource("shure/devices-response.json"));
+            ObjectNode gatewayDevice = (ObjectNode) devicesList.get(0);
+            gatewayDevice.put("hardwareId", "gateway-device");
+            gateway.stubFor(get(urlPathEqualTo("/api/v1.0/devices"))
+                .willReturn(okJson(JsonNodeFactory.instance.arrayNode().add(gatewayDevice).toString())));
+            gateway.stubFor(patch(urlMatching("/api/v1.0/devices/.*")).willReturn(ok()));
+            gateway.stubFor(post(urlMatching("/api/v1.0/devices/.*")).willReturn(ok()));
+            String unreachableGateway = "localhost:" + socket.getLocalPort();
+            socket.close();
+
+            shureSystemOn.destroy();
+            shureSystemOn.setAdditionalGateways("localhost:" + gateway.port() + ", " + unreachableGateway);
+            shureSystemOn.init();
+            List<AggregatedDevice> devices = retrieveDevices(10);
+
+            Assert.assertEquals(10, devices.size());
+            AggregatedDevice device = devices.stream().filter(aggregatedDevice -> "gateway-device".equals(aggregatedDevice.getDeviceId()))
+                .findFirst().orElseThrow(AssertionError::new);
+            Assert.assertEquals("localhost:" + gateway.port(), device.getProperties().get("SystemOnGateway"));
+            // Network gateway of the device, mapped by the model, is kept along with the SystemOn gateway
+            Assert.assertFalse(gatewayDevice.path("currentGateway").asText().isEmpty());
+            Assert.assertEquals(gatewayDevice.path("currentGateway").asText(), device.getProperties().get("Gateway"));
+            Assert.assertEquals(9, devices.stream().filter(aggregatedDevice -> ("localhost:" + service.port())
+                .equals(aggregatedDevice.getProperties().get("SystemOnGateway"))).count());
+
+            shureSystemOn.controlProperty(new ControllableProperty("Mute", 1, "gateway-device"));
+            gateway.verify(patchRequestedFor(urlEqualTo("/api/v1.0/devices/gateway-device/audio/mute")));
+            Assert.assertTrue(service.findAll(patchRequestedFor(urlMatching("/api/v1.0/devices/gateway-device/.*"))).isEmpty());
+
+            Map<String, String> statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+            for (int i = 0; i < 50 && !statistics.containsKey("Errors#ResourceNotReachableException[" + unreachableGateway + "]"); i++) {
+                Thread.sleep(200);
+                statistics = ((ExtendedStatistics) shureSystemOn.getMultipleStatistics().get(0)).getStatistics();
+            }
+            Assert.assertEquals("1", statistics.get("Gateways#localhost:" + gateway.port() + "Devices"));
+            Assert.assertEquals("0", statistics.get("Gateways#" + unreachableGateway + "Devices"));
+            Assert.assertTrue(statistics.containsKey("Errors#ResourceNotReachableException[" + unreachableGateway + "]"));
+        } finally {
+            gateway.stop();
+        }
+    }
+
+    @Test
+    public void controlPropertiesBatchTest() throws Exception {
+        List<AggregatedDevice> devices = retrieveDevices(9);
+        int responseDelay = 1000;
+        service.stubFor(patch(urlMatching(".*/api/v1.0/devices/.*/audio/mute")).willReturn(ok().withFixedDelay(responseDelay)));
+        String deviceId = devices.get(0).getDeviceId();
+        List<ControllableProperty> controllableProperties = new ArrayList<>();
+        controllableProperties.add(new ControllableProperty("Mute", 1, deviceId));
+        for (int i = 1; i < 4; i++) {
+            controllableProperties.add(new ControllableProperty("Mute", 1, devices.get(i).getDeviceId()));
+        }
+        controllableProperties.add(new ControllableProperty("Mute", 0, deviceId));
+
+        List<ControlOutcome> outcomes = shureSystemOn.executeControls(controllableProperties);
+
+        Assert.assertEquals(5, outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            Assert.assertTrue(outcomes.get(i).isSucceeded());
+            Assert.assertSame(controllableProperties.get(i), outcomes.get(i).getControllableProperty());
+        }
+        // Commands of different devices are sent concurrently: the first command of every device is received
+        // before the response to any of the others is sent
+        List<LoggedRequest> firstRequests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            firstRequests.add(service.findAll(patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + devices.get(i).getDeviceId() + "/audio/mute"))).get(0));
+        }
+        long firstReceived = firstRequests.stream().mapToLong(request -> request.getLoggedDate().getTime()).min().getAsLong();
+        long lastReceived = firstRequests.stream().mapToLong(request -> request.getLoggedDate().getTime()).max().getAsLong();
+        Assert.assertTrue(lastReceived - firstReceived < responseDelay);
+        // Commands of the same device are sent in the batch order, the next one after the previous one is complete
+        List<LoggedRequest> deviceRequests = service.findAll(patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + deviceId + "/audio/mute")));
+        Assert.assertEquals(2, deviceRequests.size());
+        Assert.assertTrue(deviceRequests.get(0).getBodyAsString().contains("true"));
+        Assert.assertTrue(deviceRequests.get(1).getBodyAsString().contains("false"));
+        Assert.assertTrue(deviceRequests.get(1).getLoggedDate().getTime() - deviceRequests.get(0).getLoggedDate().getTime() >= responseDelay);
+    }
+
+    @Test
+    public void controlPropertiesBatchFailureTest() throws Exception {
+        List<AggregatedDevice> devices = retrieveDevices(9);
+        String failingDeviceId = devices.get(1).getDeviceId();
+        service.stubFor(patch(urlEqualTo("/api/v1.0/devices/" + failingDeviceId + "/audio/mute"))
+            .willReturn(aResponse().withFault(Fault.EMPTY_RESPONSE)));
+        List<ControllableProperty> controllableProperties = new ArrayList<>();
+        controllableProperties.add(new ControllableProperty("Mute", 1, failingDeviceId));
+        controllableProperties.add(new ControllableProperty("Mute", 1, devices.get(0).getDeviceId()));
+
+        try {
+            shureSystemOn.controlProperties(controllableProperties);
+            Assert.fail("Controls batch is expected to fail");
+        } catch (ControlBatchException e) {
+            Assert.assertEquals(2, e.getOutcomes().size());
+            Assert.assertFalse(e.getOutcomes().get(0).isSucceeded());
+            Assert.assertTrue(e.getOutcomes().get(1).isSucceeded());
+        }
+        service.verify(patchRequestedFor(urlEqualTo("/api/v1.0/devices/" + devices.get(0).getDeviceId() + "/audio/mute")));
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Map<String, String> statistics(AggregatedDevice device) {
+        return device.getStatistics();
+    }
+
+    private static Object muteValue(AggregatedDevice device) {
+        return device.getControllableProperties().stream().filter(property -> "Mute".equals(property.getName()))
+            .findFirst().orElseThrow(AssertionError::new).getValue();
+    }
+
+    @Test
+    public void controlPropertiesBatchRejectedTest() throws Exception {
+        List<AggregatedDevice> devices = retrieveDevices(9).stream().filter(aggregatedDevice -> aggregatedDevice.getControllableProperties().stream()
+            .anyMatch(property -> "Mute".equals(property.getName()))).collect(Collectors.toList());
+        Assert.assertTrue(devices.size() >= 3);
+        service.stubFor(patch(urlEqualTo("/api/v1.0/devices/" + devices.get(0).getDeviceId() + "/audio/mute"))
+            .willReturn(aResponse().withStatus(400).withBody("{\"code\": \"InvalidRequest\"}")));
+        service.stubFor(patch(urlEqualTo("/api/v1.0/devices/" + devices.get(1).getDeviceId() + "/audio/mute"))
+            .willReturn(aResponse().withStatus(500).withBody("{\"code\": \"InternalError\"}")));
+        List<ControllableProperty> controllableProperties = new ArrayList<>();
+        Map<String, Object> initialValues = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            AggregatedDevice device = devices.get(i);
+            initialValues.put(device.getDeviceId(), muteValue(device));
+            controllableProperties.add(new ControllableProperty("Mute", "1".equals(String.valueOf(muteValue(device))) ? 0 : 1, device.getDeviceId()));
+        }
+
+        try {
+            shureSystemOn.controlProperties(controllableProperties);
+            Assert.fail("Controls batch is expected to fail");
+        } catch (ControlBatchException e) {
+            Assert.assertFalse(e.getOutcomes().get(0).isSucceeded());
+            Assert.assertFalse(e.getOutcomes().get(1).isSucceeded());
+            Assert.assertTrue(e.getOutcomes().get(2).isSucceeded());
+        }
+
+        // Rejected controls are not applied to the cached devices, the accepted one is
+        Map<String, AggregatedDevice> updatedDevices = shureSystemOn.retrieveMultipleStatistics().stream()
+            .collect(Collectors.toMap(AggregatedDevice::getDeviceId, device -> device));
+        for (int i = 0; i < 2; i++) {
+            String deviceId = devices.get(i).getDeviceId();
+            Assert.assertEquals(initialValues.get(deviceId), muteValue(updatedDevices.get(deviceId)));
+        }
+        Assert.assertEquals(controllableProperties.get(2).getValue(), muteValue(updatedDevices.get(devices.get(2).getDeviceId())));
+    }
 }
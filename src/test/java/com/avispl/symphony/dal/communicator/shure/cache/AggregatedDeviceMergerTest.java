@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import com.avispl.symphony.api.dal.dto.control.AdvancedControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
+import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Tag;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Tag("unit")
+public class AggregatedDeviceMergerTest {
+    private final AggregatedDeviceMerger merger = new AggregatedDeviceMerger();
+
+    /**
+     * Device data of the version provided: every property and controllable property value is the version,
+     * odd versions have fewer properties, so the merges both add and remove entries
+     */
+    private static AggregatedDevice device(int version) {
+        AggregatedDevice device = new AggregatedDevice();
+        device.setDeviceId("device");
+        device.setDeviceName("Device " + version);
+        Map<String, String> properties = new HashMap<>();
+        List<AdvancedControllableProperty> controllableProperties = new ArrayList<>();
+        for (int i = 0; i < (version % 2 == 0 ? 200 : 100); i++) {
+            properties.put("Property" + i, String.valueOf(version));
+            controllableProperties.add(new AdvancedControllableProperty("Control" + i, new Date(), new AdvancedControllableProperty.Switch(), version));
+        }
+        device.setProperties(properties);
+        device.setControllableProperties(controllableProperties);
+        return device;
+    }
+
+    /**
+     * Device data of the version provided, with every field of the device set
+     */
+    private static AggregatedDevice fullDevice(int version) {
+        AggregatedDevice device = device(version);
+        LegacyDeviceFields.setDeviceType(device, "Microphone " + version);
+        device.setCategory("Category " + version);
+        device.setType("Type " + version);
+        device.setDeviceMake("Shure " + version);
+        device.setDeviceModel("MXA910 " + version);
+        device.setDeviceOnline(version % 2 == 0);
+        device.setSerialNumber("Serial " + version);
+        device.setMacAddresses(Collections.singletonList("00:0E:DD:00:00:0" + version));
+        device.setAviSplAssetId("AviSplAsset " + version);
+        device.setOwnerAssetId("OwnerAsset " + version);
+        LegacyDeviceFields.setStatistics(device, new HashMap<>(Collections.singletonMap("Statistic", String.valueOf(version))));
+        device.setDynamicStatistics(new HashMap<>(Collections.singletonMap("DynamicStatistic", String.valueOf(version))));
+        LegacyDeviceFields.setControl(device, new HashMap<>(Collections.singletonMap("Control", String.valueOf(version))));
+        device.setMonitoredStatistics(Collections.singletonList(new ExtendedStatistics()));
+        device.setTimestamp((long) version);
+        return device;
+    }
+
+    /**
+     * Compare every field of the devices, so the fields added to {@link AggregatedDevice} are not missed
+     */
+    private static void assertSameFields(AggregatedDevice expected, AggregatedDevice actual) throws IllegalAccessException {
+        for (Field field : AggregatedDevice.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            Assert.assertNotNull(field.getName(), field.get(expected));
+            if (!"controllableProperties".equals(field.getName())) {
+                Assert.assertEquals(field.getName(), field.get(expected), field.get(actual));
+                continue;
+            }
+            // Controllable properties do not implement equals
+            Assert.assertEquals(expected.getControllableProperties().size(), actual.getControllableProperties().size());
+            for (int i = 0; i < expected.getControllableProperties().size(); i++) {
+                Assert.assertEquals(expected.getControllableProperties().get(i).getName(), actual.getControllableProperties().get(i).getName());
+                Assert.assertEquals(expected.getControllableProperties().get(i).getValue(), actual.getControllableProperties().get(i).getValue());
+            }
+        }
+    }
+
+    @Test
+    public void allFieldsTest() throws Exception {
+        AggregatedDevice cachedDevice = fullDevice(0);
+        assertSameFields(cachedDevice, merger.copy(cachedDevice));
+
+        AggregatedDevice device = fullDevice(1);
+        Assert.assertTrue(merger.merge(cachedDevice, device));
+        assertSameFields(device, cachedDevice);
+        assertSameFields(device, merger.copy(cachedDevice));
+    }
+
+    @Test
+    public void copyTest() {
+        AggregatedDevice cachedDevice = device(0);
+        AggregatedDevice copy = merger.copy(cachedDevice);
+
+        merger.merge(cachedDevice, device(1));
+
+        Assert.assertEquals("Device 0", copy.getDeviceName());
+        Assert.assertEquals(200, copy.getProperties().size());
+        Assert.assertEquals(200, copy.getControllableProperties().size());
+        Assert.assertEquals(0, copy.getControllableProperties().get(0).getValue());
+        Assert.assertEquals(100, cachedDevice.getProperties().size());
+        Assert.assertEquals(1, cachedDevice.getControllableProperties().get(0).getValue());
+        try {
+            copy.getProperties().put("Property0", "1");
+            Assert.fail("Properties of the copy are expected to be immutable");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals("0", copy.getProperties().get("Property0"));
+        }
+    }
+
+    @Test
+    public void copyWhileMergingTest() throws Exception {
+        AggregatedDevice cachedDevice = device(0);
+        AtomicBoolean merging = new AtomicBoolean(true);
+        CompletableFuture<Integer> merges = CompletableFuture.supplyAsync(() -> {
+            int version = 0;
+            while (merging.get()) {
+                merger.merge(cachedDevice, device(++version));
+            }
+            return version;
+        });
+        try {
+            for (int i = 0; i < 2000 && !merges.isDone(); i++) {
+                AggregatedDevice copy = merger.copy(cachedDevice);
+                // Every copy is a consistent version of the device
+                Set<Object> versions = new HashSet<>(copy.getProperties().values());
+                copy.getControllableProperties().forEach(property -> versions.add(String.valueOf(property.getValue())));
+                versions.add(copy.getDeviceName().substring("Device ".length()));
+                Assert.assertEquals(1, versions.size());
+                Assert.assertEquals(copy.getProperties().size(), copy.getControllableProperties().size());
+            }
+        } finally {
+            merging.set(false);
+        }
+        Assert.assertTrue(merges.get(10, TimeUnit.SECONDS) > 0);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Tag;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+@Tag("unit")
+public class CompactPropertiesTest {
+    private final CompactPropertyStore store = new CompactPropertyStore();
+
+    private static Map<String, String> properties(String serialNumber) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("SerialNumber", serialNumber);
+        properties.put("Encryption", "true");
+        properties.put("IpAddressMode", "Dhcp");
+        properties.put("Location", null);
+        return properties;
+    }
+
+    @Test
+    public void compactTest() {
+        Map<String, String> expectedProperties = properties("1");
+        Map<String, String> properties = store.compact("MXA910", expectedProperties);
+
+        Assert.assertTrue(properties instanceof CompactProperties);
+        Assert.assertEquals(expectedProperties, properties);
+        Assert.assertEquals(expectedProperties.hashCode(), properties.hashCode());
+        Assert.assertTrue(properties.containsKey("Location"));
+        Assert.assertNull(properties.get("Location"));
+        Assert.assertSame(properties, store.compact("MXA910", properties));
+    }
+
+    @Test
+    public void sharedValuesTest() {
+        Map<String, String> first = store.compact("MXA910", properties("1"));
+        Map<String, String> second = store.compact("MXA910", properties("2"));
+
+        // Short repeating values are shared by the devices of the model
+        Assert.assertSame(first.get("IpAddressMode"), second.get("IpAddressMode"));
+        Assert.assertEquals("2", second.get("SerialNumber"));
+        Assert.assertTrue(store.getSharedValuesCount() > 0);
+    }
+
+    @Test
+    public void registeredModelTest() {
+        store.registerModel("MXA910", properties("1").keySet());
+        // First device of the model is sparse, it does not define the schema of the model
+        Map<String, String> sparseProperties = store.compact("MXA910", Collections.singletonMap("SerialNumber", "1"));
+        Map<String, String> properties = store.compact("MXA910", properties("2"));
+
+        Assert.assertEquals(Collections.singletonMap("SerialNumber", "1"), sparseProperties);
+        Assert.assertEquals(properties("2"), properties);
+        Assert.assertEquals(0, ((CompactProperties) sparseProperties).getExtraPropertiesCount());
+        Assert.assertEquals(0, ((CompactProperties) properties).getExtraPropertiesCount());
+    }
+
+    @Test
+    public void firstDeviceSchemaTest() {
+        store.compact("MXA910", Collections.singletonMap("SerialNumber", "1"));
+        Map<String, String> properties = store.compact("MXA910", properties("2"));
+
+        // Models that are not registered take the schema of the first device
+        Assert.assertEquals(properties("2"), properties);
+        Assert.assertEquals(3, ((CompactProperties) properties).getExtraPropertiesCount());
+    }
+
+    @Test
+    public void updateTest() {
+        Map<String, String> expectedProperties = properties("1");
+        Map<String, String> properties = store.compact("MXA910", expectedProperties);
+
+        Assert.assertEquals("true", properties.remove("Encryption"));
+        Assert.assertFalse(properties.containsKey("Encryption"));
+        Assert.assertEquals(3, properties.size());
+        properties.put("Encryption", "false");
+        expectedProperties.put("Encryption", "false");
+        properties.put("ExtraProperty", "true");
+        expectedProperties.put("ExtraProperty", "true");
+        Assert.assertEquals(expectedProperties, properties);
+
+        for (Iterator<Map.Entry<String, String>> iterator = properties.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, String> entry = iterator.next();
+            if ("IpAddressMode".equals(entry.getKey())) {
+                entry.setValue("Static");
+            } else if ("ExtraProperty".equals(entry.getKey())) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals("Static", properties.get("IpAddressMode"));
+        Assert.assertFalse(properties.containsKey("ExtraProperty"));
+
+        properties.keySet().retainAll(Collections.singleton("SerialNumber"));
+        Assert.assertEquals(Collections.singletonMap("SerialNumber", "1"), properties);
+        properties.clear();
+        Assert.assertTrue(properties.isEmpty());
+    }
+}
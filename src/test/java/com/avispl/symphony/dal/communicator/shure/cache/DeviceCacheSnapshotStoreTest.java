@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.cache;
+
+import com.avispl.symphony.api.dal.dto.control.AdvancedControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.Tag;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@Tag("unit")
+public class DeviceCacheSnapshotStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static AggregatedDevice device(List<AdvancedControllableProperty> controllableProperties) {
+        AggregatedDevice device = new AggregatedDevice();
+        device.setDeviceId("device");
+        device.setDeviceName("Device");
+        device.setDeviceOnline(true);
+        device.setMacAddresses(Collections.singletonList("00:0E:DD:00:00:01"));
+        Map<String, String> properties = new HashMap<>();
+        properties.put("Firmware", "4.6.7.0");
+        device.setProperties(properties);
+        LegacyDeviceFields.setDeviceType(device, "Microphone");
+        LegacyDeviceFields.setStatistics(device, new HashMap<>(properties));
+        LegacyDeviceFields.setControl(device, new HashMap<>(properties));
+        device.setControllableProperties(controllableProperties);
+        return device;
+    }
+
+    /**
+     * Write snapshot header with a single device, which id length is given
+     */
+    private static void writeDeviceIdLength(Path snapshotFile, int length) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(snapshotFile)))) {
+            output.writeInt(0x53485353);
+            output.writeInt(1);
+            output.writeInt(1);
+            output.writeInt(length);
+            output.write(new byte[16]);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void stringLengthOverMaximumTest() throws Exception {
+        Path snapshotFile = folder.getRoot().toPath().resolve("devices.snapshot");
+        writeDeviceIdLength(snapshotFile, Integer.MAX_VALUE);
+
+        new DeviceCacheSnapshotStore(snapshotFile).read();
+    }
+
+    @Test(expected = IOException.class)
+    public void stringLengthOverRemainingDataTest() throws Exception {
+        Path snapshotFile = folder.getRoot().toPath().resolve("devices.snapshot");
+        writeDeviceIdLength(snapshotFile, 1024);
+
+        new DeviceCacheSnapshotStore(snapshotFile).read();
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedSnapshotTest() throws Exception {
+        Path snapshotFile = folder.getRoot().toPath().resolve("devices.snapshot");
+        DeviceCacheSnapshotStore store = new DeviceCacheSnapshotStore(snapshotFile);
+        store.write(Collections.nCopies(100, device(Collections.emptyList())));
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+        Files.write(snapshotFile, Arrays.copyOf(snapshot, snapshot.length / 2));
+
+        store.read();
+    }
+
+    @Test
+    public void controllablePropertiesTest() throws Exception {
+        AdvancedControllableProperty.DropDown dropDown = new AdvancedControllableProperty.DropDown();
+        dropDown.setOptions(new String[] {"Low", "High"});
+        dropDown.setLabels(new String[] {"Low", "High"});
+        AdvancedControllableProperty.Slider slider = new AdvancedControllableProperty.Slider();
+        slider.setRangeStart(0f);
+        slider.setRangeEnd(100f);
+        AdvancedControllableProperty.Button button = new AdvancedControllableProperty.Button();
+        button.setGracePeriod(1000L);
+        List<AdvancedControllableProperty> controllableProperties = new ArrayList<>();
+        controllableProperties.add(new AdvancedControllableProperty("Mute", new Date(), new AdvancedControllableProperty.Switch(), 1));
+        controllableProperties.add(new AdvancedControllableProperty("Gain", new Date(), dropDown, "High"));
+        controllableProperties.add(new AdvancedControllableProperty("Level", new Date(), slider, 50f));
+        controllableProperties.add(new AdvancedControllableProperty("Reboot", new Date(), button, 0L));
+        controllableProperties.add(new AdvancedControllableProperty("Delay", new Date(), new AdvancedControllableProperty.Numeric(), 2.5d));
+        controllableProperties.add(new AdvancedControllableProperty("Label", new Date(), new AdvancedControllableProperty.Text(), "Room"));
+        DeviceCacheSnapshotStore store = new DeviceCacheSnapshotStore(folder.getRoot().toPath().resolve("devices.snapshot"));
+
+        store.write(Collections.singletonList(device(controllableProperties)));
+        List<AggregatedDevice> devices = store.read();
+
+        Assert.assertEquals(1, devices.size());
+        AggregatedDevice device = devices.get(0);
+        Assert.assertEquals("Microphone", LegacyDeviceFields.getDeviceType(device));
+        Assert.assertEquals("4.6.7.0", LegacyDeviceFields.getStatistics(device).get("Firmware"));
+        Assert.assertEquals("4.6.7.0", LegacyDeviceFields.getControl(device).get("Firmware"));
+        Assert.assertEquals(controllableProperties.size(), device.getControllableProperties().size());
+        for (int i = 0; i < controllableProperties.size(); i++) {
+            Assert.assertEquals(controllableProperties.get(i).getName(), device.getControllableProperties().get(i).getName());
+            Assert.assertEquals(controllableProperties.get(i).getValue(), device.getControllableProperties().get(i).getValue());
+            Assert.assertEquals(controllableProperties.get(i).getType().getClass(), device.getControllableProperties().get(i).getType().getClass());
+        }
+        Assert.assertArrayEquals(dropDown.getOptions(), ((AdvancedControllableProperty.DropDown) device.getControllableProperties().get(1).getType()).getOptions());
+    }
+
+    @Test
+    public void disallowedClassTest() throws Exception {
+        // Serializable classes that controllable properties do not consist of are not resolved
+        List<AdvancedControllableProperty> controllableProperties = new ArrayList<>();
+        controllableProperties.add(new AdvancedControllableProperty("Mute", new Date(), new AdvancedControllableProperty.Switch(), new HashMap<>()));
+        DeviceCacheSnapshotStore store = new DeviceCacheSnapshotStore(folder.getRoot().toPath().resolve("devices.snapshot"));
+
+        store.write(Collections.singletonList(device(controllableProperties)));
+        List<AggregatedDevice> devices = store.read();
+
+        Assert.assertEquals(1, devices.size());
+        Assert.assertEquals("Device", devices.get(0).getDeviceName());
+        Assert.assertTrue(devices.get(0).getControllableProperties().isEmpty());
+    }
+}
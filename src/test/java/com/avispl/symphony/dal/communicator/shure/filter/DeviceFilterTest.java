@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.filter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Tag;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+@Tag("unit")
+public class DeviceFilterTest {
+
+    @Test
+    public void emptyFilterTest() {
+        DeviceFilter filter = DeviceFilter.parse(" ");
+
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertTrue(filter.matches("MXA910"));
+        Assert.assertTrue(DeviceFilter.parse(null).matches("MXA910"));
+    }
+
+    @Test
+    public void exactValuesTest() {
+        DeviceFilter filter = DeviceFilter.parse("MXA910, MXA310 ,P300");
+
+        Assert.assertTrue(filter.matches("MXA910"));
+        Assert.assertTrue(filter.matches("MXA310"));
+        Assert.assertFalse(filter.matches("MXA9100"));
+        Assert.assertFalse(filter.matches("mxa910"));
+        Assert.assertFalse(filter.hasIncludePatterns());
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("MXA910", "MXA310", "P300")), filter.getIncludedValues());
+    }
+
+    @Test
+    public void globPatternTest() {
+        DeviceFilter filter = DeviceFilter.parse("MXA*,MXW?,SCM820-DAN");
+
+        Assert.assertTrue(filter.matches("MXA910"));
+        Assert.assertTrue(filter.matches("MXW6"));
+        Assert.assertFalse(filter.matches("MXW10"));
+        Assert.assertTrue(filter.matches("SCM820-DAN"));
+        Assert.assertFalse(filter.matches("SCM820"));
+        Assert.assertTrue(filter.hasIncludePatterns());
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("SCM820-DAN")), filter.getIncludedValues());
+    }
+
+    @Test
+    public void regexTest() {
+        DeviceFilter filter = DeviceFilter.parse("/MXA(310|910)/, /MXW[0-9]{1,2}/ ,P300");
+
+        Assert.assertTrue(filter.matches("MXA310"));
+        Assert.assertTrue(filter.matches("MXA910"));
+        Assert.assertFalse(filter.matches("MXA710"));
+        Assert.assertTrue(filter.matches("MXW6"));
+        Assert.assertTrue(filter.matches("MXW10"));
+        Assert.assertFalse(filter.matches("MXW100"));
+        Assert.assertTrue(filter.matches("P300"));
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("P300")), filter.getIncludedValues());
+    }
+
+    @Test
+    public void regexWithSlashTest() {
+        DeviceFilter filter = DeviceFilter.parse("/MX\\/[0-9]+/,/A/B/");
+
+        Assert.assertTrue(filter.matches("MX/10"));
+        Assert.assertTrue(filter.matches("A/B"));
+        Assert.assertFalse(filter.matches("MX10"));
+    }
+
+    @Test
+    public void exclusionsTest() {
+        DeviceFilter filter = DeviceFilter.parse("MXA*,MXA710,P300,!MXA310,! /MXA9[0-9]{1,2}/,!P300");
+
+        Assert.assertTrue(filter.matches("MXA710"));
+        Assert.assertFalse(filter.matches("MXA310"));
+        Assert.assertFalse(filter.matches("MXA910"));
+        Assert.assertFalse(filter.matches("P300"));
+        Assert.assertTrue(filter.excludes("MXA920"));
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("MXA710")), filter.getIncludedValues());
+    }
+
+    @Test
+    public void exclusionsOnlyTest() {
+        DeviceFilter filter = DeviceFilter.parse("!P300");
+
+        Assert.assertFalse(filter.hasIncludes());
+        Assert.assertTrue(filter.matches("MXA910"));
+        Assert.assertFalse(filter.matches("P300"));
+        Assert.assertTrue(filter.getIncludedValues().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRegexTest() {
+        DeviceFilter.parse("MXA910,/MXA(910/");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unterminatedRegexTest() {
+        DeviceFilter.parse("/MXW{1,2},MXA910");
+    }
+}
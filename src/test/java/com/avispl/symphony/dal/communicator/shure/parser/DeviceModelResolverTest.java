@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.parser;
+
+import com.avispl.symphony.dal.aggregator.parser.PropertiesMapping;
+import com.avispl.symphony.dal.aggregator.parser.converter.JsonPropertyConverter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Tag;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Tag("unit")
+public class DeviceModelResolverTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger evaluatedExpressions = new AtomicInteger();
+
+    private DeviceModelResolver deviceModelResolver;
+
+    private static PropertiesMapping mapping(String filter) {
+        return new PropertiesMapping(null, filter, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(),
+                Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    @Before
+    public void setUp() {
+        Map<String, PropertiesMapping> models = new HashMap<>();
+        models.put("MXA910", mapping("get(\"model\").asText().equals(\"MXA910\")"));
+        models.put("MXA310", mapping(" get(\"model\").asText().equals(\"MXA310\") "));
+        models.put("Wireless", mapping("get(\"deviceType\").asText().equals(\"Wireless\")"));
+        models.put("NoFilter", mapping(null));
+        deviceModelResolver = new DeviceModelResolver(models, new JsonPropertyConverter() {
+            @Override
+            public String retrieveJsonValue(JsonNode jsonNode, String expression) {
+                evaluatedExpressions.incrementAndGet();
+                return super.retrieveJsonValue(jsonNode, expression);
+            }
+        });
+    }
+
+    @Test
+    public void indexedModelTest() throws Exception {
+        Assert.assertEquals("MXA910", deviceModelResolver.resolveModelName(objectMapper.readTree("{\"model\":\"MXA910\"}")));
+        Assert.assertEquals("MXA310", deviceModelResolver.resolveModelName(objectMapper.readTree("{\"model\":\"MXA310\"}")));
+        Assert.assertEquals(0, evaluatedExpressions.get());
+    }
+
+    @Test
+    public void expressionFilterTest() throws Exception {
+        JsonNode device = objectMapper.readTree("{\"model\":\"MXW6\",\"deviceType\":\"Wireless\"}");
+
+        Assert.assertEquals("Wireless", deviceModelResolver.resolveModelName(device));
+        Assert.assertEquals(1, evaluatedExpressions.get());
+    }
+
+    @Test
+    public void unknownModelTest() throws Exception {
+        Assert.assertNull(deviceModelResolver.resolveModelName(objectMapper.readTree("{\"model\":\"MXA910X\",\"deviceType\":\"Wired\"}")));
+        Assert.assertNull(deviceModelResolver.resolveModelName(objectMapper.readTree("{\"deviceType\":\"Wired\"}")));
+        Assert.assertEquals(2, evaluatedExpressions.get());
+    }
+}
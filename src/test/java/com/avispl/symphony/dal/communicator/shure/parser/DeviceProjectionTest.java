@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.parser;
+
+import com.avispl.symphony.api.dal.dto.control.AdvancedControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.aggregator.AggregatedDevice;
+import com.avispl.symphony.dal.aggregator.parser.AggregatedDeviceProcessor;
+import com.avispl.symphony.dal.aggregator.parser.PropertiesMapping;
+import com.avispl.symphony.dal.aggregator.parser.PropertiesMappingParser;
+import com.avispl.symphony.dal.aggregator.parser.converter.JsonPropertyConverter;
+import com.avispl.symphony.dal.communicator.shure.ShureSystemOn;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Tag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.io.Resources.getResource;
+
+@Tag("unit")
+public class DeviceProjectionTest {
+    private static final List<String> PAYLOAD_FIELDS = Arrays.asList("hardwareId", "model");
+    private static final String[] FIXTURES = {"shure/devices-response.json", "shure/responces/ANIUSB.json", "shure/responces/IMX-Room.json",
+            "shure/responces/MXA310.json", "shure/responces/MXA910.json", "shure/responces/MXWAPT8.json", "shure/responces/MXWNCS4.json",
+            "shure/responces/P300.json", "shure/responces/SBC850.json", "shure/responces/SCM820-DAN.json"};
+
+    private static Map<String, PropertiesMapping> models(String node, String propertyExpression) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("DeviceId", "get(\"hardwareId\")");
+        properties.put("DanteIpAddress", propertyExpression);
+        properties.put("Vendor", "Shure");
+        PropertiesMapping mapping = new PropertiesMapping(node, "get(\"model\").asText().equals(\"MXA910\")", properties,
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+        return Collections.singletonMap("MXA910", mapping);
+    }
+
+    private static List<DevicePayload> readDevices(DeviceProjection projection, String fixture) throws IOException {
+        List<DevicePayload> devices = new ArrayList<>();
+        try (InputStream stream = getResource(fixture).openStream()) {
+            new DevicesStreamReader(new JsonFactory(), projection).readDevices(stream, devices::add);
+        }
+        return devices;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Map<String, String> statistics(AggregatedDevice device) {
+        return device.getStatistics();
+    }
+
+    @Test
+    public void projectionTest() {
+        DeviceProjection projection = DeviceProjection.fromModels(models(null, "get(\"dante\")?.get(\"ipAddress\")?.asText()"), PAYLOAD_FIELDS);
+
+        Assert.assertFalse(projection.isComplete());
+        Assert.assertTrue(projection.getChild("hardwareId").isComplete());
+        Assert.assertTrue(projection.getChild("model").isComplete());
+        Assert.assertFalse(projection.getChild("dante").isComplete());
+        Assert.assertTrue(projection.getChild("dante").getChild("ipAddress").isComplete());
+        Assert.assertNull(projection.getChild("dante").getChild("macAddress"));
+        Assert.assertNull(projection.getChild("userPresets"));
+    }
+
+    @Test
+    public void unsupportedExpressionTest() {
+        DeviceProjection projection = DeviceProjection.fromModels(models(null, "findValue(\"ipAddress\")?.asText()"), PAYLOAD_FIELDS);
+
+        Assert.assertTrue(projection.isComplete());
+        Assert.assertTrue(projection.getChild("userPresets").isComplete());
+    }
+
+    @Test
+    public void mappingNodeTest() {
+        DeviceProjection projection = DeviceProjection.fromModels(models("device", "get(\"dante\")?.get(\"ipAddress\")?.asText()"), PAYLOAD_FIELDS);
+
+        Assert.assertTrue(projection.isComplete());
+    }
+
+    @Test
+    public void modelMappingTest() throws Exception {
+        Map<String, PropertiesMapping> models = new PropertiesMappingParser().loadYML("shure/model-mapping.yml", ShureSystemOn.class);
+        DeviceProjection projection = DeviceProjection.fromModels(models, PAYLOAD_FIELDS);
+        AggregatedDeviceProcessor processor = new AggregatedDeviceProcessor(models);
+        DeviceModelResolver deviceModelResolver = new DeviceModelResolver(models, new JsonPropertyConverter());
+        Assert.assertFalse(projection.isComplete());
+
+        int mappedDevices = 0;
+        boolean fieldsSkipped = false;
+        for (String fixture : FIXTURES) {
+            List<DevicePayload> completeDevices = readDevices(DeviceProjection.complete(), fixture);
+            List<DevicePayload> projectedDevices = readDevices(projection, fixture);
+            Assert.assertEquals(fixture, completeDevices.size(), projectedDevices.size());
+            for (int i = 0; i < completeDevices.size(); i++) {
+                String modelName = deviceModelResolver.resolveModelName(completeDevices.get(i).getNode());
+                Assert.assertEquals(fixture, modelName, deviceModelResolver.resolveModelName(projectedDevices.get(i).getNode()));
+                if (modelName == null) {
+                    continue;
+                }
+                fieldsSkipped |= projectedDevices.get(i).getNode().size() < completeDevices.get(i).getNode().size();
+                AggregatedDevice completeDevice = new AggregatedDevice();
+                AggregatedDevice projectedDevice = new AggregatedDevice();
+                processor.applyProperties(completeDevice, completeDevices.get(i).getNode(), modelName);
+                processor.applyProperties(projectedDevice, projectedDevices.get(i).getNode(), modelName);
+
+                // Projected payload is mapped to the same device as the complete one
+                String device = fixture + " " + completeDevice.getDeviceId();
+                Assert.assertEquals(device, completeDevice.getDeviceId(), projectedDevice.getDeviceId());
+                Assert.assertEquals(device, completeDevice.getDeviceName(), projectedDevice.getDeviceName());
+                Assert.assertEquals(device, completeDevice.getDeviceModel(), projectedDevice.getDeviceModel());
+                Assert.assertEquals(device, completeDevice.getSerialNumber(), projectedDevice.getSerialNumber());
+                Assert.assertEquals(device, completeDevice.getDeviceOnline(), projectedDevice.getDeviceOnline());
+                Assert.assertEquals(device, completeDevice.getProperties(), projectedDevice.getProperties());
+                Assert.assertEquals(device, statistics(completeDevice), statistics(projectedDevice));
+                Assert.assertEquals(device, completeDevice.getDynamicStatistics(), projectedDevice.getDynamicStatistics());
+                List<AdvancedControllableProperty> completeControls = completeDevice.getControllableProperties();
+                List<AdvancedControllableProperty> projectedControls = projectedDevice.getControllableProperties();
+                Assert.assertEquals(device, completeControls == null ? 0 : completeControls.size(), projectedControls == null ? 0 : projectedControls.size());
+                for (int j = 0; completeControls != null && j < completeControls.size(); j++) {
+                    Assert.assertEquals(device, completeControls.get(j).getName(), projectedControls.get(j).getName());
+                    Assert.assertEquals(device, completeControls.get(j).getValue(), projectedControls.get(j).getValue());
+                }
+                mappedDevices++;
+            }
+        }
+        Assert.assertTrue(mappedDevices > 9);
+        Assert.assertTrue(fieldsSkipped);
+    }
+}
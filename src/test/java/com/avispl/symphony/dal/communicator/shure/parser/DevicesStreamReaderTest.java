@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.shure.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Tag;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@Tag("unit")
+public class DevicesStreamReaderTest {
+    private static final String DEVICE = "{\"hardwareId\":\"1\",\"model\":\"MXW6\",\"batteryPercentage\":100,\"onAir\":false,\"dante\":{\"ipAddress\":\"10.0.0.1\"}}";
+
+    private static long hash(DevicesStreamReader reader, String payload) throws IOException {
+        return reader.readDevice(new ByteArrayInputStream(payload.getBytes(UTF_8))).getHash();
+    }
+
+    @Test
+    public void payloadHashTest() throws Exception {
+        DevicesStreamReader reader = new DevicesStreamReader(new JsonFactory(), DeviceProjection.complete());
+
+        Assert.assertEquals(hash(reader, DEVICE), hash(reader, DEVICE.replace(",", ", ")));
+        Assert.assertNotEquals(hash(reader, DEVICE), hash(reader, DEVICE.replace("100", "50")));
+        Assert.assertNotEquals(hash(reader, DEVICE), hash(reader, DEVICE.replace("false", "true")));
+        Assert.assertNotEquals(hash(reader, DEVICE), hash(reader, DEVICE.replace("10.0.0.1", "10.0.0.2")));
+    }
+
+    @Test
+    public void projectedPayloadHashTest() throws Exception {
+        DeviceProjection projection = DeviceProjection.fromModels(Collections.emptyMap(), Arrays.asList("hardwareId", "batteryPercentage"));
+        DevicesStreamReader reader = new DevicesStreamReader(new JsonFactory(), projection);
+
+        // Fields that are not projected are not mapped, so their changes do not count
+        Assert.assertEquals(hash(reader, DEVICE), hash(reader, DEVICE.replace("10.0.0.1", "10.0.0.2")));
+        Assert.assertNotEquals(hash(reader, DEVICE), hash(reader, DEVICE.replace("100", "50")));
+    }
+}